@@ -0,0 +1,82 @@
+package com.alog.adt.heap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 不同分叉数的d叉堆对比，运行方式：java -cp target/benchmarks.jar org.openjdk.jmh.Main DaryHeapBenchmark
+ *
+ * @author lushenchen 2024/2/3 17:10
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DaryHeapBenchmark
+{
+    @Param({"2", "4", "8"})
+    public int arity;
+    
+    @Param({"1024", "1048576"})
+    public int size;
+    
+    private Integer[] values;
+    
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        Random random = new Random(42);
+        values = new Integer[size];
+        for (int i = 0; i < size; i++)
+        {
+            values[i] = random.nextInt();
+        }
+    }
+    
+    /**
+     * 建堆后依次取出所有元素
+     */
+    @Benchmark
+    public void heapifyAndPoll(Blackhole blackhole)
+    {
+        DaryHeap<Integer> heap = DaryHeap.heapify(values, arity, null);
+        while (!heap.isEmpty())
+        {
+            blackhole.consume(heap.poll());
+        }
+    }
+    
+    /**
+     * 逐个添加后依次取出所有元素
+     */
+    @Benchmark
+    public void offerAndPoll(Blackhole blackhole)
+    {
+        DaryHeap<Integer> heap = new DaryHeap<>(arity, null, size);
+        for (Integer value : values)
+        {
+            heap.offer(value);
+        }
+        while (!heap.isEmpty())
+        {
+            blackhole.consume(heap.poll());
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.alog.adt.tree.bst;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 普通二叉搜索树与平衡模式（AVL树）对比，顺序插入和随机插入后逐个查找、逐个删除，以及只取中序遍历的前几个元素、
+ * 用successor逐个查找和用游标遍历全部元素、用中序遍历列表和用select取第99百分位数<br/>
+ * 运行方式：java -cp target/benchmarks.jar org.openjdk.jmh.Main BinarySearchTreeBenchmark
+ *
+ * @author lushenchen 2024/2/15 20:40
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinarySearchTreeBenchmark
+{
+    @Param({"false", "true"})
+    public boolean balanced;
+    
+    @Param({"sequential", "random"})
+    public String order;
+    
+    @Param({"1024", "4096"})
+    public int size;
+    
+    private Integer[] values;
+    
+    private BinarySearchTree<Integer> tree;
+    
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        values = new Integer[size];
+        tree = new BinarySearchTree<>(balanced);
+        Random random = new Random(42);
+        for (int i = 0; i < size; i++)
+        {
+            values[i] = "sequential".equals(order) ? i : random.nextInt();
+            tree.insert(values[i]);
+        }
+    }
+    
+    @Benchmark
+    public int insertAndFind()
+    {
+        BinarySearchTree<Integer> tree = new BinarySearchTree<>(balanced);
+        for (Integer value : values)
+        {
+            tree.insert(value);
+        }
+        int found = 0;
+        for (Integer value : values)
+        {
+            if (tree.contains(value))
+            {
+                found++;
+            }
+        }
+        return found;
+    }
+    
+    @Benchmark
+    public int insertAndRemove()
+    {
+        BinarySearchTree<Integer> tree = new BinarySearchTree<>(balanced);
+        for (Integer value : values)
+        {
+            tree.insert(value);
+        }
+        int removed = 0;
+        for (Integer value : values)
+        {
+            if (tree.remove(value))
+            {
+                removed++;
+            }
+        }
+        return removed;
+    }
+    
+    @Benchmark
+    public int firstTenList()
+    {
+        List<Integer> list = tree.inOrder();
+        int sum = 0;
+        for (int i = 0; i < 10; i++)
+        {
+            sum += list.get(i);
+        }
+        return sum;
+    }
+    
+    @Benchmark
+    public int firstTenIterator()
+    {
+        Iterator<Integer> iterator = tree.iterator();
+        int sum = 0;
+        for (int i = 0; i < 10; i++)
+        {
+            sum += iterator.next();
+        }
+        return sum;
+    }
+    
+    @Benchmark
+    public int walkSuccessor()
+    {
+        int count = 0;
+        for (Integer value = tree.getMin(); value != null; value = tree.successor(value))
+        {
+            count++;
+        }
+        return count;
+    }
+    
+    @Benchmark
+    public int walkCursor()
+    {
+        int count = 0;
+        for (BinarySearchTree<Integer>.Cursor cursor = tree.cursor(); cursor.isValid(); cursor.next())
+        {
+            count++;
+        }
+        return count;
+    }
+    
+    @Benchmark
+    public Integer percentileList()
+    {
+        List<Integer> list = tree.inOrder();
+        return list.get(list.size() * 99 / 100);
+    }
+    
+    @Benchmark
+    public Integer percentileSelect()
+    {
+        return tree.select(tree.size() * 99 / 100);
+    }
+}
@@ -0,0 +1,167 @@
+package com.alog.algorithm.sort;
+
+import java.util.Random;
+
+/**
+ * 基准测试的输入分布<br/>
+ * 先生成long类型的数据，其他元素类型由它转换而来，保证不同元素类型的输入具有相同的分布。
+ *
+ * @author lushenchen 2024/1/24 21:10
+ * @since 1.0.0
+ */
+public enum Distribution
+{
+    /**
+     * 1.随机
+     */
+    RANDOM
+            {
+                @Override
+                long[] generate(int n, Random random)
+                {
+                    long[] data = new long[n];
+                    for (int i = 0; i < n; i++)
+                    {
+                        // 低32位转换成int后依然是均匀分布的
+                        data[i] = random.nextLong();
+                    }
+                    return data;
+                }
+            },
+    
+    /**
+     * 2.升序
+     */
+    SORTED
+            {
+                @Override
+                long[] generate(int n, Random random)
+                {
+                    long[] data = new long[n];
+                    for (int i = 0; i < n; i++)
+                    {
+                        data[i] = i;
+                    }
+                    return data;
+                }
+            },
+    
+    /**
+     * 3.降序
+     */
+    REVERSE
+            {
+                @Override
+                long[] generate(int n, Random random)
+                {
+                    long[] data = new long[n];
+                    for (int i = 0; i < n; i++)
+                    {
+                        data[i] = n - i;
+                    }
+                    return data;
+                }
+            },
+    
+    /**
+     * 4.锯齿：长度为√n的升序子组首尾相接
+     */
+    SAWTOOTH
+            {
+                @Override
+                long[] generate(int n, Random random)
+                {
+                    int period = Math.max(2, (int) Math.sqrt(n));
+                    long[] data = new long[n];
+                    for (int i = 0; i < n; i++)
+                    {
+                        data[i] = i % period;
+                    }
+                    return data;
+                }
+            },
+    
+    /**
+     * 5.只有16种不同的值
+     */
+    FEW_UNIQUE
+            {
+                @Override
+                long[] generate(int n, Random random)
+                {
+                    long[] data = new long[n];
+                    for (int i = 0; i < n; i++)
+                    {
+                        data[i] = random.nextInt(16);
+                    }
+                    return data;
+                }
+            },
+    
+    /**
+     * 6.升序序列中随机交换1%的元素
+     */
+    NEARLY_SORTED
+            {
+                @Override
+                long[] generate(int n, Random random)
+                {
+                    long[] data = SORTED.generate(n, random);
+                    for (int k = n / 100 + 1; k > 0; k--)
+                    {
+                        int i = random.nextInt(n), j = random.nextInt(n);
+                        long t = data[i];
+                        data[i] = data[j];
+                        data[j] = t;
+                    }
+                    return data;
+                }
+            };
+    
+    /**
+     * 生成指定长度的数据
+     *
+     * @param n      数据长度
+     * @param random 随机数生成器
+     * @return 数据
+     */
+    abstract long[] generate(int n, Random random);
+    
+    public long[] longs(int n, long seed)
+    {
+        return generate(n, new Random(seed));
+    }
+    
+    public int[] ints(int n, long seed)
+    {
+        long[] data = longs(n, seed);
+        int[] ints = new int[n];
+        for (int i = 0; i < n; i++)
+        {
+            ints[i] = (int) data[i];
+        }
+        return ints;
+    }
+    
+    public double[] doubles(int n, long seed)
+    {
+        long[] data = longs(n, seed);
+        double[] doubles = new double[n];
+        for (int i = 0; i < n; i++)
+        {
+            doubles[i] = data[i];
+        }
+        return doubles;
+    }
+    
+    public Integer[] boxed(int n, long seed)
+    {
+        int[] data = ints(n, seed);
+        Integer[] boxed = new Integer[n];
+        for (int i = 0; i < n; i++)
+        {
+            boxed[i] = data[i];
+        }
+        return boxed;
+    }
+}
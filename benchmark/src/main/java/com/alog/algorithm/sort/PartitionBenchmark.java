@@ -0,0 +1,85 @@
+package com.alog.algorithm.sort;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 随机数据上Hoare分割与块分割的对比，每次调用先复制原始数据再分割一次，两者的复制开销相同<br/>
+ * 运行方式：java -cp target/benchmarks.jar org.openjdk.jmh.Main PartitionBenchmark -prof perfnorm，
+ * Linux上perfnorm给出每次调用的branch-misses
+ *
+ * @author lushenchen 2024/2/7 20:40
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PartitionBenchmark
+{
+    @Param({"65536", "1048576"})
+    public int size;
+    
+    private int[] ints;
+    
+    private long[] longs;
+    
+    private int[] intWork;
+    
+    private long[] longWork;
+    
+    private final int[] offsets = new int[2 * Sorts.PARTITION_BLOCK];
+    
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        Random random = new Random(42);
+        ints = random.ints(size).toArray();
+        longs = random.longs(size).toArray();
+        intWork = new int[size];
+        longWork = new long[size];
+    }
+    
+    @Benchmark
+    public int hoareInt()
+    {
+        System.arraycopy(ints, 0, intWork, 0, size);
+        return Sorts.partition(intWork, 0, size - 1);
+    }
+    
+    @Benchmark
+    public int blockInt()
+    {
+        System.arraycopy(ints, 0, intWork, 0, size);
+        return Sorts.blockPartition(intWork, 0, size - 1, offsets);
+    }
+    
+    @Benchmark
+    public int hoareLong()
+    {
+        System.arraycopy(longs, 0, longWork, 0, size);
+        return Sorts.partition(longWork, 0, size - 1);
+    }
+    
+    @Benchmark
+    public int blockLong()
+    {
+        System.arraycopy(longs, 0, longWork, 0, size);
+        return Sorts.blockPartition(longWork, 0, size - 1, offsets);
+    }
+}
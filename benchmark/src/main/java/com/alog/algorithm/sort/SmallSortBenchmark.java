@@ -0,0 +1,84 @@
+package com.alog.algorithm.sort;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分治排序的小区间基础情形<br/>
+ * network、insertion把同一段随机数据切成长度为n的小块逐块排序，对比排序网络和插入排序，
+ * 不同阈值下的完整排序见{@link SmallSortThresholdBenchmark}。
+ *
+ * @author lushenchen 2024/2/13 21:30
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SmallSortBenchmark
+{
+    private static final int SIZE = 1 << 16;
+    
+    @Param({"4", "8", "12", "16"})
+    public int n;
+    
+    private int[] source, work;
+    
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        source = new Random(42).ints(SIZE).toArray();
+        work = new int[SIZE];
+    }
+    
+    @Benchmark
+    public int[] network()
+    {
+        System.arraycopy(source, 0, work, 0, SIZE);
+        for (int left = 0; left + n <= SIZE; left += n)
+        {
+            SmallSorts.sort(work, left, left + n - 1);
+        }
+        return work;
+    }
+    
+    @Benchmark
+    public int[] insertion()
+    {
+        System.arraycopy(source, 0, work, 0, SIZE);
+        for (int left = 0; left + n <= SIZE; left += n)
+        {
+            insertionSort(work, left, left + n - 1);
+        }
+        return work;
+    }
+    
+    private static void insertionSort(int[] arr, int left, int right)
+    {
+        for (int i = left + 1; i <= right; i++)
+        {
+            int current = arr[i];
+            int j = i;
+            for (; j > left && current < arr[j - 1]; j--)
+            {
+                arr[j] = arr[j - 1];
+            }
+            arr[j] = current;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.alog.algorithm.sort;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 不同基础情形阈值下的完整排序<br/>
+ * 阈值是static final常量，在类初始化时读取，同一个JVM中不能改变，用JMH的-jvmArgsAppend在不同的fork中设置，例如
+ * java -cp target/benchmarks.jar org.openjdk.jmh.Main SmallSortThresholdBenchmark -jvmArgsAppend -Dcom.alog.algorithm.sort.networkThreshold=1，
+ * 1即关闭排序网络，与默认的16对比。
+ *
+ * @author lushenchen 2024/2/13 21:30
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SmallSortThresholdBenchmark
+{
+    private static final int SIZE = 1 << 20;
+    
+    private int[] source, work;
+    
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        source = new Random(42).ints(SIZE).toArray();
+        work = new int[SIZE];
+    }
+    
+    @Benchmark
+    public int[] quick()
+    {
+        System.arraycopy(source, 0, work, 0, SIZE);
+        Sorts.Quick.sort(work);
+        return work;
+    }
+    
+    @Benchmark
+    public int[] merge()
+    {
+        System.arraycopy(source, 0, work, 0, SIZE);
+        Sorts.Merge.sort(work);
+        return work;
+    }
+}
@@ -0,0 +1,121 @@
+package com.alog.algorithm.sort;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 排序算法的基准测试<br/>
+ * 1.algorithm参数不指定取值，默认覆盖{@link Sorts}的所有常量，新增的算法自动加入测试。<br/>
+ * 2.每次调用先把原始数据复制到预先分配的工作数组再排序，复制的开销计入结果，但不产生分配，
+ * 使用-prof gc看到的分配速率全部来自排序算法本身。<br/>
+ * 3.算法不支持的元素类型和平方级算法的大规模输入没有意义，通过{@link SortsBenchmarkRunner}运行时会跳过这些组合。
+ *
+ * @author lushenchen 2024/1/24 21:30
+ * @since 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class SortsBenchmark
+{
+    /**
+     * 固定的随机种子，不同算法使用相同的输入
+     */
+    private static final long SEED = 42;
+    
+    @Param
+    public Sorts algorithm;
+    
+    @Param({"16", "256", "4096", "65536", "1048576", "10000000"})
+    public int size;
+    
+    @Param
+    public Distribution distribution;
+    
+    private Integer[] boxedSource, boxed;
+    
+    private int[] intSource, ints;
+    
+    private long[] longSource, longs;
+    
+    private double[] doubleSource, doubles;
+    
+    /**
+     * 只生成当前方法用到的元素类型，一千万个元素时可以节省大量内存
+     */
+    @Setup(Level.Trial)
+    public void setup(BenchmarkParams params)
+    {
+        String benchmark = params.getBenchmark();
+        String method = benchmark.substring(benchmark.lastIndexOf('.') + 1);
+        switch (method)
+        {
+            case "boxed":
+                boxedSource = distribution.boxed(size, SEED);
+                boxed = new Integer[size];
+                break;
+            case "ints":
+                intSource = distribution.ints(size, SEED);
+                ints = new int[size];
+                break;
+            case "longs":
+                longSource = distribution.longs(size, SEED);
+                longs = new long[size];
+                break;
+            case "doubles":
+                doubleSource = distribution.doubles(size, SEED);
+                doubles = new double[size];
+                break;
+            default:
+                throw new IllegalStateException(benchmark);
+        }
+    }
+    
+    @Benchmark
+    public Integer[] boxed()
+    {
+        System.arraycopy(boxedSource, 0, boxed, 0, size);
+        algorithm.sort(boxed);
+        return boxed;
+    }
+    
+    @Benchmark
+    public int[] ints()
+    {
+        System.arraycopy(intSource, 0, ints, 0, size);
+        algorithm.sort(ints);
+        return ints;
+    }
+    
+    @Benchmark
+    public long[] longs()
+    {
+        System.arraycopy(longSource, 0, longs, 0, size);
+        algorithm.sort(longs);
+        return longs;
+    }
+    
+    @Benchmark
+    public double[] doubles()
+    {
+        System.arraycopy(doubleSource, 0, doubles, 0, size);
+        algorithm.sort(doubles);
+        return doubles;
+    }
+}
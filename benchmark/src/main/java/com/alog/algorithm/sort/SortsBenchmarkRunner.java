@@ -0,0 +1,118 @@
+package com.alog.algorithm.sort;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatFactory;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * {@link SortsBenchmark}的入口，按算法逐个运行基准测试<br/>
+ * 1.通过在小数组上试排序判断算法支持的元素类型，跳过会抛出{@link UnsupportedOperationException}的组合。<br/>
+ * 2.平方级算法只运行不超过{@link #QUADRATIC_LIMIT}的规模。<br/>
+ * 3.其他命令行参数与JMH一致，例如-prof gc统计分配速率，-p distribution=RANDOM只测随机输入，
+ * -rf csv -rff result.csv将所有算法的结果写入同一个文件。
+ *
+ * @author lushenchen 2024/1/24 22:05
+ * @since 1.0.0
+ */
+public class SortsBenchmarkRunner
+{
+    /**
+     * 平方级算法的最大规模
+     */
+    private static final int QUADRATIC_LIMIT = 65536;
+    
+    private static final Set<Sorts> QUADRATIC = EnumSet.of(Sorts.Bubble, Sorts.Selection, Sorts.Insertion);
+    
+    private static final String[] SIZES = {"16", "256", "4096", "65536", "1048576", "10000000"};
+    
+    public static void main(String[] args) throws Exception
+    {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        Collection<String> algorithms = cli.getParameter("algorithm").orElse(null);
+        Collection<String> sizes = cli.getParameter("size").orElse(Arrays.asList(SIZES));
+        List<RunResult> results = new ArrayList<>();
+        for (Sorts sorts : Sorts.values())
+        {
+            if (algorithms != null && !algorithms.contains(sorts.name()))
+            {
+                continue;
+            }
+            List<String> methods = supportedMethods(sorts);
+            List<String> supportedSizes = new ArrayList<>();
+            for (String size : sizes)
+            {
+                if (!QUADRATIC.contains(sorts) || Integer.parseInt(size) <= QUADRATIC_LIMIT)
+                {
+                    supportedSizes.add(size);
+                }
+            }
+            if (methods.isEmpty() || supportedSizes.isEmpty())
+            {
+                continue;
+            }
+            Options options = new OptionsBuilder()
+                    .parent(cli)
+                    .include(SortsBenchmark.class.getName() + "\\.(" + String.join("|", methods) + ")$")
+                    .param("algorithm", sorts.name())
+                    .param("size", supportedSizes.toArray(new String[0]))
+                    .build();
+            results.addAll(new Runner(options).run());
+        }
+        // 每次运行都会覆盖结果文件，最后写入所有算法的结果
+        if (cli.getResult().hasValue() || cli.getResultFormat().hasValue())
+        {
+            ResultFormatType type = cli.getResultFormat().orElse(ResultFormatType.CSV);
+            String file = cli.getResult().orElse("jmh-result." + type.toString().toLowerCase());
+            ResultFormatFactory.getInstance(type, file).writeOut(results);
+        }
+    }
+    
+    /**
+     * 在小数组上试排序，找出算法支持的元素类型
+     */
+    private static List<String> supportedMethods(Sorts sorts)
+    {
+        List<String> methods = new ArrayList<>();
+        if (supports(() -> sorts.sort(new Integer[]{2, 1})))
+        {
+            methods.add("boxed");
+        }
+        if (supports(() -> sorts.sort(new int[]{2, 1})))
+        {
+            methods.add("ints");
+        }
+        if (supports(() -> sorts.sort(new long[]{2, 1})))
+        {
+            methods.add("longs");
+        }
+        if (supports(() -> sorts.sort(new double[]{2, 1})))
+        {
+            methods.add("doubles");
+        }
+        return methods;
+    }
+    
+    private static boolean supports(Runnable sort)
+    {
+        try
+        {
+            sort.run();
+            return true;
+        }
+        catch (UnsupportedOperationException e)
+        {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package com.alog.adt.heap;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+/**
+ * d叉堆实现的优先队列，堆顶是比较器意义下最小的元素<br/>
+ * 1.d取2、4、8等2的幂，子节点和父节点的位置通过移位计算：节点i的子节点为d·i+1到d·i+d，父节点为(i-1)/d。<br/>
+ * 2.d越大树越矮，上浮越快；同一节点的d个子节点在数组中连续存放，下沉时一次访问的数据落在相邻的缓存行中，
+ * 4叉堆通常比2叉堆更快。<br/>
+ * 3.poll采用Floyd自底向上的下沉：空位沿最小的子节点一路下移到叶子，再把末尾元素上浮，每层省去与下沉元素的比较。<br/>
+ * 4.heapify从数组自底向上建堆，O(n)。<br/>
+ * 5.下沉、上浮和建堆也以静态方法提供，直接操作数组中的一段，堆排序和topK选择共用，大顶堆传入逆序的比较器。
+ *
+ * @author lushenchen 2024/2/3 15:20
+ * @since 1.0.0
+ */
+public class DaryHeap<E>
+{
+    /**
+     * 默认的分叉数
+     */
+    public static final int DEFAULT_ARITY = 4;
+    
+    private static final int DEFAULT_CAPACITY = 16;
+    
+    /**
+     * 自然顺序，元素没有实现Comparable时比较抛出ClassCastException
+     */
+    @SuppressWarnings("unchecked")
+    private static final Comparator<Object> NATURAL_ORDER = new Comparator<Object>()
+    {
+        @Override
+        public int compare(Object o1, Object o2)
+        {
+            return ((Comparable<Object>) o1).compareTo(o2);
+        }
+    };
+    
+    /**
+     * 分叉数以2为底的对数
+     */
+    private final int shift;
+    
+    /**
+     * 比较器，为null时使用自然顺序
+     */
+    private final Comparator<? super E> comparator;
+    
+    /**
+     * 实际使用的比较器，comparator为null时是自然顺序
+     */
+    private final Comparator<? super E> order;
+    
+    /**
+     * 存放堆元素的数组，堆顶位于0
+     */
+    private Object[] queue;
+    
+    /**
+     * 堆中元素的个数
+     */
+    private int size;
+    
+    /**
+     * 使用默认分叉数和自然顺序
+     */
+    public DaryHeap()
+    {
+        this(DEFAULT_ARITY, null);
+    }
+    
+    /**
+     * @param arity      分叉数，必须是2的幂，不超过64
+     * @param comparator 比较器，为null时使用自然顺序
+     */
+    public DaryHeap(int arity, Comparator<? super E> comparator)
+    {
+        this(arity, comparator, DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * @param arity           分叉数，必须是2的幂，不超过64
+     * @param comparator      比较器，为null时使用自然顺序
+     * @param initialCapacity 初始容量
+     */
+    public DaryHeap(int arity, Comparator<? super E> comparator, int initialCapacity)
+    {
+        if (arity < 2 || arity > 64 || Integer.bitCount(arity) != 1)
+        {
+            throw new IllegalArgumentException("arity: " + arity);
+        }
+        if (initialCapacity < 0)
+        {
+            throw new IllegalArgumentException("initialCapacity: " + initialCapacity);
+        }
+        this.shift = Integer.numberOfTrailingZeros(arity);
+        this.comparator = comparator;
+        this.order = comparator == null ? DaryHeap.<E>naturalOrder() : comparator;
+        this.queue = new Object[Math.max(1, initialCapacity)];
+    }
+    
+    /**
+     * 用数组中的元素建堆，数组本身不会被修改
+     *
+     * @param elements   元素
+     * @param arity      分叉数，必须是2的幂，不超过64
+     * @param comparator 比较器，为null时使用自然顺序
+     * @param <E>        元素类型
+     * @return 优先队列
+     */
+    public static <E> DaryHeap<E> heapify(E[] elements, int arity, Comparator<? super E> comparator)
+    {
+        DaryHeap<E> heap = new DaryHeap<>(arity, comparator, elements.length);
+        for (E element : elements)
+        {
+            if (element == null)
+            {
+                throw new NullPointerException();
+            }
+        }
+        System.arraycopy(elements, 0, heap.queue, 0, elements.length);
+        heap.size = elements.length;
+        buildHeap(heap.elements(), 0, heap.size, heap.shift, heap.order);
+        return heap;
+    }
+    
+    /**
+     * 添加元素
+     *
+     * @param e 元素，不能为null
+     * @return true
+     */
+    public boolean offer(E e)
+    {
+        if (e == null)
+        {
+            throw new NullPointerException();
+        }
+        if (size == queue.length)
+        {
+            queue = Arrays.copyOf(queue, queue.length + (queue.length >> 1) + 1);
+        }
+        swim(elements(), 0, size++, e, shift, order);
+        return true;
+    }
+    
+    /**
+     * 取出并移除堆顶元素
+     *
+     * @return 堆顶元素，堆为空时返回null
+     */
+    public E poll()
+    {
+        if (size == 0)
+        {
+            return null;
+        }
+        E top = elementAt(0);
+        E last = elementAt(--size);
+        queue[size] = null;
+        if (size > 0)
+        {
+            floydSink(elements(), 0, last, size, shift, order);
+        }
+        return top;
+    }
+    
+    /**
+     * 查看堆顶元素
+     *
+     * @return 堆顶元素，堆为空时返回null
+     */
+    public E peek()
+    {
+        return size == 0 ? null : elementAt(0);
+    }
+    
+    /**
+     * 取出并移除堆顶元素
+     *
+     * @return 堆顶元素
+     * @throws NoSuchElementException 堆为空
+     */
+    public E remove()
+    {
+        E top = poll();
+        if (top == null)
+        {
+            throw new NoSuchElementException();
+        }
+        return top;
+    }
+    
+    public int size()
+    {
+        return size;
+    }
+    
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+    
+    public void clear()
+    {
+        Arrays.fill(queue, 0, size, null);
+        size = 0;
+    }
+    
+    public int getArity()
+    {
+        return 1 << shift;
+    }
+    
+    public Comparator<? super E> getComparator()
+    {
+        return comparator;
+    }
+    
+    /**
+     * 把数组中base开始的n个元素构建成d叉堆，从最后一个元素的父节点开始，非叶子节点依次下沉，O(n)<br/>
+     * 堆中第i(0-based)个元素位于heap[base + i]，堆顶是比较器意义下最小的元素，需要大顶堆时传入逆序的比较器
+     *
+     * @param heap  乱序的数组
+     * @param base  堆顶在数组中的位置
+     * @param n     堆中元素的个数
+     * @param shift 分叉数以2为底的对数
+     * @param c     比较器
+     * @param <T>   元素类型
+     */
+    public static <T> void buildHeap(T[] heap, int base, int n, int shift, Comparator<? super T> c)
+    {
+        for (int i = (n - 2) >> shift; i >= 0; i--)
+        {
+            sink(heap, base, i, heap[base + i], n, shift, c);
+        }
+    }
+    
+    /**
+     * 把value放到位于hole的空位，并上浮到合适的位置，较小的父节点依次下移，不做交换
+     *
+     * @param heap  堆
+     * @param base  堆顶在数组中的位置
+     * @param hole  空位
+     * @param value 放入堆中的元素
+     * @param shift 分叉数以2为底的对数
+     * @param c     比较器
+     * @param <T>   元素类型
+     */
+    public static <T> void swim(T[] heap, int base, int hole, T value, int shift, Comparator<? super T> c)
+    {
+        while (hole > 0)
+        {
+            int parent = (hole - 1) >> shift;
+            T p = heap[base + parent];
+            if (c.compare(value, p) >= 0)
+            {
+                break;
+            }
+            heap[base + hole] = p;
+            hole = parent;
+        }
+        heap[base + hole] = value;
+    }
+    
+    /**
+     * 把value放到位于hole的空位，并下沉到合适的位置，最小的子节点依次上移，不做交换
+     *
+     * @param heap  堆
+     * @param base  堆顶在数组中的位置
+     * @param hole  空位
+     * @param value 放入堆中的元素
+     * @param n     堆中元素的个数
+     * @param shift 分叉数以2为底的对数
+     * @param c     比较器
+     * @param <T>   元素类型
+     */
+    public static <T> void sink(T[] heap, int base, int hole, T value, int n, int shift, Comparator<? super T> c)
+    {
+        int child;
+        while ((child = (hole << shift) + 1) < n)
+        {
+            child = minChild(heap, base, child, n, shift, c);
+            T min = heap[base + child];
+            if (c.compare(value, min) <= 0)
+            {
+                break;
+            }
+            heap[base + hole] = min;
+            hole = child;
+        }
+        heap[base + hole] = value;
+    }
+    
+    /**
+     * Floyd自底向上的下沉：堆顶是空位，先沿最小的子节点一路下移到叶子，再把value从叶子上浮<br/>
+     * 从堆顶移下来的元素通常会回到接近叶子的位置，每层省去与value的比较
+     *
+     * @param heap  堆
+     * @param base  堆顶在数组中的位置
+     * @param value 放入堆中的元素
+     * @param n     堆中元素的个数
+     * @param shift 分叉数以2为底的对数
+     * @param c     比较器
+     * @param <T>   元素类型
+     */
+    public static <T> void floydSink(T[] heap, int base, T value, int n, int shift, Comparator<? super T> c)
+    {
+        int hole = 0;
+        int child;
+        while ((child = (hole << shift) + 1) < n)
+        {
+            child = minChild(heap, base, child, n, shift, c);
+            heap[base + hole] = heap[base + child];
+            hole = child;
+        }
+        swim(heap, base, hole, value, shift, c);
+    }
+    
+    /**
+     * 返回从first开始的一组子节点中最小的位置，相等时取靠前的
+     */
+    private static <T> int minChild(T[] heap, int base, int first, int n, int shift, Comparator<? super T> c)
+    {
+        int end = Math.min(first + (1 << shift), n);
+        int min = first;
+        for (int i = first + 1; i < end; i++)
+        {
+            if (c.compare(heap[base + i], heap[base + min]) < 0)
+            {
+                min = i;
+            }
+        }
+        return min;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <E> Comparator<? super E> naturalOrder()
+    {
+        return (Comparator<? super E>) NATURAL_ORDER;
+    }
+    
+    /**
+     * 存放元素的数组按元素类型使用，只在内部读写
+     */
+    @SuppressWarnings("unchecked")
+    private E[] elements()
+    {
+        return (E[]) queue;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private E elementAt(int index)
+    {
+        return (E) queue[index];
+    }
+}
@@ -1,31 +1,153 @@
 package com.alog.adt.tree.bst;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Queue;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
- * 二叉搜索树(BST)
+ * 二叉搜索树(BST)<br/>
+ * 默认不做平衡，按顺序插入时退化成链表；平衡模式是AVL树，插入后沿路径向上更新高度，
+ * 左右子树高度差超过1时旋转，树高不超过1.44·log₂(n+2)，查找、插入、删除、前驱、后继都是O(log n)。<br/>
+ * 查找、插入、删除都用循环实现，节点记录父节点，插入、删除后沿父节点向上回溯，退化的深树也不会栈溢出。<br/>
+ * 遍历是惰性的：迭代器用深度O(h)的显式栈，可以提前结束；{@link #spliterator()}在子树边界上拆分，支持并行流。<br/>
+ * floor、ceiling、lower、higher只从根节点下降一次，元素不必在树中；{@link Cursor}沿父节点移动，遍历m个元素的区间是O(h + m)。<br/>
+ * 每个节点记录子树的高度和元素个数，插入、删除、旋转时沿路径更新，rank、select、countInRange都是O(h)。
  *
  * @author lushenchen 2024/1/3 9:30
  * @since 1.0.0
  */
-public class BinarySearchTree<E extends Comparable<? super E>>
+public class BinarySearchTree<E extends Comparable<? super E>> implements Iterable<E>
 {
     /**
      * 二叉树搜索树根节点
      */
     private Node<E> root;
     
+    /**
+     * 是否是平衡模式（AVL树）
+     */
+    private final boolean balanced;
+    
+    /**
+     * 结构修改（插入新节点、删除节点）的次数，迭代器据此快速失败
+     */
+    private int modCount;
+    
     public BinarySearchTree()
+    {
+        this(false);
+    }
+    
+    /**
+     * @param balanced 为true时插入后自动平衡（AVL树）
+     */
+    public BinarySearchTree(boolean balanced)
     {
         this.root = null;
+        this.balanced = balanced;
     }
     
     public BinarySearchTree(E Value)
     {
         this.root = new Node<>(Value);
+        this.balanced = false;
+    }
+    
+    public boolean isBalanced()
+    {
+        return balanced;
+    }
+    
+    /**
+     * 树的高度，空树为0，只有根节点为1<br/>
+     * 插入、删除时沿路径维护每个节点的高度，直接读取根节点记录的高度
+     *
+     * @return
+     */
+    public int height()
+    {
+        return height(root);
+    }
+    
+    /**
+     * 元素个数
+     *
+     * @return
+     */
+    public int size()
+    {
+        return size(root);
+    }
+    
+    /**
+     * 严格小于指定元素的元素个数，即指定元素在中序遍历中的位置（从0开始），指定元素不必在树中
+     *
+     * @param target 指定元素
+     * @return
+     */
+    public int rank(E target)
+    {
+        return rank(target, false);
+    }
+    
+    /**
+     * 中序遍历中第k个元素（从0开始），rank(select(k)) == k
+     *
+     * @param k 位置
+     * @return
+     * @throws IndexOutOfBoundsException k小于0或者不小于元素个数
+     */
+    public E select(int k)
+    {
+        if (k < 0 || k >= size())
+        {
+            throw new IndexOutOfBoundsException("k: " + k + ", size: " + size());
+        }
+        Node<E> current = root;
+        while (true)
+        {
+            int leftSize = size(current.left);
+            if (k < leftSize)
+            {
+                current = current.left;
+            }
+            else if (k > leftSize)
+            {
+                k -= leftSize + 1;
+                current = current.right;
+            }
+            else
+            {
+                return current.value;
+            }
+        }
+    }
+    
+    /**
+     * 闭区间[lo, hi]中的元素个数，lo、hi不必在树中，lo大于hi时为0
+     *
+     * @param lo 下界
+     * @param hi 上界
+     * @return
+     */
+    public int countInRange(E lo, E hi)
+    {
+        if (lo.compareTo(hi) > 0)
+        {
+            return 0;
+        }
+        return rank(hi, true) - rank(lo, false);
     }
     
     /**
@@ -62,139 +184,210 @@ public class BinarySearchTree<E extends Comparable<? super E>>
      * 获取指定元素的中序前驱元素
      *
      * @param target 指定元素
-     * @return
+     * @return 树中不包含该元素时返回NULL，不要求包含时使用{@link #lower(Comparable)}
      */
     public E precursor(E target)
     {
-        Node<E> precursor = precursor(this.root, target);
-        if (precursor == null)
+        Node<E> current = find(this.root, target);
+        if (current == null)
         {
             return null;
         }
-        return precursor.value;
+        return valueOf(previousNode(current));
     }
     
     /**
      * 获取指定元素的中序后继元素
      *
      * @param target 指定元素
-     * @return
+     * @return 树中不包含该元素时返回NULL，不要求包含时使用{@link #higher(Comparable)}
      */
     public E successor(E target)
     {
-        Node<E> successor = successor(this.root, target);
-        if (successor == null)
+        Node<E> current = find(this.root, target);
+        if (current == null)
         {
             return null;
         }
-        return successor.value;
+        return valueOf(nextNode(current));
     }
     
     /**
-     * 获取指定元素所在节点的中序先驱
+     * 小于等于指定元素的最大元素，指定元素不必在树中
+     *
+     * @param target 指定元素
+     * @return 没有时返回NULL
+     */
+    public E floor(E target)
+    {
+        return valueOf(floorNode(target, true));
+    }
+    
+    /**
+     * 严格小于指定元素的最大元素，指定元素不必在树中
+     *
+     * @param target 指定元素
+     * @return 没有时返回NULL
+     */
+    public E lower(E target)
+    {
+        return valueOf(floorNode(target, false));
+    }
+    
+    /**
+     * 大于等于指定元素的最小元素，指定元素不必在树中
+     *
+     * @param target 指定元素
+     * @return 没有时返回NULL
+     */
+    public E ceiling(E target)
+    {
+        return valueOf(ceilingNode(target, true));
+    }
+    
+    /**
+     * 严格大于指定元素的最小元素，指定元素不必在树中
+     *
+     * @param target 指定元素
+     * @return 没有时返回NULL
+     */
+    public E higher(E target)
+    {
+        return valueOf(ceilingNode(target, false));
+    }
+    
+    /**
+     * 指向最小元素的游标，空树时游标无效
      *
-     * @param root
-     * @param target
      * @return
      */
-    private Node<E> precursor(Node<E> root, E target)
+    public Cursor cursor()
     {
-        // 在树中查找目标元素所在的节点
-        Node<E> current = find(root, target);
-        // 如果没有该节点则直接返回NULL
-        if (current == null)
+        return new Cursor(findMin(this.root));
+    }
+    
+    /**
+     * 指向大于等于指定元素的最小元素的游标，遍历区间[from, to]只需要一次O(h)的下降，之后每步均摊O(1)
+     *
+     * @param from 起始元素，不必在树中
+     * @return
+     */
+    public Cursor cursor(E from)
+    {
+        return new Cursor(ceilingNode(from, true));
+    }
+    
+    /**
+     * 指向最大元素的游标，配合{@link Cursor#previous()}从大到小遍历
+     *
+     * @return
+     */
+    public Cursor cursorAtMax()
+    {
+        return new Cursor(findMax(this.root));
+    }
+    
+    /**
+     * 向二叉搜索树中插入元素
+     *
+     * @param value
+     */
+    public void insert(E value)
+    {
+        // NULL检测
+        if (value == null)
         {
-            return null;
+            return;
         }
-        // 如果该节点有左子树
-        if (current.left != null)
+        if (root == null)
         {
-            return findMax(current.left);
+            root = new Node<>(value);
+            modCount++;
+            return;
         }
-        else
+        Node<E> parent = root;
+        int cmp;
+        while (true)
         {
-            // 如果节点没有左子树
-            Node<E> precursor = null;
-            Node<E> ancestor = root;
-            // 从根节点移动，直到找到当前节点
-            while (ancestor != current)
+            cmp = value.compareTo(parent.value);
+            if (cmp == 0)
             {
-                // 如果当前节点的值大于祖先节点，往右移动
-                // 当前节点一定位于最近祖先的右子树中
-                if (current.value.compareTo(ancestor.right.value) > 0)
-                {
-                    precursor = ancestor;
-                    ancestor = ancestor.right;
-                }
-                else
-                {
-                    // 往左移动，当前节点在该祖先的左子树中，不需要更新前驱指针
-                    ancestor = ancestor.left;
-                }
+                // 已存在相等的元素则替换，树的结构不变
+                parent.value = value;
+                return;
+            }
+            Node<E> next = cmp < 0 ? parent.left : parent.right;
+            if (next == null)
+            {
+                break;
             }
-            return precursor;
+            parent = next;
+        }
+        Node<E> node = new Node<>(value);
+        node.parent = parent;
+        if (cmp < 0)
+        {
+            parent.left = node;
+        }
+        else
+        {
+            parent.right = node;
         }
+        modCount++;
+        retrace(parent);
     }
     
     /**
-     * 获取指定元素所在节点的中序后继节点
+     * 从二叉搜索树中删除指定元素
      *
      * @param target 目标元素
-     * @return
+     * @return 树中是否包含该元素
      */
-    private Node<E> successor(Node<E> root, E target)
+    public boolean remove(E target)
     {
-        // 在树中查找目标元素所在的节点
-        Node<E> current = find(root, target);
-        // 如果没有该节点则直接返回NULL
-        if (current == null)
+        if (target == null)
         {
-            return null;
+            return false;
         }
-        // 如果该节点有右子树
-        if (current.right != null)
+        Node<E> node = find(this.root, target);
+        if (node == null)
         {
-            // 后继节点时当前右子树的最小值
-            return findMin(current.right);
+            return false;
         }
-        else
+        remove(node);
+        return true;
+    }
+    
+    /**
+     * 删除并返回树中最小的元素
+     *
+     * @return 空树返回NULL
+     */
+    public E removeMin()
+    {
+        Node<E> node = findMin(this.root);
+        if (node == null)
         {
-            // 如果节点没有右子树
-            Node<E> ancestor = root;
-            Node<E> successor = null;
-            // 查找元素大小最靠近当前节点元素的祖先节点
-            while (ancestor != current)
-            {
-                // 如果当前节点的值小于祖先节点的值，往左子树移动
-                // 当前节点一定位于最近祖先的左子树中
-                if (current.value.compareTo(ancestor.value) < 0)
-                {
-                    successor = ancestor;
-                    ancestor = ancestor.left;
-                }
-                else
-                {
-                    // 往右移动，当前节点位于该祖先的右子树中，不需要更新后继指针
-                    ancestor = ancestor.right;
-                }
-            }
-            return successor;
+            return null;
         }
+        remove(node);
+        return node.value;
     }
     
     /**
-     * 向二叉搜索树中插入元素
+     * 删除并返回树中最大的元素
      *
-     * @param value
+     * @return 空树返回NULL
      */
-    public void insert(E value)
+    public E removeMax()
     {
-        // NULL检测
-        if (value == null)
+        Node<E> node = findMax(this.root);
+        if (node == null)
         {
-            return;
+            return null;
         }
-        root = this.insert(this.root, value);
+        remove(node);
+        return node.value;
     }
     
     /**
@@ -215,9 +408,7 @@ public class BinarySearchTree<E extends Comparable<? super E>>
      */
     public List<E> preOrder()
     {
-        List<E> list = new ArrayList<>();
-        preOrder(this.root, list);
-        return list;
+        return toList(preOrderIterator());
     }
     
     /**
@@ -227,9 +418,7 @@ public class BinarySearchTree<E extends Comparable<? super E>>
      */
     public List<E> inOrder()
     {
-        List<E> list = new ArrayList<>();
-        inOrder(this.root, list);
-        return list;
+        return toList(inOrderIterator());
     }
     
     /**
@@ -239,9 +428,65 @@ public class BinarySearchTree<E extends Comparable<? super E>>
      */
     public List<E> postOrder()
     {
-        List<E> list = new ArrayList<>();
-        postOrder(this.root, list);
-        return list;
+        return toList(postOrderIterator());
+    }
+    
+    /**
+     * 惰性的先序遍历迭代器，不支持remove
+     *
+     * @return
+     */
+    public Iterator<E> preOrderIterator()
+    {
+        return new PreOrderIterator();
+    }
+    
+    /**
+     * 惰性的中序遍历迭代器，按从小到大的顺序返回元素，不支持remove
+     *
+     * @return
+     */
+    public Iterator<E> inOrderIterator()
+    {
+        return new InOrderIterator();
+    }
+    
+    /**
+     * 惰性的后序遍历迭代器，不支持remove
+     *
+     * @return
+     */
+    public Iterator<E> postOrderIterator()
+    {
+        return new PostOrderIterator();
+    }
+    
+    /**
+     * 与{@link #inOrderIterator()}相同
+     */
+    @Override
+    public Iterator<E> iterator()
+    {
+        return inOrderIterator();
+    }
+    
+    /**
+     * 中序遍历的Spliterator，按子树边界拆分：第一次在根节点处拆成左子树和根节点及右子树两部分，之后继续在子树的根节点处拆分
+     */
+    @Override
+    public Spliterator<E> spliterator()
+    {
+        return new InOrderSpliterator(findMin(root), null, 0, size(), modCount);
+    }
+    
+    /**
+     * 按中序遍历顺序的流，可以用parallel()并行处理
+     *
+     * @return
+     */
+    public Stream<E> stream()
+    {
+        return StreamSupport.stream(spliterator(), false);
     }
     
     /**
@@ -285,131 +530,695 @@ public class BinarySearchTree<E extends Comparable<? super E>>
      */
     private Node<E> findMin(Node<E> root)
     {
-        if (root.left == null)
+        Node<E> current = root;
+        if (current == null)
         {
-            return root;
+            return null;
         }
-        return findMin(root.left);
-    }
-    
-    /**
-     * 寻找元素最大的节点
-     *
-     * @return
-     */
-    private Node<E> findMax(Node<E> root)
-    {
-        if (root.right == null)
+        while (current.left != null)
         {
-            return root;
+            current = current.left;
         }
-        return findMax(root.right);
+        return current;
     }
     
     /**
-     * 在指定的树中查找包含指定元素的节点
+     * 寻找元素最大的节点
      *
-     * @param root   指定的树
-     * @param target 目标元素
      * @return
      */
-    private Node<E> find(Node<E> root, E target)
+    private Node<E> findMax(Node<E> root)
     {
-        if (root == null)
+        Node<E> current = root;
+        if (current == null)
         {
             return null;
         }
-        if (target.compareTo(root.value) > 0)
-        {
-            return find(root.right, target);
-        }
-        else if (target.compareTo(root.value) < 0)
-        {
-            return find(root.left, target);
-        }
-        else
+        while (current.right != null)
         {
-            return root;
+            current = current.right;
         }
+        return current;
     }
     
     /**
-     * 向指定的树中插入指定的元素
-     *
-     * @param root  指定的树
-     * @param value 指定的元素
-     * @return
+     * 从根节点一次下降统计小于（inclusive时小于等于）目标元素的元素个数：往右走时累加左子树大小和当前节点
      */
-    private Node<E> insert(Node<E> root, E value)
+    private int rank(E target, boolean inclusive)
     {
-        if (root == null)
-        {
-            return new Node<>(value);
-        }
-        if (value.compareTo(root.value) < 0)
-        {
-            root.left = insert(root.left, value);
-        }
-        else if (value.compareTo(root.value) > 0)
-        {
-            root.right = insert(root.right, value);
-        }
-        else
+        Node<E> current = root;
+        int rank = 0;
+        while (current != null)
         {
-            root.value = value;
+            int cmp = target.compareTo(current.value);
+            if (cmp > 0 || cmp == 0 && inclusive)
+            {
+                rank += size(current.left) + 1;
+                if (cmp == 0)
+                {
+                    break;
+                }
+                current = current.right;
+            }
+            else
+            {
+                current = current.left;
+            }
         }
-        return root;
+        return rank;
     }
     
     /**
-     * 先序遍历辅助
-     *
-     * @param root 指定树
-     * @param list 收集节点元素的集合
+     * 从根节点一次下降查找小于（inclusive时小于等于）目标元素的最大节点：
+     * 往右走时当前节点是候选，往左走时不是
      */
-    private void preOrder(Node<E> root, List<E> list)
+    private Node<E> floorNode(E target, boolean inclusive)
     {
-        if (root == null)
+        Node<E> current = root, floor = null;
+        while (current != null)
         {
-            return;
-        }
-        list.add(root.value);
-        preOrder(root.left, list);
-        preOrder(root.right, list);
+            int cmp = target.compareTo(current.value);
+            if (cmp > 0 || cmp == 0 && inclusive)
+            {
+                floor = current;
+                if (cmp == 0)
+                {
+                    break;
+                }
+                current = current.right;
+            }
+            else
+            {
+                current = current.left;
+            }
+        }
+        return floor;
+    }
+    
+    /**
+     * 从根节点一次下降查找大于（inclusive时大于等于）目标元素的最小节点，与{@link #floorNode}对称
+     */
+    private Node<E> ceilingNode(E target, boolean inclusive)
+    {
+        Node<E> current = root, ceiling = null;
+        while (current != null)
+        {
+            int cmp = target.compareTo(current.value);
+            if (cmp < 0 || cmp == 0 && inclusive)
+            {
+                ceiling = current;
+                if (cmp == 0)
+                {
+                    break;
+                }
+                current = current.left;
+            }
+            else
+            {
+                current = current.right;
+            }
+        }
+        return ceiling;
     }
     
     /**
-     * 中序遍历辅助
+     * 在指定的树中查找包含指定元素的节点
      *
-     * @param root 指定树
-     * @param list 收集节点元素的集合
+     * @param root   指定的树
+     * @param target 目标元素
+     * @return
      */
-    private void inOrder(Node<E> root, List<E> list)
+    private Node<E> find(Node<E> root, E target)
     {
-        if (root == null)
+        Node<E> current = root;
+        while (current != null)
         {
-            return;
+            int cmp = target.compareTo(current.value);
+            if (cmp < 0)
+            {
+                current = current.left;
+            }
+            else if (cmp > 0)
+            {
+                current = current.right;
+            }
+            else
+            {
+                return current;
+            }
         }
-        inOrder(root.left, list);
-        list.add(root.value);
-        inOrder(root.right, list);
+        return null;
     }
     
     /**
-     * 后续遍历辅助
+     * 从树中摘除指定节点<br/>
+     * 有两个子节点时用右子树的最小节点（中序后继）接替它的位置，只修改指针，不复制元素，
+     * 之后从结构发生变化的最低节点开始向上回溯
      *
-     * @param root 指定树
-     * @param list 收集节点元素的集合
+     * @param node 要删除的节点
      */
-    private void postOrder(Node<E> root, List<E> list)
+    private void remove(Node<E> node)
     {
-        if (root == null)
+        Node<E> changed;
+        if (node.left != null && node.right != null)
         {
-            return;
+            // 后继节点没有左子节点
+            Node<E> successor = findMin(node.right);
+            if (successor.parent == node)
+            {
+                changed = successor;
+            }
+            else
+            {
+                // 后继节点的右子树接到它原来的位置，再接管被删除节点的右子树
+                changed = successor.parent;
+                replaceChild(successor.parent, successor, successor.right);
+                successor.right = node.right;
+                successor.right.parent = successor;
+            }
+            replaceChild(node.parent, node, successor);
+            successor.left = node.left;
+            successor.left.parent = successor;
+        }
+        else
+        {
+            changed = node.parent;
+            replaceChild(node.parent, node, node.left != null ? node.left : node.right);
+        }
+        node.left = node.right = node.parent = null;
+        modCount++;
+        retrace(changed);
+    }
+    
+    /**
+     * 在父节点中用新的子树替换原来的子树，父节点为NULL时替换根节点
+     */
+    private void replaceChild(Node<E> parent, Node<E> oldChild, Node<E> newChild)
+    {
+        if (parent == null)
+        {
+            root = newChild;
+        }
+        else if (parent.left == oldChild)
+        {
+            parent.left = newChild;
+        }
+        else
+        {
+            parent.right = newChild;
+        }
+        if (newChild != null)
+        {
+            newChild.parent = parent;
+        }
+    }
+    
+    /**
+     * 插入、删除后从发生变化的节点沿父节点回溯到根节点，逐个更新高度和子树大小，平衡模式下同时旋转
+     *
+     * @param node 子树发生变化的最低节点
+     */
+    private void retrace(Node<E> node)
+    {
+        while (node != null)
+        {
+            if (balanced)
+            {
+                node = rebalance(node);
+            }
+            else
+            {
+                update(node);
+            }
+            node = node.parent;
+        }
+    }
+    
+    /**
+     * 节点的高度，空树为0
+     */
+    private static int height(Node<?> node)
+    {
+        return node == null ? 0 : node.height;
+    }
+    
+    /**
+     * 子树的元素个数，空树为0
+     */
+    private static int size(Node<?> node)
+    {
+        return node == null ? 0 : node.size;
+    }
+    
+    /**
+     * 由左右子树重新计算节点的高度和子树大小
+     */
+    private static void update(Node<?> node)
+    {
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        node.size = size(node.left) + size(node.right) + 1;
+    }
+    
+    /**
+     * 子树改变后更新节点的高度和子树大小，左右子树高度差超过1时旋转
+     *
+     * @param node 子树的根节点，左右子树都已经平衡
+     * @return 平衡后子树的根节点，已经接到原来的父节点上
+     */
+    private Node<E> rebalance(Node<E> node)
+    {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1)
+        {
+            // 左右型先把左子树左旋成左左型
+            if (height(node.left.left) < height(node.left.right))
+            {
+                rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1)
+        {
+            if (height(node.right.right) < height(node.right.left))
+            {
+                rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+    
+    /**
+     * 右旋：左子节点成为新的根节点，原根节点成为它的右子节点
+     */
+    private Node<E> rotateRight(Node<E> node)
+    {
+        Node<E> left = node.left;
+        node.left = left.right;
+        if (left.right != null)
+        {
+            left.right.parent = node;
+        }
+        replaceChild(node.parent, node, left);
+        left.right = node;
+        node.parent = left;
+        update(node);
+        update(left);
+        return left;
+    }
+    
+    /**
+     * 左旋：右子节点成为新的根节点，原根节点成为它的左子节点
+     */
+    private Node<E> rotateLeft(Node<E> node)
+    {
+        Node<E> right = node.right;
+        node.right = right.left;
+        if (right.left != null)
+        {
+            right.left.parent = node;
+        }
+        replaceChild(node.parent, node, right);
+        right.left = node;
+        node.parent = right;
+        update(node);
+        update(right);
+        return right;
+    }
+    
+    private static <E> List<E> toList(Iterator<E> iterator)
+    {
+        List<E> list = new ArrayList<>();
+        while (iterator.hasNext())
+        {
+            list.add(iterator.next());
+        }
+        return list;
+    }
+    
+    private static <E extends Comparable<? super E>> E valueOf(Node<E> node)
+    {
+        return node == null ? null : node.value;
+    }
+    
+    /**
+     * 节点的中序后继，有右子树时是右子树的最小节点，否则是第一个从左子树上来的祖先节点<br/>
+     * 连续调用时每条边最多向下、向上各经过一次，遍历m个节点的总代价是O(h + m)
+     */
+    private static <E extends Comparable<? super E>> Node<E> nextNode(Node<E> node)
+    {
+        if (node.right != null)
+        {
+            Node<E> current = node.right;
+            while (current.left != null)
+            {
+                current = current.left;
+            }
+            return current;
+        }
+        Node<E> child = node;
+        Node<E> parent = node.parent;
+        while (parent != null && parent.right == child)
+        {
+            child = parent;
+            parent = parent.parent;
+        }
+        return parent;
+    }
+    
+    /**
+     * 节点的中序前驱，与{@link #nextNode}对称
+     */
+    private static <E extends Comparable<? super E>> Node<E> previousNode(Node<E> node)
+    {
+        if (node.left != null)
+        {
+            Node<E> current = node.left;
+            while (current.right != null)
+            {
+                current = current.right;
+            }
+            return current;
+        }
+        Node<E> child = node;
+        Node<E> parent = node.parent;
+        while (parent != null && parent.left == child)
+        {
+            child = parent;
+            parent = parent.parent;
+        }
+        return parent;
+    }
+    
+    /**
+     * 游标，指向树中的一个节点，沿父节点向前、向后移动，不需要栈，每步均摊O(1)<br/>
+     * 移出最小或最大元素之后游标无效，之后不能再移动；树的结构被修改后游标快速失败
+     */
+    public final class Cursor
+    {
+        private Node<E> node;
+        
+        private final int expectedModCount = modCount;
+        
+        private Cursor(Node<E> node)
+        {
+            this.node = node;
+        }
+        
+        /**
+         * 游标是否指向树中的元素
+         *
+         * @return
+         */
+        public boolean isValid()
+        {
+            return node != null;
+        }
+        
+        /**
+         * 游标指向的元素
+         *
+         * @return
+         */
+        public E get()
+        {
+            check();
+            return node.value;
+        }
+        
+        /**
+         * 移动到中序后继
+         *
+         * @return 移动后游标是否有效
+         */
+        public boolean next()
+        {
+            check();
+            node = nextNode(node);
+            return node != null;
+        }
+        
+        /**
+         * 移动到中序前驱
+         *
+         * @return 移动后游标是否有效
+         */
+        public boolean previous()
+        {
+            check();
+            node = previousNode(node);
+            return node != null;
+        }
+        
+        private void check()
+        {
+            if (modCount != expectedModCount)
+            {
+                throw new ConcurrentModificationException();
+            }
+            if (node == null)
+            {
+                throw new NoSuchElementException();
+            }
+        }
+    }
+    
+    /**
+     * 遍历迭代器的公共部分，栈中最多保存从根节点到当前节点路径上的节点
+     */
+    private abstract class TraversalIterator implements Iterator<E>
+    {
+        final Deque<Node<E>> stack = new ArrayDeque<>();
+        
+        private final int expectedModCount = modCount;
+        
+        @Override
+        public boolean hasNext()
+        {
+            return !stack.isEmpty();
+        }
+        
+        @Override
+        public E next()
+        {
+            if (modCount != expectedModCount)
+            {
+                throw new ConcurrentModificationException();
+            }
+            if (stack.isEmpty())
+            {
+                throw new NoSuchElementException();
+            }
+            return advance().value;
+        }
+        
+        /**
+         * 弹出下一个节点并把之后要访问的节点压栈
+         */
+        abstract Node<E> advance();
+    }
+    
+    /**
+     * 栈顶是下一个节点，弹出后先压入右子节点再压入左子节点
+     */
+    private class PreOrderIterator extends TraversalIterator
+    {
+        PreOrderIterator()
+        {
+            if (root != null)
+            {
+                stack.push(root);
+            }
+        }
+        
+        @Override
+        Node<E> advance()
+        {
+            Node<E> node = stack.pop();
+            if (node.right != null)
+            {
+                stack.push(node.right);
+            }
+            if (node.left != null)
+            {
+                stack.push(node.left);
+            }
+            return node;
+        }
+    }
+    
+    /**
+     * 栈中是左侧路径上还没有访问的节点，弹出一个节点后压入它右子树的左侧路径
+     */
+    private class InOrderIterator extends TraversalIterator
+    {
+        InOrderIterator()
+        {
+            pushLeft(root);
+        }
+        
+        private void pushLeft(Node<E> node)
+        {
+            for (; node != null; node = node.left)
+            {
+                stack.push(node);
+            }
+        }
+        
+        @Override
+        Node<E> advance()
+        {
+            Node<E> node = stack.pop();
+            pushLeft(node.right);
+            return node;
+        }
+    }
+    
+    /**
+     * 栈中是从根节点到下一个节点的路径，下降时优先走左子节点，没有左子节点才走右子节点，
+     * 弹出一个节点后如果它是父节点的左子节点，再下降到父节点的右子树
+     */
+    private class PostOrderIterator extends TraversalIterator
+    {
+        PostOrderIterator()
+        {
+            descend(root);
+        }
+        
+        private void descend(Node<E> node)
+        {
+            while (node != null)
+            {
+                stack.push(node);
+                node = node.left != null ? node.left : node.right;
+            }
+        }
+        
+        @Override
+        Node<E> advance()
+        {
+            Node<E> node = stack.pop();
+            Node<E> parent = stack.peek();
+            if (parent != null && parent.left == node)
+            {
+                descend(parent.right);
+            }
+            return node;
+        }
+    }
+    
+    /**
+     * 中序遍历区间[current, fence)的Spliterator，fence为NULL表示直到最大的节点，沿父节点逐个取后继，不需要栈<br/>
+     * side记录上一次拆分的位置：0是整棵树，从根节点拆分；1是拆分后的后半部分，从current的右子节点拆分；
+     * -1是拆分后的前半部分，从fence的左子节点拆分。拆分点都是子树的根节点，两部分的元素个数大致相等
+     */
+    private final class InOrderSpliterator implements Spliterator<E>
+    {
+        private Node<E> current;
+        
+        private final Node<E> fence;
+        
+        private int side;
+        
+        private long estimate;
+        
+        private final int expectedModCount;
+        
+        InOrderSpliterator(Node<E> current, Node<E> fence, int side, long estimate, int expectedModCount)
+        {
+            this.current = current;
+            this.fence = fence;
+            this.side = side;
+            this.estimate = estimate;
+            this.expectedModCount = expectedModCount;
+        }
+        
+        @Override
+        public Spliterator<E> trySplit()
+        {
+            if (modCount != expectedModCount)
+            {
+                throw new ConcurrentModificationException();
+            }
+            Node<E> start = current;
+            Node<E> split = start == null || start == fence ? null
+                    : side == 0 ? root
+                    : side > 0 ? start.right
+                    : fence != null ? fence.left
+                    : null;
+            // 拆分点必须在current之后，否则前半部分为空
+            if (split == null || split == start || split == fence || start.value.compareTo(split.value) >= 0)
+            {
+                return null;
+            }
+            side = 1;
+            current = split;
+            estimate >>>= 1;
+            return new InOrderSpliterator(start, split, -1, estimate, expectedModCount);
+        }
+        
+        @Override
+        public boolean tryAdvance(Consumer<? super E> action)
+        {
+            if (action == null)
+            {
+                throw new NullPointerException();
+            }
+            if (current == null || current == fence)
+            {
+                return false;
+            }
+            if (modCount != expectedModCount)
+            {
+                throw new ConcurrentModificationException();
+            }
+            Node<E> node = current;
+            current = nextNode(node);
+            action.accept(node.value);
+            return true;
+        }
+        
+        @Override
+        public void forEachRemaining(Consumer<? super E> action)
+        {
+            if (action == null)
+            {
+                throw new NullPointerException();
+            }
+            Node<E> node = current;
+            current = fence;
+            for (; node != null && node != fence; node = nextNode(node))
+            {
+                action.accept(node.value);
+            }
+            if (modCount != expectedModCount)
+            {
+                throw new ConcurrentModificationException();
+            }
+        }
+        
+        @Override
+        public long estimateSize()
+        {
+            return estimate;
+        }
+        
+        @Override
+        public int characteristics()
+        {
+            return (side == 0 ? Spliterator.SIZED : 0)
+                    | Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL;
+        }
+        
+        /**
+         * 按元素的自然顺序排序
+         */
+        @Override
+        public Comparator<? super E> getComparator()
+        {
+            return null;
         }
-        postOrder(root.left, list);
-        postOrder(root.right, list);
-        list.add(root.value);
     }
     
     /**
@@ -431,6 +1240,21 @@ public class BinarySearchTree<E extends Comparable<? super E>>
          */
         Node<E> right;
         
+        /**
+         * 父节点，根节点为NULL
+         */
+        Node<E> parent;
+        
+        /**
+         * 以该节点为根的子树的高度
+         */
+        int height = 1;
+        
+        /**
+         * 以该节点为根的子树的元素个数，用于rank、select
+         */
+        int size = 1;
+        
         public Node(E value)
         {
             this.value = value;
@@ -466,6 +1290,11 @@ public class BinarySearchTree<E extends Comparable<? super E>>
             this.right = right;
         }
         
+        public Node<E> getParent()
+        {
+            return parent;
+        }
+        
         public String toString()
         {
             return "( " + value + " )";
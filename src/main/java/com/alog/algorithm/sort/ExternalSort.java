@@ -0,0 +1,522 @@
+package com.alog.algorithm.sort;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 外部归并排序，对超过内存大小的定长记录文件进行排序<br/>
+ * 1.按照内存预算将输入文件分块，通过{@link MappedByteBuffer}映射到内存，不复制到堆中。<br/>
+ * 2.对每一块记录的偏移量（int数组，不装箱）做稳定的归并排序，按偏移量顺序把记录写入临时文件，生成有序的子文件（run）。<br/>
+ * 3.使用小顶堆对所有子文件做k路归并，每个子文件和输出文件各使用一个直接缓冲区顺序读写，
+ * 子文件数量超过内存可以容纳的路数时逐层归并：每一层把相邻的子文件按路数分组，每组归并成一个新的子文件，
+ * 直到剩余的子文件可以一次归并，每条记录只在每一层读写一次，总I/O是O(N·⌈log_k R⌉)。<br/>
+ * 记录之间按照键的字节做无符号字典序比较，键相等时保持输入中的顺序。
+ *
+ * @author lushenchen 2024/1/18 21:37
+ * @since 1.0.0
+ */
+public class ExternalSort
+{
+    /**
+     * 每条记录在内存中除了记录本身以外的开销：偏移量数组和归并用的辅助数组
+     */
+    private static final int INDEX_OVERHEAD = 8;
+    
+    /**
+     * 归并时每一路缓冲区的最小大小
+     */
+    private static final int MIN_MERGE_BUFFER = 64 * 1024;
+    
+    /**
+     * 写出子文件时使用的缓冲区大小
+     */
+    private static final int WRITE_BUFFER = 1024 * 1024;
+    
+    /**
+     * 记录的长度（字节）
+     */
+    private final int recordSize;
+    
+    /**
+     * 键在记录中的偏移量
+     */
+    private final int keyOffset;
+    
+    /**
+     * 键的长度（字节）
+     */
+    private final int keyLength;
+    
+    /**
+     * 内存预算（字节）
+     */
+    private final long memoryBudget;
+    
+    /**
+     * 临时文件目录，为null时使用系统临时目录
+     */
+    private Path tempDirectory;
+    
+    /**
+     * @param recordSize   记录的长度（字节）
+     * @param keyOffset    键在记录中的偏移量
+     * @param keyLength    键的长度（字节）
+     * @param memoryBudget 内存预算（字节）
+     */
+    public ExternalSort(int recordSize, int keyOffset, int keyLength, long memoryBudget)
+    {
+        if (recordSize <= 0 || keyOffset < 0 || keyLength <= 0 || keyOffset + keyLength > recordSize)
+        {
+            throw new IllegalArgumentException("recordSize: " + recordSize + ", keyOffset: " + keyOffset + ", keyLength: " + keyLength);
+        }
+        if (memoryBudget < 2L * (recordSize + INDEX_OVERHEAD))
+        {
+            throw new IllegalArgumentException("memoryBudget: " + memoryBudget);
+        }
+        this.recordSize = recordSize;
+        this.keyOffset = keyOffset;
+        this.keyLength = keyLength;
+        this.memoryBudget = memoryBudget;
+    }
+    
+    /**
+     * 对输入文件中的记录排序，结果写入输出文件
+     *
+     * @param input  输入文件，长度必须是记录长度的整数倍
+     * @param output 输出文件，已存在时覆盖
+     * @throws IOException 读写文件失败
+     */
+    public void sort(Path input, Path output) throws IOException
+    {
+        // 所有创建过的临时文件，排序结束后统一删除
+        List<Path> temps = new ArrayList<>();
+        try
+        {
+            try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ))
+            {
+                long size = in.size();
+                if (size % recordSize != 0)
+                {
+                    throw new IllegalArgumentException("文件长度" + size + "不是记录长度" + recordSize + "的整数倍~");
+                }
+                long chunkRecords = Math.min(memoryBudget / (recordSize + INDEX_OVERHEAD), Integer.MAX_VALUE / recordSize);
+                // 只有一块时直接写入输出文件
+                if (size <= chunkRecords * recordSize)
+                {
+                    try (FileChannel out = openForWrite(output))
+                    {
+                        new RunWriter((int) (size / recordSize)).write(in, 0, size, out);
+                    }
+                    return;
+                }
+                RunWriter writer = new RunWriter((int) chunkRecords);
+                for (long position = 0; position < size; position += chunkRecords * recordSize)
+                {
+                    long length = Math.min(chunkRecords * recordSize, size - position);
+                    Path run = createTempFile(temps);
+                    try (FileChannel out = openForWrite(run))
+                    {
+                        writer.write(in, position, length, out);
+                    }
+                }
+            }
+            merge(new ArrayList<>(temps), output, temps);
+        }
+        finally
+        {
+            for (Path temp : temps)
+            {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+    
+    /**
+     * 多路归并所有子文件，路数超过内存可以容纳的上限时逐层归并：把相邻的子文件按上限分组，
+     * 每组归并成一个新的子文件，用新的子文件替换这一层，直到子文件个数不超过上限，最后一次归并到输出文件
+     *
+     * @param runs   按输入顺序排列的子文件
+     * @param output 输出文件
+     * @param temps  临时文件列表
+     */
+    private void merge(List<Path> runs, Path output, List<Path> temps) throws IOException
+    {
+        // 每一路和输出各占一个缓冲区
+        int maxWays = (int) Math.max(2, Math.min(Integer.MAX_VALUE, memoryBudget / MIN_MERGE_BUFFER - 1));
+        while (runs.size() > maxWays)
+        {
+            // 新的一层按分组的先后顺序排列，相同键的记录依然按输入顺序输出
+            List<Path> level = new ArrayList<>((runs.size() + maxWays - 1) / maxWays);
+            for (int from = 0; from < runs.size(); from += maxWays)
+            {
+                List<Path> group = runs.subList(from, Math.min(from + maxWays, runs.size()));
+                if (group.size() == 1)
+                {
+                    level.add(group.get(0));
+                    continue;
+                }
+                Path merged = createTempFile(temps);
+                mergeRuns(group, merged);
+                for (Path run : group)
+                {
+                    Files.deleteIfExists(run);
+                }
+                level.add(merged);
+            }
+            runs = level;
+        }
+        mergeRuns(runs, output);
+    }
+    
+    /**
+     * 使用小顶堆归并多个有序子文件
+     */
+    private void mergeRuns(List<Path> runs, Path output) throws IOException
+    {
+        int ways = runs.size();
+        int bufferSize = mergeBufferSize(ways);
+        RunReader[] heap = new RunReader[ways];
+        int size = 0;
+        try (FileChannel out = openForWrite(output))
+        {
+            try
+            {
+                for (int i = 0; i < ways; i++)
+                {
+                    // 先放入堆中再读取，读取失败时由finally关闭
+                    RunReader reader = new RunReader(runs.get(i), i, bufferSize);
+                    heap[size++] = reader;
+                    if (!reader.next())
+                    {
+                        heap[--size] = null;
+                        reader.close();
+                    }
+                }
+                for (int i = size / 2 - 1; i >= 0; i--)
+                {
+                    sink(heap, i, size);
+                }
+                ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize);
+                while (size > 0)
+                {
+                    RunReader top = heap[0];
+                    if (buffer.remaining() < recordSize)
+                    {
+                        flush(buffer, out);
+                    }
+                    top.copyTo(buffer);
+                    if (!top.next())
+                    {
+                        top.close();
+                        heap[0] = heap[--size];
+                        heap[size] = null;
+                    }
+                    sink(heap, 0, size);
+                }
+                flush(buffer, out);
+            }
+            finally
+            {
+                for (int i = 0; i < size; i++)
+                {
+                    heap[i].close();
+                }
+            }
+        }
+    }
+    
+    /**
+     * 堆顶元素下沉，键较小的子文件在上，键相同时序号较小的子文件在上
+     */
+    private void sink(RunReader[] heap, int target, int size)
+    {
+        RunReader current = heap[target];
+        int child;
+        while ((child = 2 * target + 1) < size)
+        {
+            if (child + 1 < size && less(heap[child + 1], heap[child]))
+            {
+                child++;
+            }
+            if (!less(heap[child], current))
+            {
+                break;
+            }
+            heap[target] = heap[child];
+            target = child;
+        }
+        heap[target] = current;
+    }
+    
+    private boolean less(RunReader r1, RunReader r2)
+    {
+        int cmp = compareKeys(r1.buffer, r1.record + keyOffset, r2.buffer, r2.record + keyOffset, keyLength);
+        return cmp < 0 || cmp == 0 && r1.ordinal < r2.ordinal;
+    }
+    
+    /**
+     * 归并时每一路缓冲区的大小，为记录长度的整数倍
+     */
+    private int mergeBufferSize(int ways)
+    {
+        long size = Math.max(MIN_MERGE_BUFFER, memoryBudget / (ways + 1));
+        size = Math.min(size, Integer.MAX_VALUE - recordSize);
+        return (int) Math.max(recordSize, size / recordSize * recordSize);
+    }
+    
+    /**
+     * 创建临时文件，并记录到临时文件列表中
+     */
+    private Path createTempFile(List<Path> temps) throws IOException
+    {
+        Path temp = tempDirectory == null
+                ? Files.createTempFile("run-", ".tmp")
+                : Files.createTempFile(tempDirectory, "run-", ".tmp");
+        temps.add(temp);
+        return temp;
+    }
+    
+    private static FileChannel openForWrite(Path path) throws IOException
+    {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+    
+    /**
+     * 将缓冲区中的数据全部写入文件，然后清空缓冲区
+     */
+    private static void flush(ByteBuffer buffer, FileChannel out) throws IOException
+    {
+        ((Buffer) buffer).flip();
+        while (buffer.hasRemaining())
+        {
+            out.write(buffer);
+        }
+        ((Buffer) buffer).clear();
+    }
+    
+    /**
+     * 按无符号字典序比较两个缓冲区中的键，每次比较8个字节
+     */
+    static int compareKeys(ByteBuffer b1, int offset1, ByteBuffer b2, int offset2, int length)
+    {
+        int i = 0;
+        for (; i + 8 <= length; i += 8)
+        {
+            long l1 = b1.getLong(offset1 + i);
+            long l2 = b2.getLong(offset2 + i);
+            if (l1 != l2)
+            {
+                return Long.compareUnsigned(l1, l2);
+            }
+        }
+        for (; i < length; i++)
+        {
+            int cmp = (b1.get(offset1 + i) & 0xFF) - (b2.get(offset2 + i) & 0xFF);
+            if (cmp != 0)
+            {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+    
+    public Path getTempDirectory()
+    {
+        return tempDirectory;
+    }
+    
+    public void setTempDirectory(Path tempDirectory)
+    {
+        this.tempDirectory = tempDirectory;
+    }
+    
+    /**
+     * 分块排序并写出有序子文件，偏移量数组和辅助数组只在创建时分配一次，所有分块复用
+     */
+    private class RunWriter
+    {
+        /**
+         * 记录在当前分块中的偏移量，排序后按键有序
+         */
+        private final int[] index;
+        
+        /**
+         * 归并时保存左半部分
+         */
+        private final int[] aux;
+        
+        /**
+         * 当前分块的映射
+         */
+        private ByteBuffer chunk;
+        
+        /**
+         * 写出缓冲区
+         */
+        private final ByteBuffer buffer;
+        
+        RunWriter(int capacity)
+        {
+            buffer = ByteBuffer.allocateDirect(Math.max(recordSize, WRITE_BUFFER / recordSize * recordSize));
+            index = new int[capacity];
+            aux = new int[(capacity + 1) / 2];
+        }
+        
+        /**
+         * 映射输入文件中的一块，排序后写入输出文件
+         */
+        void write(FileChannel in, long position, long length, FileChannel out) throws IOException
+        {
+            int count = (int) (length / recordSize);
+            if (count == 0)
+            {
+                return;
+            }
+            chunk = in.map(FileChannel.MapMode.READ_ONLY, position, length);
+            for (int i = 0; i < count; i++)
+            {
+                index[i] = i * recordSize;
+            }
+            mergeSort(0, count - 1);
+            ByteBuffer view = chunk.duplicate();
+            for (int i = 0; i < count; i++)
+            {
+                int offset = index[i];
+                ((Buffer) view).limit(offset + recordSize);
+                ((Buffer) view).position(offset);
+                if (buffer.remaining() < recordSize)
+                {
+                    flush(buffer, out);
+                }
+                buffer.put(view);
+                ((Buffer) view).limit(view.capacity());
+            }
+            flush(buffer, out);
+            chunk = null;
+        }
+        
+        /**
+         * 对偏移量按键归并排序，键相等时保持输入中的顺序
+         */
+        private void mergeSort(int left, int right)
+        {
+            if (right - left < SmallSorts.INSERTION_THRESHOLD)
+            {
+                for (int i = left + 1; i <= right; i++)
+                {
+                    int current = index[i];
+                    int j = i;
+                    for (; j > left && less(current, index[j - 1]); j--)
+                    {
+                        index[j] = index[j - 1];
+                    }
+                    index[j] = current;
+                }
+                return;
+            }
+            int mid = (left + right) >>> 1;
+            mergeSort(left, mid);
+            mergeSort(mid + 1, right);
+            // 左右两部分已经有序
+            if (!less(index[mid + 1], index[mid]))
+            {
+                return;
+            }
+            int length = mid - left + 1;
+            System.arraycopy(index, left, aux, 0, length);
+            int i = 0, j = mid + 1, k = left;
+            while (i < length && j <= right)
+            {
+                // 键相等时取左半部分，保持稳定
+                index[k++] = less(index[j], aux[i]) ? index[j++] : aux[i++];
+            }
+            System.arraycopy(aux, i, index, k, length - i);
+        }
+        
+        private boolean less(int offset1, int offset2)
+        {
+            return compareKeys(chunk, offset1 + keyOffset, chunk, offset2 + keyOffset, keyLength) < 0;
+        }
+    }
+    
+    /**
+     * 顺序读取子文件，record指向缓冲区中的当前记录
+     */
+    private class RunReader
+    {
+        private final FileChannel channel;
+        
+        /**
+         * 子文件的序号，键相同时序号小的先输出
+         */
+        private final int ordinal;
+        
+        private final ByteBuffer buffer;
+        
+        private final ByteBuffer view;
+        
+        private int record = -1;
+        
+        /**
+         * 最后打开文件，构造过程中的其他失败不会留下未关闭的通道
+         */
+        RunReader(Path run, int ordinal, int bufferSize) throws IOException
+        {
+            this.ordinal = ordinal;
+            this.buffer = ByteBuffer.allocateDirect(bufferSize);
+            this.view = buffer.duplicate();
+            ((Buffer) buffer).limit(0);
+            this.channel = FileChannel.open(run, StandardOpenOption.READ);
+        }
+        
+        /**
+         * 移动到下一条记录，缓冲区读完时从文件中读取下一批
+         *
+         * @return 没有更多记录时返回false
+         */
+        boolean next() throws IOException
+        {
+            int nextRecord = record + recordSize;
+            if (record >= 0 && nextRecord + recordSize <= buffer.limit())
+            {
+                record = nextRecord;
+                return true;
+            }
+            ((Buffer) buffer).clear();
+            // 读满缓冲区或者读到文件末尾
+            int read;
+            do
+            {
+                read = channel.read(buffer);
+            }
+            while (read >= 0 && buffer.hasRemaining());
+            ((Buffer) buffer).flip();
+            record = 0;
+            return buffer.limit() >= recordSize;
+        }
+        
+        /**
+         * 将当前记录复制到目标缓冲区
+         */
+        void copyTo(ByteBuffer target)
+        {
+            ((Buffer) view).limit(record + recordSize);
+            ((Buffer) view).position(record);
+            target.put(view);
+            ((Buffer) view).limit(view.capacity());
+        }
+        
+        void close() throws IOException
+        {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.alog.algorithm.sort;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * 把一小批新数据归并到已经有序的大数组中，代替追加后重新完整排序<br/>
+ * 1.先对新数据排序，O(b log b)。<br/>
+ * 2.从新数据的最大值开始，在有序数组未处理的部分中从末尾向前指数查找插入位置（galloping），
+ * 比插入位置大的一段整体后移，再放入新元素，比较次数O(b log(N/b))，移动次数不超过N。<br/>
+ * 3.mergeInto要求有序数组尾部有足够的空闲容量，原地完成，不分配辅助数组，batch会被排序；merge返回扩容后的新数组，对batch的副本排序，不修改参数。<br/>
+ * 与已有元素相等的新元素排在已有元素之后，同一批中相等的元素保持原来的顺序。
+ *
+ * @author lushenchen 2024/2/10 20:20
+ * @since 1.0.0
+ */
+public final class IncrementalMerge
+{
+    private IncrementalMerge()
+    {
+    }
+    
+    /**
+     * 把batch归并到有序数组sorted中，sorted和batch都不变，见{@link #mergeInto(Object[], int, Object[], Comparator)}
+     *
+     * @return 新数组
+     */
+    public static <T> T[] merge(T[] sorted, T[] batch, Comparator<? super T> c)
+    {
+        T[] result = Arrays.copyOf(sorted, sorted.length + batch.length);
+        mergeInto(result, sorted.length, batch.clone(), c);
+        return result;
+    }
+    
+    /**
+     * 把batch原地归并到有序数组sorted的前size个元素中，batch会被排序
+     *
+     * @param sorted 前size个元素有序，尾部至少有batch.length个空闲位置
+     * @param size   有序元素的个数
+     * @param batch  新数据
+     * @param c      比较器，为null时使用自然顺序
+     * @param <T>    元素类型
+     * @return 归并后有序元素的个数
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> int mergeInto(T[] sorted, int size, T[] batch, Comparator<? super T> c)
+    {
+        int b = batch.length;
+        checkCapacity(sorted.length, size, b);
+        c = c == null ? (Comparator<? super T>) Sorts.NATURAL_ORDER : c;
+        // 稳定排序，同一批中相等的元素保持原来的顺序
+        Sorts.Tim.sort(batch, 0, b, c);
+        // sorted[0, end)尚未处理，dest是下一个写入位置之后的位置
+        int end = size, dest = size + b;
+        for (int i = b - 1; i >= 0; i--)
+        {
+            if (end == 0)
+            {
+                System.arraycopy(batch, 0, sorted, 0, i + 1);
+                break;
+            }
+            T key = batch[i];
+            int position = TimSort.gallopRight(key, sorted, 0, end, end - 1, c);
+            int count = end - position;
+            dest -= count;
+            System.arraycopy(sorted, position, sorted, dest, count);
+            end = position;
+            sorted[--dest] = key;
+        }
+        return size + b;
+    }
+    
+    /**
+     * 把batch归并到有序的int数组中，sorted和batch都不变，见{@link #mergeInto(int[], int, int[])}
+     *
+     * @return 新数组
+     */
+    public static int[] merge(int[] sorted, int[] batch)
+    {
+        int[] result = Arrays.copyOf(sorted, sorted.length + batch.length);
+        mergeInto(result, sorted.length, batch.clone());
+        return result;
+    }
+    
+    /**
+     * 把batch原地归并到有序数组sorted的前size个元素中，batch会被排序
+     *
+     * @param sorted 前size个元素有序，尾部至少有batch.length个空闲位置
+     * @param size   有序元素的个数
+     * @param batch  新数据
+     * @return 归并后有序元素的个数
+     */
+    public static int mergeInto(int[] sorted, int size, int[] batch)
+    {
+        int b = batch.length;
+        checkCapacity(sorted.length, size, b);
+        Sorts.Auto.sort(batch);
+        int end = size, dest = size + b;
+        for (int i = b - 1; i >= 0; i--)
+        {
+            if (end == 0)
+            {
+                System.arraycopy(batch, 0, sorted, 0, i + 1);
+                break;
+            }
+            int key = batch[i];
+            int position = gallopRight(key, sorted, end);
+            int count = end - position;
+            dest -= count;
+            System.arraycopy(sorted, position, sorted, dest, count);
+            end = position;
+            sorted[--dest] = key;
+        }
+        return size + b;
+    }
+    
+    /**
+     * 把batch归并到有序的long数组中，sorted和batch都不变，见{@link #mergeInto(long[], int, long[])}
+     *
+     * @return 新数组
+     */
+    public static long[] merge(long[] sorted, long[] batch)
+    {
+        long[] result = Arrays.copyOf(sorted, sorted.length + batch.length);
+        mergeInto(result, sorted.length, batch.clone());
+        return result;
+    }
+    
+    /**
+     * 把batch原地归并到有序数组sorted的前size个元素中，batch会被排序
+     *
+     * @param sorted 前size个元素有序，尾部至少有batch.length个空闲位置
+     * @param size   有序元素的个数
+     * @param batch  新数据
+     * @return 归并后有序元素的个数
+     */
+    public static int mergeInto(long[] sorted, int size, long[] batch)
+    {
+        int b = batch.length;
+        checkCapacity(sorted.length, size, b);
+        Sorts.Auto.sort(batch);
+        int end = size, dest = size + b;
+        for (int i = b - 1; i >= 0; i--)
+        {
+            if (end == 0)
+            {
+                System.arraycopy(batch, 0, sorted, 0, i + 1);
+                break;
+            }
+            long key = batch[i];
+            int position = gallopRight(key, sorted, end);
+            int count = end - position;
+            dest -= count;
+            System.arraycopy(sorted, position, sorted, dest, count);
+            end = position;
+            sorted[--dest] = key;
+        }
+        return size + b;
+    }
+    
+    /**
+     * 把batch归并到有序的double数组中，sorted和batch都不变，见{@link #mergeInto(double[], int, double[])}
+     *
+     * @return 新数组
+     */
+    public static double[] merge(double[] sorted, double[] batch)
+    {
+        double[] result = Arrays.copyOf(sorted, sorted.length + batch.length);
+        mergeInto(result, sorted.length, batch.clone());
+        return result;
+    }
+    
+    /**
+     * 把batch原地归并到有序数组sorted的前size个元素中，batch会被排序，顺序与{@link Double#compare}一致
+     *
+     * @param sorted 前size个元素有序，尾部至少有batch.length个空闲位置
+     * @param size   有序元素的个数
+     * @param batch  新数据
+     * @return 归并后有序元素的个数
+     */
+    public static int mergeInto(double[] sorted, int size, double[] batch)
+    {
+        int b = batch.length;
+        checkCapacity(sorted.length, size, b);
+        Sorts.Auto.sort(batch);
+        int end = size, dest = size + b;
+        for (int i = b - 1; i >= 0; i--)
+        {
+            if (end == 0)
+            {
+                System.arraycopy(batch, 0, sorted, 0, i + 1);
+                break;
+            }
+            double key = batch[i];
+            int position = gallopRight(key, sorted, end);
+            int count = end - position;
+            dest -= count;
+            System.arraycopy(sorted, position, sorted, dest, count);
+            end = position;
+            sorted[--dest] = key;
+        }
+        return size + b;
+    }
+    
+    private static void checkCapacity(int length, int size, int batch)
+    {
+        if (size < 0 || size > length)
+        {
+            throw new IllegalArgumentException("size: " + size + ", length: " + length);
+        }
+        if (length - size < batch)
+        {
+            throw new IllegalArgumentException("空闲容量" + (length - size) + "不足以容纳" + batch + "个新元素~");
+        }
+    }
+    
+    /**
+     * 从末尾开始指数查找，返回key在arr[0, len)中的最右插入位置k，满足 arr[k - 1] &lt;= key &lt; arr[k]
+     */
+    private static int gallopRight(int key, int[] arr, int len)
+    {
+        // arr[hi, len)都大于key，arr[lo]不大于key，lo为-1表示没有找到
+        int hi = len, lo = -1, step = 1;
+        while (step <= hi)
+        {
+            int probe = hi - step;
+            if (!(key < arr[probe]))
+            {
+                lo = probe;
+                break;
+            }
+            hi = probe;
+            step <<= 1;
+            if (step <= 0)
+            {
+                step = Integer.MAX_VALUE;
+            }
+        }
+        // 在 (lo, hi] 之间二分查找
+        lo++;
+        while (lo < hi)
+        {
+            int mid = (lo + hi) >>> 1;
+            if (key < arr[mid])
+            {
+                hi = mid;
+            }
+            else
+            {
+                lo = mid + 1;
+            }
+        }
+        return hi;
+    }
+    
+    private static int gallopRight(long key, long[] arr, int len)
+    {
+        int hi = len, lo = -1, step = 1;
+        while (step <= hi)
+        {
+            int probe = hi - step;
+            if (!(key < arr[probe]))
+            {
+                lo = probe;
+                break;
+            }
+            hi = probe;
+            step <<= 1;
+            if (step <= 0)
+            {
+                step = Integer.MAX_VALUE;
+            }
+        }
+        lo++;
+        while (lo < hi)
+        {
+            int mid = (lo + hi) >>> 1;
+            if (key < arr[mid])
+            {
+                hi = mid;
+            }
+            else
+            {
+                lo = mid + 1;
+            }
+        }
+        return hi;
+    }
+    
+    private static int gallopRight(double key, double[] arr, int len)
+    {
+        int hi = len, lo = -1, step = 1;
+        while (step <= hi)
+        {
+            int probe = hi - step;
+            if (Double.compare(key, arr[probe]) >= 0)
+            {
+                lo = probe;
+                break;
+            }
+            hi = probe;
+            step <<= 1;
+            if (step <= 0)
+            {
+                step = Integer.MAX_VALUE;
+            }
+        }
+        lo++;
+        while (lo < hi)
+        {
+            int mid = (lo + hi) >>> 1;
+            if (Double.compare(key, arr[mid]) < 0)
+            {
+                hi = mid;
+            }
+            else
+            {
+                lo = mid + 1;
+            }
+        }
+        return hi;
+    }
+}
@@ -0,0 +1,408 @@
+package com.alog.algorithm.sort;
+
+import java.lang.reflect.Array;
+import java.util.Comparator;
+
+/**
+ * 间接排序：不移动数据，返回排序后的下标顺序，再用同一个排列调整多个平行数组<br/>
+ * 1.argsort返回稳定的排列perm，排序后的第i个元素是arr[perm[i]]，键相等时下标小的在前。<br/>
+ * 2.int数组把键和下标拼成一个long，下标保证了唯一，用{@link Sorts#Radix}排序后取出下标；
+ * long、double和对象数组对下标做归并排序，只分配一个一半长度的辅助数组，double先转换成与{@link Double#compare}顺序一致的long。<br/>
+ * 3.applyPermutation、applyPermutationToAll沿着排列的环原地移动元素，不需要与数组等长的辅助数组，基本类型不装箱。
+ *
+ * @author lushenchen 2024/2/8 20:10
+ * @since 1.0.0
+ */
+public final class IndirectSort
+{
+    /**
+     * 区间长度不超过该值时直接插入排序
+     */
+    private static final int INSERTION_THRESHOLD = 16;
+    
+    private IndirectSort()
+    {
+    }
+    
+    /**
+     * 返回int数组排序后的下标顺序，数组本身不会被修改
+     *
+     * @param arr 数组
+     * @return 稳定的排列
+     */
+    public static int[] argsort(int[] arr)
+    {
+        int n = arr.length;
+        // 高32位是键，低32位是非负的下标，按long的大小排序即先按键、再按下标
+        long[] packed = new long[n];
+        for (int i = 0; i < n; i++)
+        {
+            packed[i] = (long) arr[i] << 32 | i;
+        }
+        Sorts.Radix.sort(packed);
+        int[] perm = new int[n];
+        for (int i = 0; i < n; i++)
+        {
+            perm[i] = (int) packed[i];
+        }
+        return perm;
+    }
+    
+    /**
+     * 返回long数组排序后的下标顺序，数组本身不会被修改
+     *
+     * @param arr 数组
+     * @return 稳定的排列
+     */
+    public static int[] argsort(long[] arr)
+    {
+        int[] perm = identity(arr.length);
+        mergeSort(perm, new int[(arr.length + 1) / 2], arr, 0, arr.length - 1);
+        return perm;
+    }
+    
+    /**
+     * 返回double数组排序后的下标顺序，顺序与{@link Double#compare}一致，数组本身不会被修改
+     *
+     * @param arr 数组
+     * @return 稳定的排列
+     */
+    public static int[] argsort(double[] arr)
+    {
+        long[] keys = new long[arr.length];
+        for (int i = 0; i < arr.length; i++)
+        {
+            // 负数除符号位以外按位取反，按有符号long比较的顺序与Double.compare相同
+            long bits = Double.doubleToLongBits(arr[i]);
+            keys[i] = bits ^ (bits >> 63 & Long.MAX_VALUE);
+        }
+        return argsort(keys);
+    }
+    
+    /**
+     * 按自然顺序返回排序后的下标顺序，见{@link #argsort(Object[], Comparator)}
+     */
+    public static int[] argsort(Comparable[] arr)
+    {
+        return argsort(arr, Sorts.NATURAL_ORDER);
+    }
+    
+    /**
+     * 返回对象数组排序后的下标顺序，数组本身不会被修改
+     *
+     * @param arr 数组
+     * @param c   比较器，为null时使用自然顺序
+     * @param <T> 元素类型
+     * @return 稳定的排列
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> int[] argsort(T[] arr, Comparator<? super T> c)
+    {
+        c = c == null ? (Comparator<? super T>) Sorts.NATURAL_ORDER : c;
+        int[] perm = identity(arr.length);
+        mergeSort(perm, new int[(arr.length + 1) / 2], arr, 0, arr.length - 1, c);
+        return perm;
+    }
+    
+    /**
+     * 按排列原地调整int数组，调整后arr[i]是原来的arr[perm[i]]
+     *
+     * @param perm 排列，调整过程中会临时修改，结束后恢复
+     * @param arr  数组，长度与排列相同
+     */
+    public static void applyPermutation(int[] perm, int[] arr)
+    {
+        checkPermutation(perm, arr.length);
+        walkCycles(perm, arr);
+    }
+    
+    /**
+     * 按排列原地调整long数组，见{@link #applyPermutation(int[], int[])}
+     */
+    public static void applyPermutation(int[] perm, long[] arr)
+    {
+        checkPermutation(perm, arr.length);
+        walkCycles(perm, arr);
+    }
+    
+    /**
+     * 按排列原地调整double数组，见{@link #applyPermutation(int[], int[])}
+     */
+    public static void applyPermutation(int[] perm, double[] arr)
+    {
+        checkPermutation(perm, arr.length);
+        walkCycles(perm, arr);
+    }
+    
+    /**
+     * 按排列原地调整对象数组，见{@link #applyPermutation(int[], int[])}
+     */
+    public static <T> void applyPermutation(int[] perm, T[] arr)
+    {
+        checkPermutation(perm, arr.length);
+        walkCycles(perm, arr);
+    }
+    
+    /**
+     * 按同一个排列原地调整多个数组，排列只检查一次<br/>
+     * 数组逐个传入，支持int[]、long[]、double[]和对象数组。
+     * 只有一个对象数组时编译器会把它当作可变参数本身，此时使用{@link #applyPermutation(int[], Object[])}
+     *
+     * @param perm   排列，调整过程中会临时修改，结束后恢复
+     * @param arrays 数组，长度都与排列相同
+     */
+    public static void applyPermutationToAll(int[] perm, Object... arrays)
+    {
+        for (Object array : arrays)
+        {
+            if (!(array instanceof int[] || array instanceof long[] || array instanceof double[] || array instanceof Object[]))
+            {
+                throw new IllegalArgumentException("不支持的数组类型: " + (array == null ? null : array.getClass().getName()));
+            }
+            checkPermutation(perm, Array.getLength(array));
+        }
+        for (Object array : arrays)
+        {
+            if (array instanceof int[])
+            {
+                walkCycles(perm, (int[]) array);
+            }
+            else if (array instanceof long[])
+            {
+                walkCycles(perm, (long[]) array);
+            }
+            else if (array instanceof double[])
+            {
+                walkCycles(perm, (double[]) array);
+            }
+            else
+            {
+                walkCycles(perm, (Object[]) array);
+            }
+        }
+    }
+    
+    private static int[] identity(int n)
+    {
+        int[] perm = new int[n];
+        for (int i = 0; i < n; i++)
+        {
+            perm[i] = i;
+        }
+        return perm;
+    }
+    
+    /**
+     * 对下标按键归并排序，aux只保存左半部分
+     */
+    private static void mergeSort(int[] index, int[] aux, long[] keys, int left, int right)
+    {
+        if (right - left < INSERTION_THRESHOLD)
+        {
+            for (int i = left + 1; i <= right; i++)
+            {
+                int current = index[i];
+                int j = i;
+                for (; j > left && keys[current] < keys[index[j - 1]]; j--)
+                {
+                    index[j] = index[j - 1];
+                }
+                index[j] = current;
+            }
+            return;
+        }
+        int mid = (left + right) >>> 1;
+        mergeSort(index, aux, keys, left, mid);
+        mergeSort(index, aux, keys, mid + 1, right);
+        // 左右两部分已经有序
+        if (keys[index[mid + 1]] >= keys[index[mid]])
+        {
+            return;
+        }
+        int length = mid - left + 1;
+        System.arraycopy(index, left, aux, 0, length);
+        int i = 0, j = mid + 1, k = left;
+        while (i < length && j <= right)
+        {
+            // 键相等时取左半部分，保持稳定
+            index[k++] = keys[index[j]] < keys[aux[i]] ? index[j++] : aux[i++];
+        }
+        System.arraycopy(aux, i, index, k, length - i);
+    }
+    
+    /**
+     * 对下标按元素归并排序，aux只保存左半部分
+     */
+    private static <T> void mergeSort(int[] index, int[] aux, T[] arr, int left, int right, Comparator<? super T> c)
+    {
+        if (right - left < INSERTION_THRESHOLD)
+        {
+            for (int i = left + 1; i <= right; i++)
+            {
+                int current = index[i];
+                int j = i;
+                for (; j > left && c.compare(arr[current], arr[index[j - 1]]) < 0; j--)
+                {
+                    index[j] = index[j - 1];
+                }
+                index[j] = current;
+            }
+            return;
+        }
+        int mid = (left + right) >>> 1;
+        mergeSort(index, aux, arr, left, mid, c);
+        mergeSort(index, aux, arr, mid + 1, right, c);
+        if (c.compare(arr[index[mid + 1]], arr[index[mid]]) >= 0)
+        {
+            return;
+        }
+        int length = mid - left + 1;
+        System.arraycopy(index, left, aux, 0, length);
+        int i = 0, j = mid + 1, k = left;
+        while (i < length && j <= right)
+        {
+            index[k++] = c.compare(arr[index[j]], arr[aux[i]]) < 0 ? index[j++] : aux[i++];
+        }
+        System.arraycopy(aux, i, index, k, length - i);
+    }
+    
+    /**
+     * 检查长度和perm是否是0到n-1的排列，用取反标记出现过的下标，检查结束后恢复，不需要辅助数组
+     */
+    private static void checkPermutation(int[] perm, int length)
+    {
+        if (perm.length != length)
+        {
+            throw new IllegalArgumentException("数组长度" + length + "与排列长度" + perm.length + "不同~");
+        }
+        for (int i = 0; i < perm.length; i++)
+        {
+            if (perm[i] < 0 || perm[i] >= length)
+            {
+                throw new IllegalArgumentException("不是合法的排列，位置" + i + "的下标" + perm[i] + "越界~");
+            }
+        }
+        int duplicate = -1;
+        for (int i = 0; i < perm.length; i++)
+        {
+            int target = perm[i] < 0 ? ~perm[i] : perm[i];
+            if (perm[target] < 0)
+            {
+                duplicate = i;
+                break;
+            }
+            perm[target] = ~perm[target];
+        }
+        restore(perm);
+        if (duplicate >= 0)
+        {
+            throw new IllegalArgumentException("不是合法的排列，位置" + duplicate + "的下标" + perm[duplicate] + "重复~");
+        }
+    }
+    
+    /**
+     * 恢复被取反标记的位置
+     */
+    private static void restore(int[] perm)
+    {
+        for (int i = 0; i < perm.length; i++)
+        {
+            if (perm[i] < 0)
+            {
+                perm[i] = ~perm[i];
+            }
+        }
+    }
+    
+    /**
+     * 沿着排列的环移动元素：先取出环的起点，每个位置从它的来源位置取值，最后一个位置放入起点原来的值，
+     * 处理过的位置在perm中取反标记
+     */
+    private static void walkCycles(int[] perm, int[] arr)
+    {
+        for (int start = 0; start < perm.length; start++)
+        {
+            if (perm[start] < 0)
+            {
+                continue;
+            }
+            int temp = arr[start];
+            int i = start, next;
+            while ((next = perm[i]) != start)
+            {
+                arr[i] = arr[next];
+                perm[i] = ~next;
+                i = next;
+            }
+            arr[i] = temp;
+            perm[i] = ~next;
+        }
+        restore(perm);
+    }
+    
+    private static void walkCycles(int[] perm, long[] arr)
+    {
+        for (int start = 0; start < perm.length; start++)
+        {
+            if (perm[start] < 0)
+            {
+                continue;
+            }
+            long temp = arr[start];
+            int i = start, next;
+            while ((next = perm[i]) != start)
+            {
+                arr[i] = arr[next];
+                perm[i] = ~next;
+                i = next;
+            }
+            arr[i] = temp;
+            perm[i] = ~next;
+        }
+        restore(perm);
+    }
+    
+    private static void walkCycles(int[] perm, double[] arr)
+    {
+        for (int start = 0; start < perm.length; start++)
+        {
+            if (perm[start] < 0)
+            {
+                continue;
+            }
+            double temp = arr[start];
+            int i = start, next;
+            while ((next = perm[i]) != start)
+            {
+                arr[i] = arr[next];
+                perm[i] = ~next;
+                i = next;
+            }
+            arr[i] = temp;
+            perm[i] = ~next;
+        }
+        restore(perm);
+    }
+    
+    private static void walkCycles(int[] perm, Object[] arr)
+    {
+        for (int start = 0; start < perm.length; start++)
+        {
+            if (perm[start] < 0)
+            {
+                continue;
+            }
+            Object temp = arr[start];
+            int i = start, next;
+            while ((next = perm[i]) != start)
+            {
+                arr[i] = arr[next];
+                perm[i] = ~next;
+                i = next;
+            }
+            arr[i] = temp;
+            perm[i] = ~next;
+        }
+        restore(perm);
+    }
+}
@@ -0,0 +1,485 @@
+package com.alog.algorithm.sort;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * 用败者树对k个有序的数据源做k路归并<br/>
+ * 1.败者树的叶子是k个数据源的当前元素，内部节点记录比赛的败者，tree[0]记录最终的胜者，即所有数据源中最小的元素。<br/>
+ * 2.取出胜者后只需要从它的叶子到根重赛一次，每输出一个元素比较约log₂k次，每个元素只复制一次；
+ * 两两归并需要log₂k轮，每轮都要复制全部元素。<br/>
+ * 3.键相等时下标小的数据源胜出，结果是稳定的。<br/>
+ * 4.数据源可以是数组或者{@link Iterator}，结果可以写入新数组，也可以逐个交给sink，数据不需要一次全部放在内存中。
+ *
+ * @author lushenchen 2024/2/12 20:30
+ * @since 1.0.0
+ */
+public final class KWayMerge
+{
+    private KWayMerge()
+    {
+    }
+    
+    /**
+     * 返回按顺序输出所有数据源元素的迭代器，数据源在迭代过程中按需读取
+     *
+     * @param sources 有序的数据源
+     * @param c       比较器，为null时使用自然顺序
+     * @param <T>     元素类型
+     * @return 归并后的迭代器
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Iterator<T> iterator(List<? extends Iterator<? extends T>> sources, Comparator<? super T> c)
+    {
+        return new MergingIterator<>(sources, c == null ? (Comparator<? super T>) Sorts.NATURAL_ORDER : c);
+    }
+    
+    /**
+     * 归并所有数据源，元素按顺序逐个交给sink
+     *
+     * @param sources 有序的数据源
+     * @param c       比较器，为null时使用自然顺序
+     * @param sink    接收归并结果
+     * @param <T>     元素类型
+     */
+    public static <T> void merge(List<? extends Iterator<? extends T>> sources, Comparator<? super T> c, Consumer<? super T> sink)
+    {
+        Iterator<T> merged = iterator(sources, c);
+        while (merged.hasNext())
+        {
+            sink.accept(merged.next());
+        }
+    }
+    
+    /**
+     * 归并多个有序数组，元素按顺序逐个交给sink
+     */
+    public static <T> void merge(T[][] sources, Comparator<? super T> c, Consumer<? super T> sink)
+    {
+        merge(iterators(sources), c, sink);
+    }
+    
+    /**
+     * 归并多个有序数组
+     *
+     * @param sources 有序的数组
+     * @param c       比较器，为null时使用自然顺序
+     * @param <T>     元素类型
+     * @return 新数组，元素类型与sources的元素类型相同
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T[] merge(T[][] sources, Comparator<? super T> c)
+    {
+        T[] result = (T[]) Array.newInstance(sources.getClass().getComponentType().getComponentType(), totalLength(sources));
+        Iterator<T> merged = iterator(iterators(sources), c);
+        for (int i = 0; i < result.length; i++)
+        {
+            result[i] = merged.next();
+        }
+        return result;
+    }
+    
+    /**
+     * 归并多个有序的int数组
+     */
+    public static int[] merge(int[]... sources)
+    {
+        final int[] result = new int[totalLength(sources)];
+        merge(sources, new IntConsumer()
+        {
+            private int size;
+            
+            @Override
+            public void accept(int value)
+            {
+                result[size++] = value;
+            }
+        });
+        return result;
+    }
+    
+    /**
+     * 归并多个有序的int数组，元素按顺序逐个交给sink
+     */
+    public static void merge(int[][] sources, IntConsumer sink)
+    {
+        int k = sources.length;
+        if (k == 0)
+        {
+            return;
+        }
+        int[] positions = new int[k];
+        int[] tree = new int[k];
+        // 自底向上比赛，winners[k + i]是第i个叶子
+        int[] winners = new int[2 * k];
+        for (int i = 0; i < k; i++)
+        {
+            winners[k + i] = i;
+        }
+        for (int node = k - 1; node > 0; node--)
+        {
+            int a = winners[2 * node], b = winners[2 * node + 1];
+            boolean bWins = beats(sources, positions, b, a);
+            winners[node] = bWins ? b : a;
+            tree[node] = bWins ? a : b;
+        }
+        tree[0] = winners[1];
+        while (true)
+        {
+            int winner = tree[0];
+            int position = positions[winner];
+            // 胜者已经取完，说明所有数据源都已经取完
+            if (position == sources[winner].length)
+            {
+                return;
+            }
+            sink.accept(sources[winner][position]);
+            positions[winner] = position + 1;
+            // 从胜者的叶子到根重赛，败者留在节点中
+            for (int node = (winner + k) >> 1; node > 0; node >>= 1)
+            {
+                if (beats(sources, positions, tree[node], winner))
+                {
+                    int loser = winner;
+                    winner = tree[node];
+                    tree[node] = loser;
+                }
+            }
+            tree[0] = winner;
+        }
+    }
+    
+    /**
+     * 归并多个有序的long数组
+     */
+    public static long[] merge(long[]... sources)
+    {
+        final long[] result = new long[totalLength(sources)];
+        merge(sources, new LongConsumer()
+        {
+            private int size;
+            
+            @Override
+            public void accept(long value)
+            {
+                result[size++] = value;
+            }
+        });
+        return result;
+    }
+    
+    /**
+     * 归并多个有序的long数组，元素按顺序逐个交给sink
+     */
+    public static void merge(long[][] sources, LongConsumer sink)
+    {
+        int k = sources.length;
+        if (k == 0)
+        {
+            return;
+        }
+        int[] positions = new int[k];
+        int[] tree = new int[k];
+        int[] winners = new int[2 * k];
+        for (int i = 0; i < k; i++)
+        {
+            winners[k + i] = i;
+        }
+        for (int node = k - 1; node > 0; node--)
+        {
+            int a = winners[2 * node], b = winners[2 * node + 1];
+            boolean bWins = beats(sources, positions, b, a);
+            winners[node] = bWins ? b : a;
+            tree[node] = bWins ? a : b;
+        }
+        tree[0] = winners[1];
+        while (true)
+        {
+            int winner = tree[0];
+            int position = positions[winner];
+            if (position == sources[winner].length)
+            {
+                return;
+            }
+            sink.accept(sources[winner][position]);
+            positions[winner] = position + 1;
+            for (int node = (winner + k) >> 1; node > 0; node >>= 1)
+            {
+                if (beats(sources, positions, tree[node], winner))
+                {
+                    int loser = winner;
+                    winner = tree[node];
+                    tree[node] = loser;
+                }
+            }
+            tree[0] = winner;
+        }
+    }
+    
+    /**
+     * 归并多个有序的double数组，顺序与{@link Double#compare}一致
+     */
+    public static double[] merge(double[]... sources)
+    {
+        final double[] result = new double[totalLength(sources)];
+        merge(sources, new DoubleConsumer()
+        {
+            private int size;
+            
+            @Override
+            public void accept(double value)
+            {
+                result[size++] = value;
+            }
+        });
+        return result;
+    }
+    
+    /**
+     * 归并多个有序的double数组，元素按顺序逐个交给sink
+     */
+    public static void merge(double[][] sources, DoubleConsumer sink)
+    {
+        int k = sources.length;
+        if (k == 0)
+        {
+            return;
+        }
+        int[] positions = new int[k];
+        int[] tree = new int[k];
+        int[] winners = new int[2 * k];
+        for (int i = 0; i < k; i++)
+        {
+            winners[k + i] = i;
+        }
+        for (int node = k - 1; node > 0; node--)
+        {
+            int a = winners[2 * node], b = winners[2 * node + 1];
+            boolean bWins = beats(sources, positions, b, a);
+            winners[node] = bWins ? b : a;
+            tree[node] = bWins ? a : b;
+        }
+        tree[0] = winners[1];
+        while (true)
+        {
+            int winner = tree[0];
+            int position = positions[winner];
+            if (position == sources[winner].length)
+            {
+                return;
+            }
+            sink.accept(sources[winner][position]);
+            positions[winner] = position + 1;
+            for (int node = (winner + k) >> 1; node > 0; node >>= 1)
+            {
+                if (beats(sources, positions, tree[node], winner))
+                {
+                    int loser = winner;
+                    winner = tree[node];
+                    tree[node] = loser;
+                }
+            }
+            tree[0] = winner;
+        }
+    }
+    
+    /**
+     * 数据源a的当前元素是否胜过数据源b的当前元素：取完的数据源视为无穷大，键相等时下标小的胜出
+     */
+    private static boolean beats(int[][] sources, int[] positions, int a, int b)
+    {
+        int pa = positions[a], pb = positions[b];
+        if (pa == sources[a].length)
+        {
+            return pb == sources[b].length && a < b;
+        }
+        if (pb == sources[b].length)
+        {
+            return true;
+        }
+        int x = sources[a][pa], y = sources[b][pb];
+        return x < y || x == y && a < b;
+    }
+    
+    private static boolean beats(long[][] sources, int[] positions, int a, int b)
+    {
+        int pa = positions[a], pb = positions[b];
+        if (pa == sources[a].length)
+        {
+            return pb == sources[b].length && a < b;
+        }
+        if (pb == sources[b].length)
+        {
+            return true;
+        }
+        long x = sources[a][pa], y = sources[b][pb];
+        return x < y || x == y && a < b;
+    }
+    
+    private static boolean beats(double[][] sources, int[] positions, int a, int b)
+    {
+        int pa = positions[a], pb = positions[b];
+        if (pa == sources[a].length)
+        {
+            return pb == sources[b].length && a < b;
+        }
+        if (pb == sources[b].length)
+        {
+            return true;
+        }
+        int cmp = Double.compare(sources[a][pa], sources[b][pb]);
+        return cmp < 0 || cmp == 0 && a < b;
+    }
+    
+    private static int totalLength(Object[] sources)
+    {
+        long total = 0;
+        for (Object source : sources)
+        {
+            total += Array.getLength(source);
+        }
+        if (total > Integer.MAX_VALUE)
+        {
+            throw new IllegalArgumentException("元素总数" + total + "超过数组的容量，请使用sink~");
+        }
+        return (int) total;
+    }
+    
+    private static <T> List<Iterator<T>> iterators(T[][] sources)
+    {
+        List<Iterator<T>> iterators = new ArrayList<>(sources.length);
+        for (T[] source : sources)
+        {
+            iterators.add(Arrays.asList(source).iterator());
+        }
+        return iterators;
+    }
+    
+    /**
+     * 以败者树归并多个迭代器的迭代器
+     */
+    private static final class MergingIterator<T> implements Iterator<T>
+    {
+        private final Iterator<? extends T>[] sources;
+        
+        private final Comparator<? super T> c;
+        
+        /**
+         * 每个数据源的当前元素
+         */
+        private final Object[] heads;
+        
+        /**
+         * 数据源是否已经取完
+         */
+        private final boolean[] exhausted;
+        
+        /**
+         * tree[0]是胜者，tree[1, k)是各个内部节点的败者
+         */
+        private final int[] tree;
+        
+        MergingIterator(List<? extends Iterator<? extends T>> sources, Comparator<? super T> c)
+        {
+            int k = sources.size();
+            @SuppressWarnings("unchecked")
+            Iterator<? extends T>[] array = (Iterator<? extends T>[]) new Iterator<?>[k];
+            this.sources = sources.toArray(array);
+            this.c = c;
+            this.heads = new Object[k];
+            this.exhausted = new boolean[k];
+            this.tree = new int[Math.max(1, k)];
+            if (k == 0)
+            {
+                return;
+            }
+            for (int i = 0; i < k; i++)
+            {
+                advance(i);
+            }
+            int[] winners = new int[2 * k];
+            for (int i = 0; i < k; i++)
+            {
+                winners[k + i] = i;
+            }
+            for (int node = k - 1; node > 0; node--)
+            {
+                int a = winners[2 * node], b = winners[2 * node + 1];
+                boolean bWins = beats(b, a);
+                winners[node] = bWins ? b : a;
+                tree[node] = bWins ? a : b;
+            }
+            tree[0] = winners[1];
+        }
+        
+        @Override
+        public boolean hasNext()
+        {
+            return sources.length > 0 && !exhausted[tree[0]];
+        }
+        
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next()
+        {
+            if (!hasNext())
+            {
+                throw new NoSuchElementException();
+            }
+            int winner = tree[0];
+            T value = (T) heads[winner];
+            advance(winner);
+            for (int node = (winner + sources.length) >> 1; node > 0; node >>= 1)
+            {
+                if (beats(tree[node], winner))
+                {
+                    int loser = winner;
+                    winner = tree[node];
+                    tree[node] = loser;
+                }
+            }
+            tree[0] = winner;
+            return value;
+        }
+        
+        /**
+         * 读取数据源i的下一个元素
+         */
+        private void advance(int i)
+        {
+            if (sources[i].hasNext())
+            {
+                heads[i] = sources[i].next();
+            }
+            else
+            {
+                heads[i] = null;
+                exhausted[i] = true;
+            }
+        }
+        
+        @SuppressWarnings("unchecked")
+        private boolean beats(int a, int b)
+        {
+            if (exhausted[a])
+            {
+                return exhausted[b] && a < b;
+            }
+            if (exhausted[b])
+            {
+                return true;
+            }
+            int cmp = c.compare((T) heads[a], (T) heads[b]);
+            return cmp < 0 || cmp == 0 && a < b;
+        }
+    }
+}
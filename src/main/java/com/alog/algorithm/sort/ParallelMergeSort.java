@@ -0,0 +1,368 @@
+package com.alog.algorithm.sort;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 基于Fork/Join的并行归并排序<br/>
+ * 1.超过阈值的区间拆分成两个子任务并行排序。<br/>
+ * 2.归并时取较长子组的中间元素，在另一子组中二分查找分割位置，将一次归并拆分成两个互不相交的归并并行执行。<br/>
+ * 3.整个排序只分配一个与待排序区间等长的辅助数组，两个数组在递归的每一层交替作为源和目标。<br/>
+ * 归并时相等元素总是优先取左子组，排序是稳定的，结果与{@link Sorts#Merge}一致。<br/>
+ * 按并行度创建的排序器持有自己的线程池，用完后需要{@link #close()}，公共线程池和调用方传入的线程池不会被关闭。
+ *
+ * @author lushenchen 2024/1/10 21:05
+ * @since 1.0.0
+ */
+public class ParallelMergeSort implements AutoCloseable
+{
+    /**
+     * 默认的并行阈值，区间长度小于该值时不再拆分任务
+     */
+    public static final int DEFAULT_THRESHOLD = 1 << 13;
+    
+    /**
+     * 执行任务的线程池
+     */
+    private final ForkJoinPool pool;
+    
+    /**
+     * 线程池是否由该排序器创建，只有这种情况下close时关闭线程池
+     */
+    private final boolean ownsPool;
+    
+    /**
+     * 并行阈值
+     */
+    private final int threshold;
+    
+    /**
+     * 使用公共线程池和默认阈值
+     */
+    public ParallelMergeSort()
+    {
+        this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+    
+    /**
+     * 创建指定并行度的线程池，用完后需要调用{@link #close()}关闭
+     *
+     * @param parallelism 并行度
+     * @param threshold   并行阈值
+     */
+    public ParallelMergeSort(int parallelism, int threshold)
+    {
+        this(new ForkJoinPool(parallelism), threshold, true);
+    }
+    
+    /**
+     * @param pool      执行任务的线程池，由调用方负责关闭
+     * @param threshold 并行阈值，不能小于2
+     */
+    public ParallelMergeSort(ForkJoinPool pool, int threshold)
+    {
+        this(pool, threshold, false);
+    }
+    
+    private ParallelMergeSort(ForkJoinPool pool, int threshold, boolean ownsPool)
+    {
+        if (pool == null)
+        {
+            throw new NullPointerException("pool");
+        }
+        if (threshold < 2)
+        {
+            throw new IllegalArgumentException("threshold: " + threshold);
+        }
+        this.pool = pool;
+        this.threshold = threshold;
+        this.ownsPool = ownsPool;
+    }
+    
+    /**
+     * 对指定的数组进行排序
+     *
+     * @param arr 待排序的数组
+     */
+    public void sort(Comparable[] arr)
+    {
+        if (arr == null || arr.length <= 1)
+        {
+            return;
+        }
+        sort(arr, 0, arr.length, Sorts.NATURAL_ORDER);
+    }
+    
+    /**
+     * 使用比较器对数组中from(包含)到to(不包含)的位置进行排序
+     *
+     * @param arr  待排序的数组
+     * @param from 起始位置（包含）
+     * @param to   结束位置（不包含）
+     * @param c    比较器
+     * @param <T>  元素类型
+     */
+    public <T> void sort(T[] arr, int from, int to, Comparator<? super T> c)
+    {
+        Sorts.rangeCheck(arr.length, from, to);
+        if (to - from <= 1)
+        {
+            return;
+        }
+        // 辅助数组是待排序区间的副本，aux[i - from]对应arr[i]，叶子区间可以直接在目标数组上排序
+        T[] aux = Arrays.copyOfRange(arr, from, to);
+        SortInstrumentation.allocated(aux.length, SortInstrumentation.REFERENCE_BYTES);
+        SortInstrumentation.copied(aux.length);
+        pool.invoke(new SortTask<>(aux, -from, arr, 0, from, to - 1, c));
+    }
+    
+    public ForkJoinPool getPool()
+    {
+        return pool;
+    }
+    
+    public int getThreshold()
+    {
+        return threshold;
+    }
+    
+    /**
+     * 关闭排序器自己创建的线程池，已提交的排序会执行完；公共线程池和调用方传入的线程池不受影响
+     */
+    @Override
+    public void close()
+    {
+        if (ownsPool)
+        {
+            pool.shutdown();
+        }
+    }
+    
+    /**
+     * 顺序排序，结果写入dst的left到right位置，数组中位置i的元素存放在src[i + srcOff]和dst[i + dstOff]
+     *
+     * @param src    源数组
+     * @param srcOff 源数组的偏移量
+     * @param dst    目标数组
+     * @param dstOff 目标数组的偏移量
+     * @param left   左索引
+     * @param right  右索引
+     * @param c      比较器
+     */
+    private static <T> void sort(T[] src, int srcOff, T[] dst, int dstOff, int left, int right, Comparator<? super T> c)
+    {
+        // 区间在src和dst中的内容相同，短区间直接在dst上插入排序
+        if (right - left < SmallSorts.INSERTION_THRESHOLD)
+        {
+            SmallSorts.insertionSort(dst, left + dstOff, right + dstOff, c);
+            return;
+        }
+        int mid = left + (right - left) / 2;
+        // 子组排序结果写入src，再由src归并到dst
+        sort(dst, dstOff, src, srcOff, left, mid, c);
+        sort(dst, dstOff, src, srcOff, mid + 1, right, c);
+        merge(src, srcOff, left, mid, mid + 1, right, dst, dstOff, left, c);
+    }
+    
+    /**
+     * 顺序归并src中的两个有序子组，结果从dst的index位置开始写入
+     *
+     * @param src    源数组
+     * @param srcOff 源数组的偏移量
+     * @param l1     左子组起始位置
+     * @param r1     左子组结束位置
+     * @param l2     右子组起始位置
+     * @param r2     右子组结束位置
+     * @param dst    目标数组
+     * @param dstOff 目标数组的偏移量
+     * @param index  目标数组的起始位置
+     * @param c      比较器
+     */
+    private static <T> void merge(T[] src, int srcOff, int l1, int r1, int l2, int r2,
+                                  T[] dst, int dstOff, int index, Comparator<? super T> c)
+    {
+        int p1 = l1 + srcOff, end1 = r1 + srcOff;
+        int p2 = l2 + srcOff, end2 = r2 + srcOff;
+        int d = index + dstOff;
+        while (p1 <= end1 && p2 <= end2)
+        {
+            if (c.compare(src[p2], src[p1]) < 0)
+            {
+                dst[d++] = src[p2++];
+            }
+            else
+            {
+                dst[d++] = src[p1++];
+            }
+        }
+        if (p1 <= end1)
+        {
+            System.arraycopy(src, p1, dst, d, end1 - p1 + 1);
+        }
+        else if (p2 <= end2)
+        {
+            System.arraycopy(src, p2, dst, d, end2 - p2 + 1);
+        }
+    }
+    
+    /**
+     * 在有序区间中查找第一个不小于key的位置
+     */
+    private static <T> int lowerBound(T[] arr, int offset, int left, int right, T key, Comparator<? super T> c)
+    {
+        int lo = left, hi = right + 1;
+        while (lo < hi)
+        {
+            int mid = (lo + hi) >>> 1;
+            if (c.compare(arr[mid + offset], key) < 0)
+            {
+                lo = mid + 1;
+            }
+            else
+            {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+    
+    /**
+     * 在有序区间中查找第一个大于key的位置
+     */
+    private static <T> int upperBound(T[] arr, int offset, int left, int right, T key, Comparator<? super T> c)
+    {
+        int lo = left, hi = right + 1;
+        while (lo < hi)
+        {
+            int mid = (lo + hi) >>> 1;
+            if (c.compare(key, arr[mid + offset]) < 0)
+            {
+                hi = mid;
+            }
+            else
+            {
+                lo = mid + 1;
+            }
+        }
+        return lo;
+    }
+    
+    /**
+     * 排序任务，结果写入dst的left到right位置
+     */
+    private class SortTask<T> extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+        
+        private final T[] src;
+        
+        private final int srcOff;
+        
+        private final T[] dst;
+        
+        private final int dstOff;
+        
+        private final int left;
+        
+        private final int right;
+        
+        private final Comparator<? super T> c;
+        
+        SortTask(T[] src, int srcOff, T[] dst, int dstOff, int left, int right, Comparator<? super T> c)
+        {
+            this.src = src;
+            this.srcOff = srcOff;
+            this.dst = dst;
+            this.dstOff = dstOff;
+            this.left = left;
+            this.right = right;
+            this.c = c;
+        }
+        
+        @Override
+        protected void compute()
+        {
+            if (right - left + 1 <= threshold)
+            {
+                sort(src, srcOff, dst, dstOff, left, right, c);
+                return;
+            }
+            int mid = left + (right - left) / 2;
+            invokeAll(new SortTask<>(dst, dstOff, src, srcOff, left, mid, c),
+                    new SortTask<>(dst, dstOff, src, srcOff, mid + 1, right, c));
+            new MergeTask<>(src, srcOff, left, mid, mid + 1, right, dst, dstOff, left, c).compute();
+        }
+    }
+    
+    /**
+     * 归并任务，将src中的两个有序子组归并到dst的index位置
+     */
+    private class MergeTask<T> extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+        
+        private final T[] src;
+        
+        private final int srcOff;
+        
+        private final int l1, r1, l2, r2;
+        
+        private final T[] dst;
+        
+        private final int dstOff;
+        
+        private final int index;
+        
+        private final Comparator<? super T> c;
+        
+        MergeTask(T[] src, int srcOff, int l1, int r1, int l2, int r2,
+                  T[] dst, int dstOff, int index, Comparator<? super T> c)
+        {
+            this.src = src;
+            this.srcOff = srcOff;
+            this.l1 = l1;
+            this.r1 = r1;
+            this.l2 = l2;
+            this.r2 = r2;
+            this.dst = dst;
+            this.dstOff = dstOff;
+            this.index = index;
+            this.c = c;
+        }
+        
+        @Override
+        protected void compute()
+        {
+            int n1 = r1 - l1 + 1, n2 = r2 - l2 + 1;
+            if (n1 + n2 <= threshold)
+            {
+                merge(src, srcOff, l1, r1, l2, r2, dst, dstOff, index, c);
+                return;
+            }
+            MergeTask<T> lower, upper;
+            if (n1 >= n2)
+            {
+                // 左子组的中间元素，右子组中小于它的元素排在它前面，相等的排在它后面
+                int m1 = l1 + (n1 - 1) / 2;
+                int m2 = lowerBound(src, srcOff, l2, r2, src[m1 + srcOff], c);
+                int position = index + (m1 - l1) + (m2 - l2);
+                dst[position + dstOff] = src[m1 + srcOff];
+                lower = new MergeTask<>(src, srcOff, l1, m1 - 1, l2, m2 - 1, dst, dstOff, index, c);
+                upper = new MergeTask<>(src, srcOff, m1 + 1, r1, m2, r2, dst, dstOff, position + 1, c);
+            }
+            else
+            {
+                // 右子组的中间元素，左子组中小于等于它的元素排在它前面
+                int m2 = l2 + (n2 - 1) / 2;
+                int m1 = upperBound(src, srcOff, l1, r1, src[m2 + srcOff], c);
+                int position = index + (m1 - l1) + (m2 - l2);
+                dst[position + dstOff] = src[m2 + srcOff];
+                lower = new MergeTask<>(src, srcOff, l1, m1 - 1, l2, m2 - 1, dst, dstOff, index, c);
+                upper = new MergeTask<>(src, srcOff, m1, r1, m2 + 1, r2, dst, dstOff, position + 1, c);
+            }
+            invokeAll(lower, upper);
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package com.alog.algorithm.sort;
+
+import java.util.Arrays;
+
+/**
+ * 基数排序，按字节(8位)划分数位<br/>
+ * 1.元素较多时使用LSD基数排序：一次遍历统计所有数位的直方图，再从低位到高位逐位分配，
+ * 所有元素该数位都相同时直接跳过这一位。<br/>
+ * 2.元素较少时使用MSD基数排序，从高位开始分桶递归，桶中元素较少时改用插入排序。<br/>
+ * 3.最高位的符号位取反后参与分桶，负数排在正数前面。<br/>
+ * 辅助数组和计数数组保存在对象中，同一个对象多次排序时可以复用，对象不是线程安全的。
+ *
+ * @author lushenchen 2024/1/15 20:41
+ * @since 1.0.0
+ */
+public class RadixSort
+{
+    /**
+     * 每个数位的桶数
+     */
+    private static final int RADIX = 256;
+    
+    /**
+     * 元素个数不超过该值时直接插入排序
+     */
+    private static final int INSERTION_THRESHOLD = 32;
+    
+    /**
+     * 元素个数小于该值时使用MSD基数排序
+     */
+    private static final int LSD_THRESHOLD = 1 << 12;
+    
+    /**
+     * int类型的辅助数组
+     */
+    private int[] intBuffer;
+    
+    /**
+     * long类型的辅助数组
+     */
+    private long[] longBuffer;
+    
+    /**
+     * LSD使用的直方图，每个数位占RADIX个位置
+     */
+    private final int[] histogram = new int[8 * RADIX];
+    
+    /**
+     * MSD每层递归使用的计数数组
+     */
+    private final int[][] counts = new int[8][RADIX];
+    
+    /**
+     * 对指定的数组进行排序
+     *
+     * @param arr 待排序的数组
+     */
+    public void sort(int[] arr)
+    {
+        sort(arr, 0, arr.length);
+    }
+    
+    /**
+     * 对数组中from(包含)到to(不包含)的位置进行排序
+     *
+     * @param arr  待排序的数组
+     * @param from 起始位置（包含）
+     * @param to   结束位置（不包含）
+     */
+    public void sort(int[] arr, int from, int to)
+    {
+        Sorts.rangeCheck(arr.length, from, to);
+        int length = to - from;
+        if (length <= INSERTION_THRESHOLD)
+        {
+            SmallSorts.insertionSort(arr, from, to - 1);
+            return;
+        }
+        if (intBuffer == null || intBuffer.length < length)
+        {
+            intBuffer = new int[length];
+            SortInstrumentation.allocated(length, Integer.BYTES);
+        }
+        if (length < LSD_THRESHOLD)
+        {
+            msd(arr, from, to - 1, 3);
+        }
+        else
+        {
+            lsd(arr, from, to);
+        }
+    }
+    
+    /**
+     * 对指定的数组进行排序
+     *
+     * @param arr 待排序的数组
+     */
+    public void sort(long[] arr)
+    {
+        sort(arr, 0, arr.length);
+    }
+    
+    /**
+     * 对数组中from(包含)到to(不包含)的位置进行排序
+     *
+     * @param arr  待排序的数组
+     * @param from 起始位置（包含）
+     * @param to   结束位置（不包含）
+     */
+    public void sort(long[] arr, int from, int to)
+    {
+        Sorts.rangeCheck(arr.length, from, to);
+        int length = to - from;
+        if (length <= INSERTION_THRESHOLD)
+        {
+            SmallSorts.insertionSort(arr, from, to - 1);
+            return;
+        }
+        if (longBuffer == null || longBuffer.length < length)
+        {
+            longBuffer = new long[length];
+            SortInstrumentation.allocated(length, Long.BYTES);
+        }
+        if (length < LSD_THRESHOLD)
+        {
+            msd(arr, from, to - 1, 7);
+        }
+        else
+        {
+            lsd(arr, from, to);
+        }
+    }
+    
+    /**
+     * 取出第digit个字节，最高位字节的符号位取反
+     */
+    private static int digit(int value, int digit)
+    {
+        int b = (value >>> (digit << 3)) & 0xFF;
+        return digit == 3 ? b ^ 0x80 : b;
+    }
+    
+    private static int digit(long value, int digit)
+    {
+        int b = (int) (value >>> (digit << 3)) & 0xFF;
+        return digit == 7 ? b ^ 0x80 : b;
+    }
+    
+    /**
+     * LSD基数排序，元素在原数组和辅助数组之间来回分配
+     */
+    private void lsd(int[] arr, int from, int to)
+    {
+        int length = to - from;
+        int[] histogram = this.histogram;
+        Arrays.fill(histogram, 0, 4 * RADIX, 0);
+        // 一次遍历统计所有数位的直方图
+        for (int i = from; i < to; i++)
+        {
+            int value = arr[i];
+            histogram[value & 0xFF]++;
+            histogram[RADIX + ((value >>> 8) & 0xFF)]++;
+            histogram[2 * RADIX + ((value >>> 16) & 0xFF)]++;
+            histogram[3 * RADIX + ((value >>> 24) ^ 0x80)]++;
+        }
+        int[] src = arr, dst = intBuffer;
+        int srcOff = from, dstOff = 0;
+        for (int d = 0; d < 4; d++)
+        {
+            int base = d * RADIX;
+            // 所有元素在这一位上相同，分配不会改变顺序
+            if (histogram[base + digit(src[srcOff], d)] == length)
+            {
+                continue;
+            }
+            // 计数转换为每个桶的起始位置
+            int sum = dstOff;
+            for (int b = base; b < base + RADIX; b++)
+            {
+                int count = histogram[b];
+                histogram[b] = sum;
+                sum += count;
+            }
+            for (int i = srcOff, end = srcOff + length; i < end; i++)
+            {
+                int value = src[i];
+                dst[histogram[base + digit(value, d)]++] = value;
+            }
+            int[] temp = src;
+            src = dst;
+            dst = temp;
+            int tempOff = srcOff;
+            srcOff = dstOff;
+            dstOff = tempOff;
+        }
+        if (src != arr)
+        {
+            SortInstrumentation.arraycopy(src, srcOff, arr, from, length);
+        }
+    }
+    
+    private void lsd(long[] arr, int from, int to)
+    {
+        int length = to - from;
+        int[] histogram = this.histogram;
+        Arrays.fill(histogram, 0);
+        for (int i = from; i < to; i++)
+        {
+            long value = arr[i];
+            for (int d = 0; d < 8; d++)
+            {
+                histogram[d * RADIX + digit(value, d)]++;
+            }
+        }
+        long[] src = arr, dst = longBuffer;
+        int srcOff = from, dstOff = 0;
+        for (int d = 0; d < 8; d++)
+        {
+            int base = d * RADIX;
+            if (histogram[base + digit(src[srcOff], d)] == length)
+            {
+                continue;
+            }
+            int sum = dstOff;
+            for (int b = base; b < base + RADIX; b++)
+            {
+                int count = histogram[b];
+                histogram[b] = sum;
+                sum += count;
+            }
+            for (int i = srcOff, end = srcOff + length; i < end; i++)
+            {
+                long value = src[i];
+                dst[histogram[base + digit(value, d)]++] = value;
+            }
+            long[] temp = src;
+            src = dst;
+            dst = temp;
+            int tempOff = srcOff;
+            srcOff = dstOff;
+            dstOff = tempOff;
+        }
+        if (src != arr)
+        {
+            SortInstrumentation.arraycopy(src, srcOff, arr, from, length);
+        }
+    }
+    
+    /**
+     * MSD基数排序，按第digit位分桶后递归排序每个桶
+     *
+     * @param arr   待排序数组
+     * @param left  左边界
+     * @param right 右边界
+     * @param digit 当前数位，从最高位开始
+     */
+    private void msd(int[] arr, int left, int right, int digit)
+    {
+        int length = right - left + 1;
+        if (length <= INSERTION_THRESHOLD)
+        {
+            SmallSorts.insertionSort(arr, left, right);
+            return;
+        }
+        int[] count = counts[digit];
+        Arrays.fill(count, 0);
+        for (int i = left; i <= right; i++)
+        {
+            count[digit(arr[i], digit)]++;
+        }
+        // 所有元素在这一位上相同时不需要分配
+        if (count[digit(arr[left], digit)] != length)
+        {
+            int sum = 0;
+            for (int b = 0; b < RADIX; b++)
+            {
+                int c = count[b];
+                count[b] = sum;
+                sum += c;
+            }
+            int[] aux = intBuffer;
+            for (int i = left; i <= right; i++)
+            {
+                aux[count[digit(arr[i], digit)]++] = arr[i];
+            }
+            SortInstrumentation.arraycopy(aux, 0, arr, left, length);
+        }
+        else
+        {
+            // count[b]为第b个桶的结束位置
+            Arrays.fill(count, 0);
+            Arrays.fill(count, digit(arr[left], digit), RADIX, length);
+        }
+        if (digit == 0)
+        {
+            return;
+        }
+        int start = 0;
+        for (int b = 0; b < RADIX; b++)
+        {
+            int end = count[b];
+            if (end - start > 1)
+            {
+                msd(arr, left + start, left + end - 1, digit - 1);
+            }
+            start = end;
+        }
+    }
+    
+    private void msd(long[] arr, int left, int right, int digit)
+    {
+        int length = right - left + 1;
+        if (length <= INSERTION_THRESHOLD)
+        {
+            SmallSorts.insertionSort(arr, left, right);
+            return;
+        }
+        int[] count = counts[digit];
+        Arrays.fill(count, 0);
+        for (int i = left; i <= right; i++)
+        {
+            count[digit(arr[i], digit)]++;
+        }
+        if (count[digit(arr[left], digit)] != length)
+        {
+            int sum = 0;
+            for (int b = 0; b < RADIX; b++)
+            {
+                int c = count[b];
+                count[b] = sum;
+                sum += c;
+            }
+            long[] aux = longBuffer;
+            for (int i = left; i <= right; i++)
+            {
+                aux[count[digit(arr[i], digit)]++] = arr[i];
+            }
+            SortInstrumentation.arraycopy(aux, 0, arr, left, length);
+        }
+        else
+        {
+            Arrays.fill(count, 0);
+            Arrays.fill(count, digit(arr[left], digit), RADIX, length);
+        }
+        if (digit == 0)
+        {
+            return;
+        }
+        int start = 0;
+        for (int b = 0; b < RADIX; b++)
+        {
+            int end = count[b];
+            if (end - start > 1)
+            {
+                msd(arr, left + start, left + end - 1, digit - 1);
+            }
+            start = end;
+        }
+    }
+}
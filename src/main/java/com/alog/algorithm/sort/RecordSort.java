@@ -0,0 +1,490 @@
+package com.alog.algorithm.sort;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * 定长记录的原地排序，记录保存在{@link ByteBuffer}（堆缓冲区、直接缓冲区或内存映射的文件）中<br/>
+ * 1.排序直接读写缓冲区中的字节，记录不会被转换成堆上的对象，交换记录时每次移动8个字节。<br/>
+ * 2.记录之间按照键的字节做无符号字典序比较，与缓冲区的字节序无关。<br/>
+ * 3.支持三种算法：<br/>
+ * Radix：默认，MSD基数排序（American flag sort），按键的字节逐位原地分桶，小桶使用插入排序，不稳定；<br/>
+ * Quick：三数取中的快速排序，递归过深时改用堆排序，不稳定；<br/>
+ * Merge：自底向上的归并排序，额外分配一块同样大小的直接缓冲区，稳定。<br/>
+ * 超过单个缓冲区容量或内存大小的文件使用{@link ExternalSort}。
+ *
+ * @author lushenchen 2024/2/5 20:10
+ * @since 1.0.0
+ */
+public class RecordSort
+{
+    /**
+     * 区间长度不超过该值时使用插入排序
+     */
+    private static final int INSERTION_THRESHOLD = 16;
+    
+    /**
+     * 基数排序中桶的大小不超过该值时使用插入排序
+     */
+    private static final int RADIX_INSERTION_THRESHOLD = 32;
+    
+    /**
+     * 记录的长度（字节）
+     */
+    private final int recordSize;
+    
+    /**
+     * 键在记录中的偏移量
+     */
+    private final int keyOffset;
+    
+    /**
+     * 键的长度（字节）
+     */
+    private final int keyLength;
+    
+    /**
+     * 排序使用的算法
+     */
+    private Sorts algorithm = Sorts.Radix;
+    
+    /**
+     * @param recordSize 记录的长度（字节）
+     * @param keyOffset  键在记录中的偏移量
+     * @param keyLength  键的长度（字节）
+     */
+    public RecordSort(int recordSize, int keyOffset, int keyLength)
+    {
+        if (recordSize <= 0 || keyOffset < 0 || keyLength <= 0 || keyOffset + keyLength > recordSize)
+        {
+            throw new IllegalArgumentException("recordSize: " + recordSize + ", keyOffset: " + keyOffset + ", keyLength: " + keyLength);
+        }
+        this.recordSize = recordSize;
+        this.keyOffset = keyOffset;
+        this.keyLength = keyLength;
+    }
+    
+    /**
+     * 对缓冲区中position到limit之间的记录原地排序，缓冲区的position、limit和字节序保持不变
+     *
+     * @param buffer 缓冲区，剩余长度必须是记录长度的整数倍
+     */
+    public void sort(ByteBuffer buffer)
+    {
+        int length = buffer.remaining();
+        if (length % recordSize != 0)
+        {
+            throw new IllegalArgumentException("长度" + length + "不是记录长度" + recordSize + "的整数倍~");
+        }
+        int n = length / recordSize;
+        if (n <= 1)
+        {
+            return;
+        }
+        // 使用大端序的视图，按long比较时与按字节比较的顺序一致
+        Records records = new Records(buffer.duplicate().order(ByteOrder.BIG_ENDIAN), buffer.position());
+        if (algorithm == Sorts.Radix)
+        {
+            radixSort(records, 0, n - 1, 0, new int[keyLength][]);
+        }
+        else if (algorithm == Sorts.Quick)
+        {
+            quickSort(records, 0, n - 1, 2 * (31 - Integer.numberOfLeadingZeros(n)));
+        }
+        else
+        {
+            mergeSort(records, n);
+        }
+    }
+    
+    /**
+     * 对文件中的记录原地排序，文件通过{@link MappedByteBuffer}映射到内存，排序结束后写回
+     *
+     * @param file 文件，长度必须是记录长度的整数倍，不超过{@link Integer#MAX_VALUE}
+     * @throws IOException 读写文件失败
+     */
+    public void sort(Path file) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE))
+        {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE)
+            {
+                throw new IllegalArgumentException("文件长度" + size + "超过单个缓冲区的容量，请使用ExternalSort~");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            sort(buffer);
+            buffer.force();
+        }
+    }
+    
+    /**
+     * 快速排序，区间较小时使用插入排序，剩余深度用完时使用堆排序
+     */
+    private void quickSort(Records records, int left, int right, int depth)
+    {
+        while (right - left + 1 > INSERTION_THRESHOLD)
+        {
+            if (depth-- == 0)
+            {
+                heapSort(records, left, right);
+                return;
+            }
+            // 三数取中，中位数交换到left作为切分元素，right不小于切分元素
+            int mid = (left + right) >>> 1;
+            if (records.compare(mid, left) < 0)
+            {
+                records.swap(mid, left);
+            }
+            if (records.compare(right, mid) < 0)
+            {
+                records.swap(right, mid);
+                if (records.compare(mid, left) < 0)
+                {
+                    records.swap(mid, left);
+                }
+            }
+            records.swap(left, mid);
+            int j = partition(records, left, right);
+            // 先递归较小的一边，栈深度不超过O(logN)
+            if (j - left < right - j)
+            {
+                quickSort(records, left, j - 1, depth);
+                left = j + 1;
+            }
+            else
+            {
+                quickSort(records, j + 1, right, depth);
+                right = j - 1;
+            }
+        }
+        insertionSort(records, left, right, 0);
+    }
+    
+    /**
+     * 以left位置的记录为切分元素，左右指针遇到与切分元素相等的键都会停下，重复键较多时依然均匀切分
+     *
+     * @return 切分元素的最终位置
+     */
+    private int partition(Records records, int left, int right)
+    {
+        int i = left, j = right + 1;
+        while (true)
+        {
+            while (records.compare(++i, left) < 0)
+            {
+                if (i == right)
+                {
+                    break;
+                }
+            }
+            while (records.compare(left, --j) < 0)
+            {
+                if (j == left)
+                {
+                    break;
+                }
+            }
+            if (i >= j)
+            {
+                break;
+            }
+            records.swap(i, j);
+        }
+        records.swap(left, j);
+        return j;
+    }
+    
+    /**
+     * 堆排序，堆的位置从left开始
+     */
+    private void heapSort(Records records, int left, int right)
+    {
+        int n = right - left + 1;
+        for (int k = n / 2 - 1; k >= 0; k--)
+        {
+            sink(records, left, k, n);
+        }
+        for (int end = n - 1; end > 0; end--)
+        {
+            records.swap(left, left + end);
+            sink(records, left, 0, end);
+        }
+    }
+    
+    private void sink(Records records, int base, int target, int n)
+    {
+        int child;
+        while ((child = 2 * target + 1) < n)
+        {
+            if (child + 1 < n && records.compare(base + child, base + child + 1) < 0)
+            {
+                child++;
+            }
+            if (records.compare(base + target, base + child) >= 0)
+            {
+                break;
+            }
+            records.swap(base + target, base + child);
+            target = child;
+        }
+    }
+    
+    /**
+     * 插入排序，键的前depth个字节都相同，只比较后面的字节；相邻交换，结果稳定
+     */
+    private void insertionSort(Records records, int left, int right, int depth)
+    {
+        for (int i = left + 1; i <= right; i++)
+        {
+            for (int j = i; j > left && records.compare(j, j - 1, depth) < 0; j--)
+            {
+                records.swap(j, j - 1);
+            }
+        }
+    }
+    
+    /**
+     * MSD基数排序，按键的第depth个字节把区间原地分到256个桶中，再对每个桶递归处理下一个字节
+     *
+     * @param counts 每一层的计数数组，同一层的递归调用依次进行，可以复用
+     */
+    private void radixSort(Records records, int left, int right, int depth, int[][] counts)
+    {
+        if (right - left + 1 <= RADIX_INSERTION_THRESHOLD)
+        {
+            insertionSort(records, left, right, depth);
+            return;
+        }
+        if (counts[depth] == null)
+        {
+            counts[depth] = new int[257 + 256];
+        }
+        // count[b]是桶b的起始位置，count[b + 1]是结束位置；
+        // count[257 + b]是桶b中下一个待确定的位置，把遇到的记录交换到所属桶的下一个位置，直到当前位置属于本桶
+        int[] count = counts[depth];
+        Arrays.fill(count, 0, 257, 0);
+        for (int i = left; i <= right; i++)
+        {
+            count[records.keyByte(i, depth) + 1]++;
+        }
+        count[0] = left;
+        for (int b = 0; b < 256; b++)
+        {
+            count[b + 1] += count[b];
+        }
+        System.arraycopy(count, 0, count, 257, 256);
+        for (int b = 0; b < 256; b++)
+        {
+            int i;
+            while ((i = count[257 + b]) < count[b + 1])
+            {
+                int v = records.keyByte(i, depth);
+                while (v != b)
+                {
+                    records.swap(i, count[257 + v]++);
+                    v = records.keyByte(i, depth);
+                }
+                count[257 + b]++;
+            }
+        }
+        if (depth + 1 == keyLength)
+        {
+            return;
+        }
+        for (int b = 0; b < 256; b++)
+        {
+            if (count[b + 1] - count[b] > 1)
+            {
+                radixSort(records, count[b], count[b + 1] - 1, depth + 1, counts);
+            }
+        }
+    }
+    
+    /**
+     * 自底向上的归并排序，先用插入排序生成长度为{@link #INSERTION_THRESHOLD}的有序段，
+     * 再在原缓冲区和辅助缓冲区之间交替归并
+     */
+    private void mergeSort(Records records, int n)
+    {
+        for (int left = 0; left < n; left += INSERTION_THRESHOLD)
+        {
+            insertionSort(records, left, Math.min(left + INSERTION_THRESHOLD, n) - 1, 0);
+        }
+        if (n <= INSERTION_THRESHOLD)
+        {
+            return;
+        }
+        Records src = records;
+        Records dst = new Records(ByteBuffer.allocateDirect(n * recordSize), 0);
+        for (int width = INSERTION_THRESHOLD; width < n; width <<= 1)
+        {
+            for (int left = 0; left < n; left += width << 1)
+            {
+                int mid = Math.min(left + width, n), right = Math.min(left + (width << 1), n);
+                // 后半段为空或者两段已经有序，整段复制
+                if (mid == right || src.compare(mid - 1, src, mid) <= 0)
+                {
+                    src.copyTo(left, dst, left, right - left);
+                    continue;
+                }
+                merge(src, dst, left, mid, right);
+            }
+            Records temp = src;
+            src = dst;
+            dst = temp;
+        }
+        if (src != records)
+        {
+            src.copyTo(0, records, 0, n);
+        }
+    }
+    
+    /**
+     * 把src中[left, mid)和[mid, right)两个有序段归并到dst的相同位置，键相等时取前一段的记录
+     */
+    private void merge(Records src, Records dst, int left, int mid, int right)
+    {
+        int i = left, j = mid, k = left;
+        while (i < mid && j < right)
+        {
+            if (src.compare(j, src, i) < 0)
+            {
+                src.copyTo(j++, dst, k++);
+            }
+            else
+            {
+                src.copyTo(i++, dst, k++);
+            }
+        }
+        if (i < mid)
+        {
+            src.copyTo(i, dst, k, mid - i);
+        }
+        else if (j < right)
+        {
+            src.copyTo(j, dst, k, right - j);
+        }
+    }
+    
+    public Sorts getAlgorithm()
+    {
+        return algorithm;
+    }
+    
+    /**
+     * 设置排序使用的算法
+     *
+     * @param algorithm {@link Sorts#Radix}、{@link Sorts#Quick}或{@link Sorts#Merge}
+     */
+    public void setAlgorithm(Sorts algorithm)
+    {
+        if (algorithm != Sorts.Radix && algorithm != Sorts.Quick && algorithm != Sorts.Merge)
+        {
+            throw new IllegalArgumentException("不支持的算法: " + algorithm);
+        }
+        this.algorithm = algorithm;
+    }
+    
+    /**
+     * 缓冲区中从base开始连续存放的记录，按序号访问
+     */
+    private final class Records
+    {
+        private final ByteBuffer buffer;
+        
+        private final int base;
+        
+        Records(ByteBuffer buffer, int base)
+        {
+            this.buffer = buffer;
+            this.base = base;
+        }
+        
+        int offset(int i)
+        {
+            return base + i * recordSize;
+        }
+        
+        int compare(int i, int j)
+        {
+            return compare(i, j, 0);
+        }
+        
+        /**
+         * 比较两条记录的键，跳过前depth个字节
+         */
+        int compare(int i, int j, int depth)
+        {
+            return ExternalSort.compareKeys(buffer, offset(i) + keyOffset + depth,
+                    buffer, offset(j) + keyOffset + depth, keyLength - depth);
+        }
+        
+        int compare(int i, Records other, int j)
+        {
+            return ExternalSort.compareKeys(buffer, offset(i) + keyOffset, other.buffer, other.offset(j) + keyOffset, keyLength);
+        }
+        
+        /**
+         * 键的第depth个字节，按无符号数返回
+         */
+        int keyByte(int i, int depth)
+        {
+            return buffer.get(offset(i) + keyOffset + depth) & 0xFF;
+        }
+        
+        void swap(int i, int j)
+        {
+            int oi = offset(i), oj = offset(j);
+            int k = 0;
+            for (; k + 8 <= recordSize; k += 8)
+            {
+                long l = buffer.getLong(oi + k);
+                buffer.putLong(oi + k, buffer.getLong(oj + k));
+                buffer.putLong(oj + k, l);
+            }
+            for (; k < recordSize; k++)
+            {
+                byte b = buffer.get(oi + k);
+                buffer.put(oi + k, buffer.get(oj + k));
+                buffer.put(oj + k, b);
+            }
+        }
+        
+        /**
+         * 把第i条记录复制到dst的第j条
+         */
+        void copyTo(int i, Records dst, int j)
+        {
+            int oi = offset(i), oj = dst.offset(j);
+            int k = 0;
+            for (; k + 8 <= recordSize; k += 8)
+            {
+                dst.buffer.putLong(oj + k, buffer.getLong(oi + k));
+            }
+            for (; k < recordSize; k++)
+            {
+                dst.buffer.put(oj + k, buffer.get(oi + k));
+            }
+        }
+        
+        /**
+         * 把从i开始的count条记录批量复制到dst中从j开始的位置
+         */
+        void copyTo(int i, Records dst, int j, int count)
+        {
+            ByteBuffer source = buffer.duplicate();
+            ((Buffer) source).limit(offset(i + count)).position(offset(i));
+            ByteBuffer target = dst.buffer.duplicate();
+            ((Buffer) target).position(dst.offset(j));
+            target.put(source);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.alog.algorithm.sort;
+
+import com.alog.adt.heap.DaryHeap;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+
+/**
+ * 选择算法，只需要部分有序的结果时代替完整排序<br/>
+ * 1.select 快速选择，复用{@link Sorts#Quick}的分割逻辑，期望O(n)；分割次数超过2⌊log₂n⌋后改用中位数的中位数选取基准值，最坏O(n)。<br/>
+ * 2.topK 大小为k的有界4叉大顶堆，下沉使用{@link DaryHeap}的静态方法，O(n log k)，不修改原数组。<br/>
+ * 3.partialSort 先选择再对前k个位置排序，O(n + k log k)。<br/>
+ * 需要最大的k个元素时传入逆序的比较器。
+ *
+ * @author lushenchen 2024/1/26 20:15
+ * @since 1.0.0
+ */
+public final class Selections
+{
+    /**
+     * 区间长度不超过该值时直接插入排序
+     */
+    private static final int INSERTION_THRESHOLD = 16;
+    
+    private Selections()
+    {
+    }
+    
+    /**
+     * 按自然顺序选择第k小的元素，见{@link #select(Object[], int, Comparator)}
+     *
+     * @param arr 数组
+     * @param k   位置，从0开始
+     * @return 第k小的元素
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Comparable<? super T>> T select(T[] arr, int k)
+    {
+        return select(arr, k, (Comparator<? super T>) Sorts.NATURAL_ORDER);
+    }
+    
+    /**
+     * 选择第k小的元素，调整后arr[k]就是排序后位于k的元素，它左侧的元素都不大于它，右侧的元素都不小于它
+     *
+     * @param arr 数组
+     * @param k   位置，从0开始
+     * @param c   比较器，为null时使用自然顺序
+     * @return 第k小的元素
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T select(T[] arr, int k, Comparator<? super T> c)
+    {
+        if (k < 0 || k >= arr.length)
+        {
+            throw new IllegalArgumentException("k: " + k + ", length: " + arr.length);
+        }
+        c = c == null ? (Comparator<? super T>) Sorts.NATURAL_ORDER : c;
+        int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(arr.length));
+        select(arr, 0, arr.length - 1, k, depthLimit, c);
+        return arr[k];
+    }
+    
+    /**
+     * 按自然顺序返回最小的k个元素，见{@link #topK(Object[], int, Comparator)}
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Comparable<? super T>> T[] topK(T[] arr, int k)
+    {
+        return topK(arr, k, (Comparator<? super T>) Sorts.NATURAL_ORDER);
+    }
+    
+    /**
+     * 返回最小的k个元素，结果按比较器升序排列，原数组保持不变<br/>
+     * 堆中保存目前为止最小的k个元素，堆顶是其中最大的，后续元素只有小于堆顶时才替换堆顶并下沉
+     *
+     * @param arr 数组
+     * @param k   元素个数
+     * @param c   比较器，为null时使用自然顺序
+     * @return 最小的k个元素
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T[] topK(T[] arr, int k, Comparator<? super T> c)
+    {
+        checkCount(arr.length, k);
+        c = c == null ? (Comparator<? super T>) Sorts.NATURAL_ORDER : c;
+        T[] heap = Arrays.copyOf(arr, k);
+        if (k == 0)
+        {
+            return heap;
+        }
+        Comparator<? super T> reversed = Collections.reverseOrder(c);
+        int shift = Integer.numberOfTrailingZeros(DaryHeap.DEFAULT_ARITY);
+        DaryHeap.buildHeap(heap, 0, k, shift, reversed);
+        for (int i = k; i < arr.length; i++)
+        {
+            if (c.compare(arr[i], heap[0]) < 0)
+            {
+                DaryHeap.sink(heap, 0, 0, arr[i], k, shift, reversed);
+            }
+        }
+        // 堆中就是最小的k个元素，原地堆排序得到升序结果
+        Sorts.heapSort(heap, 0, k - 1, c);
+        return heap;
+    }
+    
+    /**
+     * 按自然顺序部分排序，见{@link #partialSort(Object[], int, Comparator)}
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Comparable<? super T>> void partialSort(T[] arr, int k)
+    {
+        partialSort(arr, k, (Comparator<? super T>) Sorts.NATURAL_ORDER);
+    }
+    
+    /**
+     * 部分排序，调整后数组的前k个位置是最小的k个元素并且有序，其余位置的顺序不确定
+     *
+     * @param arr 数组
+     * @param k   有序的元素个数
+     * @param c   比较器，为null时使用自然顺序
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> void partialSort(T[] arr, int k, Comparator<? super T> c)
+    {
+        checkCount(arr.length, k);
+        if (k == 0)
+        {
+            return;
+        }
+        c = c == null ? (Comparator<? super T>) Sorts.NATURAL_ORDER : c;
+        if (k < arr.length)
+        {
+            select(arr, k - 1, c);
+        }
+        Sorts.Intro.sort(arr, 0, k, c);
+    }
+    
+    /**
+     * 在left到right的位置中选择第k小的元素
+     *
+     * @param arr   数组
+     * @param left  左边界
+     * @param right 右边界
+     * @param k     位置
+     * @param depth 剩余的分割次数，用尽后使用中位数的中位数选取基准值
+     * @param c     比较器
+     */
+    private static <T> void select(T[] arr, int left, int right, int k, int depth, Comparator<? super T> c)
+    {
+        while (right - left >= INSERTION_THRESHOLD)
+        {
+            int pivot = depth-- > 0 ? Sorts.median(arr, left, left + (right - left) / 2, right, c)
+                    : medianOfMedians(arr, left, right, c);
+            // Quick.partition以left位置的元素为基准值
+            exchange(arr, left, pivot);
+            int partition = Sorts.partition(arr, left, right, c);
+            if (k == partition)
+            {
+                return;
+            }
+            if (k < partition)
+            {
+                right = partition - 1;
+            }
+            else
+            {
+                left = partition + 1;
+            }
+        }
+        SmallSorts.insertionSort(arr, left, right, c);
+    }
+    
+    /**
+     * 中位数的中位数：每5个元素一组取中位数，移到区间前部，再选出这些中位数的中位数
+     *
+     * @return 基准值的位置
+     */
+    private static <T> int medianOfMedians(T[] arr, int left, int right, Comparator<? super T> c)
+    {
+        int m = left;
+        for (int i = left; i <= right; i += 5)
+        {
+            int end = Math.min(i + 4, right);
+            SmallSorts.insertionSort(arr, i, end, c);
+            exchange(arr, m++, i + (end - i) / 2);
+        }
+        int mid = left + (m - 1 - left) / 2;
+        // 分割次数为0，递归选择时始终使用中位数的中位数
+        select(arr, left, m - 1, mid, 0, c);
+        return mid;
+    }
+    
+    private static void exchange(Object[] arr, int i, int j)
+    {
+        Object temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+    
+    private static void checkCount(int length, int k)
+    {
+        if (k < 0 || k > length)
+        {
+            throw new IllegalArgumentException("k: " + k + ", length: " + length);
+        }
+    }
+}
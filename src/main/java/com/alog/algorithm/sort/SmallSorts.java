@@ -0,0 +1,197 @@
+package com.alog.algorithm.sort;
+
+import java.util.Comparator;
+
+/**
+ * 分治排序的小区间基础情形，递归到短区间时直接排序，省去最底几层递归的调用开销<br/>
+ * 1.基本类型数组长度不超过{@link #MAX_NETWORK_SIZE}的区间使用排序网络：比较器的顺序与数据无关，
+ * int、long的每个比较器用Math.min、Math.max实现，JIT编译成条件传送，没有分支预测失败。
+ * 除13个元素（46个比较器，已知最少45个）以外比较器个数都是已知最少的，11、13、14、15个元素的网络由更大的网络删去涉及多余位置的比较器得到。<br/>
+ * 2.对象数组使用插入排序，排序网络不稳定，而且比较器调用的开销远大于分支预测失败。<br/>
+ * 3.阈值可以通过系统属性调整，{@link Sorts#Merge}、{@link Sorts#Quick}和{@link ParallelMergeSort}共用，
+ * 取值在benchmark模块的SmallSortBenchmark中测量。
+ *
+ * @author lushenchen 2024/2/13 20:10
+ * @since 1.0.0
+ */
+final class SmallSorts
+{
+    /**
+     * 排序网络支持的最大长度
+     */
+    static final int MAX_NETWORK_SIZE = 16;
+    
+    /**
+     * 基本类型数组的区间长度不超过该值时使用排序网络，-Dcom.alog.algorithm.sort.networkThreshold，取值1到16，默认16
+     */
+    static final int NETWORK_THRESHOLD = Math.max(1, Math.min(MAX_NETWORK_SIZE,
+            Integer.getInteger("com.alog.algorithm.sort.networkThreshold", MAX_NETWORK_SIZE)));
+    
+    /**
+     * 对象数组的区间长度不超过该值时使用插入排序，-Dcom.alog.algorithm.sort.insertionThreshold，默认16
+     */
+    static final int INSERTION_THRESHOLD = Math.max(1,
+            Integer.getInteger("com.alog.algorithm.sort.insertionThreshold", 16));
+    
+    /**
+     * NETWORKS[n]是n个元素的排序网络，相邻两个数是一个比较器的两个位置，较小值放在前一个位置
+     */
+    private static final int[][] NETWORKS = {
+            {},
+            {},
+            // 2个元素，1个比较器
+            {0, 1},
+            // 3个元素，3个比较器
+            {0, 2, 0, 1, 1, 2},
+            // 4个元素，5个比较器
+            {0, 2, 1, 3, 0, 1, 2, 3, 1, 2},
+            // 5个元素，9个比较器
+            {0, 3, 1, 4, 0, 2, 1, 3, 0, 1, 2, 4, 1, 2, 3, 4, 2, 3},
+            // 6个元素，12个比较器
+            {0, 5, 1, 3, 2, 4, 1, 2, 3, 4, 0, 3, 2, 5, 0, 1, 2, 3, 4, 5, 1, 2, 3, 4},
+            // 7个元素，16个比较器
+            {0, 6, 2, 3, 4, 5, 0, 2, 1, 4, 3, 6, 0, 1, 2, 5, 3, 4, 1, 2, 4, 6, 2, 3,
+                 4, 5, 1, 2, 3, 4, 5, 6},
+            // 8个元素，19个比较器
+            {0, 2, 1, 3, 4, 6, 5, 7, 0, 4, 1, 5, 2, 6, 3, 7, 0, 1, 2, 3, 4, 5, 6, 7,
+                 2, 4, 3, 5, 1, 4, 3, 6, 1, 2, 3, 4, 5, 6},
+            // 9个元素，25个比较器
+            {0, 3, 1, 7, 2, 5, 4, 8, 0, 7, 2, 4, 3, 8, 5, 6, 0, 2, 1, 3, 4, 5, 7, 8,
+                 1, 4, 3, 6, 5, 7, 0, 1, 2, 4, 3, 5, 6, 8, 2, 3, 4, 5, 6, 7, 1, 2, 3, 4,
+                 5, 6},
+            // 10个元素，29个比较器
+            {0, 8, 1, 9, 2, 7, 3, 5, 4, 6, 0, 2, 1, 4, 5, 8, 7, 9, 0, 3, 2, 4, 5, 7,
+                 6, 9, 0, 1, 3, 6, 8, 9, 1, 5, 2, 3, 4, 8, 6, 7, 1, 2, 3, 5, 4, 6, 7, 8,
+                 2, 3, 4, 5, 6, 7, 3, 4, 5, 6},
+            // 11个元素，35个比较器
+            {0, 8, 1, 7, 2, 6, 4, 10, 5, 9, 0, 1, 2, 5, 3, 4, 6, 9, 7, 8, 0, 2, 1, 6,
+                 5, 10, 0, 3, 1, 2, 4, 6, 5, 7, 9, 10, 1, 4, 3, 5, 6, 8, 7, 10, 1, 3, 2, 5,
+                 6, 9, 8, 10, 2, 3, 4, 5, 6, 7, 8, 9, 4, 6, 5, 7, 3, 4, 5, 6, 7, 8},
+            // 12个元素，39个比较器
+            {0, 8, 1, 7, 2, 6, 3, 11, 4, 10, 5, 9, 0, 1, 2, 5, 3, 4, 6, 9, 7, 8, 10, 11,
+                 0, 2, 1, 6, 5, 10, 9, 11, 0, 3, 1, 2, 4, 6, 5, 7, 8, 11, 9, 10, 1, 4, 3, 5,
+                 6, 8, 7, 10, 1, 3, 2, 5, 6, 9, 8, 10, 2, 3, 4, 5, 6, 7, 8, 9, 4, 6, 5, 7,
+                 3, 4, 5, 6, 7, 8},
+            // 13个元素，46个比较器
+            {1, 12, 4, 8, 5, 6, 7, 11, 9, 10, 0, 5, 1, 7, 2, 9, 3, 4, 11, 12, 0, 1, 2, 3,
+                 4, 5, 6, 8, 7, 9, 10, 11, 0, 2, 1, 3, 4, 10, 5, 11, 6, 7, 8, 9, 1, 2, 3, 12,
+                 4, 6, 5, 7, 8, 10, 9, 11, 1, 4, 2, 6, 5, 8, 7, 10, 2, 4, 3, 6, 9, 12, 3, 5,
+                 6, 8, 7, 9, 10, 12, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 6, 7, 8, 9},
+            // 14个元素，51个比较器
+            {0, 13, 1, 12, 4, 8, 5, 6, 7, 11, 9, 10, 0, 5, 1, 7, 2, 9, 3, 4, 6, 13, 11, 12,
+                 0, 1, 2, 3, 4, 5, 6, 8, 7, 9, 10, 11, 12, 13, 0, 2, 1, 3, 4, 10, 5, 11, 6, 7,
+                 8, 9, 1, 2, 3, 12, 4, 6, 5, 7, 8, 10, 9, 11, 1, 4, 2, 6, 5, 8, 7, 10, 9, 13,
+                 2, 4, 3, 6, 9, 12, 11, 13, 3, 5, 6, 8, 7, 9, 10, 12, 3, 4, 5, 6, 7, 8, 9, 10,
+                 11, 12, 6, 7, 8, 9},
+            // 15个元素，56个比较器
+            {0, 13, 1, 12, 3, 14, 4, 8, 5, 6, 7, 11, 9, 10, 0, 5, 1, 7, 2, 9, 3, 4, 6, 13,
+                 8, 14, 11, 12, 0, 1, 2, 3, 4, 5, 6, 8, 7, 9, 10, 11, 12, 13, 0, 2, 1, 3, 4, 10,
+                 5, 11, 6, 7, 8, 9, 12, 14, 1, 2, 3, 12, 4, 6, 5, 7, 8, 10, 9, 11, 13, 14, 1, 4,
+                 2, 6, 5, 8, 7, 10, 9, 13, 11, 14, 2, 4, 3, 6, 9, 12, 11, 13, 3, 5, 6, 8, 7, 9,
+                 10, 12, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 6, 7, 8, 9},
+            // 16个元素，60个比较器
+            {0, 13, 1, 12, 2, 15, 3, 14, 4, 8, 5, 6, 7, 11, 9, 10, 0, 5, 1, 7, 2, 9, 3, 4,
+                 6, 13, 8, 14, 10, 15, 11, 12, 0, 1, 2, 3, 4, 5, 6, 8, 7, 9, 10, 11, 12, 13, 14, 15,
+                 0, 2, 1, 3, 4, 10, 5, 11, 6, 7, 8, 9, 12, 14, 13, 15, 1, 2, 3, 12, 4, 6, 5, 7,
+                 8, 10, 9, 11, 13, 14, 1, 4, 2, 6, 5, 8, 7, 10, 9, 13, 11, 14, 2, 4, 3, 6, 9, 12,
+                 11, 13, 3, 5, 6, 8, 7, 9, 10, 12, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 6, 7, 8, 9}
+    };
+    
+    private SmallSorts()
+    {
+    }
+    
+    /**
+     * 用排序网络对arr的left到right位置排序，区间长度不能超过{@link #MAX_NETWORK_SIZE}
+     */
+    static void sort(int[] arr, int left, int right)
+    {
+        int[] network = NETWORKS[right - left + 1];
+        for (int k = 0; k < network.length; k += 2)
+        {
+            SortInstrumentation.compared();
+            int i = left + network[k], j = left + network[k + 1];
+            int a = arr[i], b = arr[j];
+            arr[i] = Math.min(a, b);
+            arr[j] = Math.max(a, b);
+        }
+    }
+    
+    static void sort(long[] arr, int left, int right)
+    {
+        int[] network = NETWORKS[right - left + 1];
+        for (int k = 0; k < network.length; k += 2)
+        {
+            SortInstrumentation.compared();
+            int i = left + network[k], j = left + network[k + 1];
+            long a = arr[i], b = arr[j];
+            arr[i] = Math.min(a, b);
+            arr[j] = Math.max(a, b);
+        }
+    }
+    
+    /**
+     * double的顺序与{@link Double#compare}一致，Math.min、Math.max对NaN和-0.0的处理不同，这里按比较结果选择
+     */
+    static void sort(double[] arr, int left, int right)
+    {
+        int[] network = NETWORKS[right - left + 1];
+        for (int k = 0; k < network.length; k += 2)
+        {
+            SortInstrumentation.compared();
+            int i = left + network[k], j = left + network[k + 1];
+            double a = arr[i], b = arr[j];
+            boolean swap = Double.compare(a, b) > 0;
+            arr[i] = swap ? b : a;
+            arr[j] = swap ? a : b;
+        }
+    }
+    
+    /**
+     * 对arr的left到right位置插入排序，稳定
+     */
+    static <T> void insertionSort(T[] arr, int left, int right, Comparator<? super T> c)
+    {
+        for (int i = left + 1; i <= right; i++)
+        {
+            T current = arr[i];
+            int j = i;
+            for (; j > left && c.compare(current, arr[j - 1]) < 0; j--)
+            {
+                arr[j] = arr[j - 1];
+            }
+            arr[j] = current;
+        }
+    }
+    
+    /**
+     * 对arr的left到right位置插入排序，用于{@link RadixSort}中比排序网络更长的短区间
+     */
+    static void insertionSort(int[] arr, int left, int right)
+    {
+        for (int i = left + 1; i <= right; i++)
+        {
+            int current = arr[i];
+            int j = i;
+            for (; j > left && current < arr[j - 1]; j--)
+            {
+                arr[j] = arr[j - 1];
+            }
+            arr[j] = current;
+        }
+    }
+    
+    static void insertionSort(long[] arr, int left, int right)
+    {
+        for (int i = left + 1; i <= right; i++)
+        {
+            long current = arr[i];
+            int j = i;
+            for (; j > left && current < arr[j - 1]; j--)
+            {
+                arr[j] = arr[j - 1];
+            }
+            arr[j] = current;
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package com.alog.algorithm.sort;
+
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * {@link Sorts#Auto}的选择结果，以及根据输入的采样做出选择的逻辑<br/>
+ * 1.采样：在区间中等距取不超过{@link #SAMPLE_SIZE}个相邻元素对统计逆序对的比例，
+ * 再等距取不超过{@link #SAMPLE_SIZE}个元素排序后统计重复元素的比例，采样的代价与区间长度无关。<br/>
+ * 2.选择：元素很少时插入排序；基本有序时对象数组使用Tim，基本类型使用带有序检查的Merge；
+ * 重复元素较多时对象数组使用Tim，相等元素组成的子组直接被识别成有序子组；其余情况int、long较多时使用Radix，
+ * 对象数组较多且有多个处理器时使用ParallelMerge，否则对象数组使用Tim，基本类型使用Quick。<br/>
+ * 对象数组选择的算法都是稳定的，相等元素的顺序与采样结果无关。<br/>
+ * 需要记录选择时先调用decide，再用{@link #getAlgorithm()}排序，结果与直接使用Auto相同。
+ *
+ * @author lushenchen 2024/2/1 20:30
+ * @since 1.0.0
+ */
+public final class SortDecision
+{
+    /**
+     * 采样的最大个数
+     */
+    static final int SAMPLE_SIZE = 64;
+    
+    /**
+     * 元素个数不超过该值时使用插入排序
+     */
+    static final int INSERTION_THRESHOLD = 32;
+    
+    /**
+     * int、long元素个数不小于该值时使用基数排序
+     */
+    static final int RADIX_THRESHOLD = 1 << 12;
+    
+    /**
+     * 对象元素个数不小于该值时使用并行归并排序
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 17;
+    
+    /**
+     * 逆序对比例不超过该值时认为基本有序
+     */
+    static final double PRESORTED_RATIO = 1.0 / 16;
+    
+    /**
+     * 重复元素比例不小于该值时认为重复较多
+     */
+    static final double DUPLICATE_RATIO = 0.5;
+    
+    /**
+     * 选择的算法
+     */
+    private final Sorts algorithm;
+    
+    /**
+     * 元素类型
+     */
+    private final Class<?> elementType;
+    
+    /**
+     * 待排序的元素个数
+     */
+    private final int length;
+    
+    /**
+     * 采样的相邻元素对中逆序的比例
+     */
+    private final double descentRatio;
+    
+    /**
+     * 采样的元素中重复元素的比例
+     */
+    private final double duplicateRatio;
+    
+    /**
+     * 选择的原因
+     */
+    private final String reason;
+    
+    private SortDecision(Sorts algorithm, Class<?> elementType, int length, double descentRatio,
+                         double duplicateRatio, String reason)
+    {
+        this.algorithm = algorithm;
+        this.elementType = elementType;
+        this.length = length;
+        this.descentRatio = descentRatio;
+        this.duplicateRatio = duplicateRatio;
+        this.reason = reason;
+    }
+    
+    /**
+     * 按自然顺序为整个数组选择排序算法
+     */
+    public static SortDecision decide(Comparable[] arr)
+    {
+        return decide(arr, 0, arr.length, null);
+    }
+    
+    /**
+     * 为数组中from(包含)到to(不包含)的位置选择排序算法
+     *
+     * @param arr  待排序的数组
+     * @param from 起始位置（包含）
+     * @param to   结束位置（不包含）
+     * @param c    比较器，为null时使用自然顺序
+     * @param <T>  元素类型
+     * @return 选择结果
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> SortDecision decide(T[] arr, int from, int to, Comparator<? super T> c)
+    {
+        Sorts.rangeCheck(arr.length, from, to);
+        c = c == null ? (Comparator<? super T>) Sorts.NATURAL_ORDER : c;
+        return decideRange(arr, from, to - 1, c);
+    }
+    
+    public static SortDecision decide(int[] arr)
+    {
+        int n = arr.length;
+        if (n <= INSERTION_THRESHOLD)
+        {
+            return small(int.class, n);
+        }
+        int pairs = Math.min(SAMPLE_SIZE, n - 1), descents = 0;
+        for (int k = 0; k < pairs; k++)
+        {
+            int i = position(k, pairs, n - 1);
+            if (arr[i + 1] < arr[i])
+            {
+                descents++;
+            }
+        }
+        int size = Math.min(SAMPLE_SIZE, n);
+        int[] sample = new int[size];
+        for (int k = 0; k < size; k++)
+        {
+            sample[k] = arr[position(k, size, n)];
+        }
+        Sorts.Insertion.doSort(sample);
+        int distinct = 1;
+        for (int k = 1; k < size; k++)
+        {
+            if (sample[k] != sample[k - 1])
+            {
+                distinct++;
+            }
+        }
+        return primitive(int.class, n, (double) descents / pairs, 1 - (double) distinct / size, true);
+    }
+    
+    public static SortDecision decide(long[] arr)
+    {
+        int n = arr.length;
+        if (n <= INSERTION_THRESHOLD)
+        {
+            return small(long.class, n);
+        }
+        int pairs = Math.min(SAMPLE_SIZE, n - 1), descents = 0;
+        for (int k = 0; k < pairs; k++)
+        {
+            int i = position(k, pairs, n - 1);
+            if (arr[i + 1] < arr[i])
+            {
+                descents++;
+            }
+        }
+        int size = Math.min(SAMPLE_SIZE, n);
+        long[] sample = new long[size];
+        for (int k = 0; k < size; k++)
+        {
+            sample[k] = arr[position(k, size, n)];
+        }
+        Sorts.Insertion.doSort(sample);
+        int distinct = 1;
+        for (int k = 1; k < size; k++)
+        {
+            if (sample[k] != sample[k - 1])
+            {
+                distinct++;
+            }
+        }
+        return primitive(long.class, n, (double) descents / pairs, 1 - (double) distinct / size, true);
+    }
+    
+    public static SortDecision decide(double[] arr)
+    {
+        int n = arr.length;
+        if (n <= INSERTION_THRESHOLD)
+        {
+            return small(double.class, n);
+        }
+        int pairs = Math.min(SAMPLE_SIZE, n - 1), descents = 0;
+        for (int k = 0; k < pairs; k++)
+        {
+            int i = position(k, pairs, n - 1);
+            if (Double.compare(arr[i + 1], arr[i]) < 0)
+            {
+                descents++;
+            }
+        }
+        int size = Math.min(SAMPLE_SIZE, n);
+        double[] sample = new double[size];
+        for (int k = 0; k < size; k++)
+        {
+            sample[k] = arr[position(k, size, n)];
+        }
+        Sorts.Insertion.doSort(sample);
+        int distinct = 1;
+        for (int k = 1; k < size; k++)
+        {
+            if (Double.compare(sample[k], sample[k - 1]) != 0)
+            {
+                distinct++;
+            }
+        }
+        return primitive(double.class, n, (double) descents / pairs, 1 - (double) distinct / size, false);
+    }
+    
+    /**
+     * 为数组中left到right的位置选择排序算法
+     */
+    static <T> SortDecision decideRange(T[] arr, int left, int right, Comparator<? super T> c)
+    {
+        Class<?> elementType = arr.getClass().getComponentType();
+        int n = right - left + 1;
+        if (n <= INSERTION_THRESHOLD)
+        {
+            return small(elementType, n);
+        }
+        int pairs = Math.min(SAMPLE_SIZE, n - 1), descents = 0;
+        for (int k = 0; k < pairs; k++)
+        {
+            int i = left + position(k, pairs, n - 1);
+            if (c.compare(arr[i + 1], arr[i]) < 0)
+            {
+                descents++;
+            }
+        }
+        int size = Math.min(SAMPLE_SIZE, n);
+        Object[] sample = new Object[size];
+        for (int k = 0; k < size; k++)
+        {
+            sample[k] = arr[left + position(k, size, n)];
+        }
+        @SuppressWarnings("unchecked")
+        Comparator<Object> oc = (Comparator<Object>) c;
+        Sorts.Insertion.sortRange(sample, 0, size - 1, oc);
+        int distinct = 1;
+        for (int k = 1; k < size; k++)
+        {
+            if (oc.compare(sample[k], sample[k - 1]) != 0)
+            {
+                distinct++;
+            }
+        }
+        double descentRatio = (double) descents / pairs;
+        double duplicateRatio = 1 - (double) distinct / size;
+        // Tim把降序的子组原地翻转，升序和降序的输入都只需要O(n)
+        if (descentRatio <= PRESORTED_RATIO)
+        {
+            return new SortDecision(Sorts.Tim, elementType, n, descentRatio, duplicateRatio, "presorted");
+        }
+        if (descentRatio >= 1 - PRESORTED_RATIO)
+        {
+            return new SortDecision(Sorts.Tim, elementType, n, descentRatio, duplicateRatio, "reversed");
+        }
+        if (duplicateRatio >= DUPLICATE_RATIO)
+        {
+            // Intro的三向切分不稳定，对象数组只能选择稳定的算法
+            return new SortDecision(Sorts.Tim, elementType, n, descentRatio, duplicateRatio, "duplicates");
+        }
+        if (n >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1)
+        {
+            return new SortDecision(Sorts.ParallelMerge, elementType, n, descentRatio, duplicateRatio, "large");
+        }
+        return new SortDecision(Sorts.Tim, elementType, n, descentRatio, duplicateRatio, "random");
+    }
+    
+    /**
+     * 基本类型数组的选择，逆序的输入交给Quick，三数取中可以正确处理
+     *
+     * @param radix 是否支持基数排序
+     */
+    private static SortDecision primitive(Class<?> elementType, int n, double descentRatio, double duplicateRatio,
+                                          boolean radix)
+    {
+        if (descentRatio <= PRESORTED_RATIO)
+        {
+            return new SortDecision(Sorts.Merge, elementType, n, descentRatio, duplicateRatio, "presorted");
+        }
+        if (radix && n >= RADIX_THRESHOLD)
+        {
+            return new SortDecision(Sorts.Radix, elementType, n, descentRatio, duplicateRatio, "large");
+        }
+        String reason = descentRatio >= 1 - PRESORTED_RATIO ? "reversed" : "random";
+        return new SortDecision(Sorts.Quick, elementType, n, descentRatio, duplicateRatio, reason);
+    }
+    
+    private static SortDecision small(Class<?> elementType, int n)
+    {
+        return new SortDecision(Sorts.Insertion, elementType, n, 0, 0, "small");
+    }
+    
+    /**
+     * 把count个采样点等距分布在[0, range)中，返回第k个采样点的位置
+     */
+    private static int position(int k, int count, int range)
+    {
+        return (int) ((long) k * range / count);
+    }
+    
+    public Sorts getAlgorithm()
+    {
+        return algorithm;
+    }
+    
+    public Class<?> getElementType()
+    {
+        return elementType;
+    }
+    
+    public int getLength()
+    {
+        return length;
+    }
+    
+    public double getDescentRatio()
+    {
+        return descentRatio;
+    }
+    
+    public double getDuplicateRatio()
+    {
+        return duplicateRatio;
+    }
+    
+    public String getReason()
+    {
+        return reason;
+    }
+    
+    @Override
+    public String toString()
+    {
+        return algorithm + "(" + elementType.getSimpleName() + "[" + length + "], " + reason
+                + ", descentRatio=" + descentRatio + ", duplicateRatio=" + duplicateRatio + ")";
+    }
+}
@@ -0,0 +1,283 @@
+package com.alog.algorithm.sort;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 排序的统计开关和监听器注册<br/>
+ * 1.通过系统属性-Dcom.alog.algorithm.sort.instrumentation=true开启，默认关闭。<br/>
+ * 2.开关是static final常量，关闭时JIT会把所有统计调用当作死代码消除，排序的内层循环不受影响，可以保留在生产构建中。<br/>
+ * 3.开启后{@link Sorts}的入口转到单独的统计路径：对象数组的比较器包装成计数比较器，
+ * 基本类型数组的比较、所有的交换、批量复制和辅助数组的分配记录到当前线程的{@link SortMetrics}，排序结束后通知监听器。<br/>
+ * 4.计数时先检查最近一次开始或结束统计的线程是否就是当前线程，是则直接使用它的统计数据，
+ * 单线程排序的每次比较只有一次字段读取和线程比较，其他线程的排序才查ThreadLocal。
+ *
+ * @author lushenchen 2024/1/29 20:30
+ * @since 1.0.0
+ */
+public final class SortInstrumentation
+{
+    /**
+     * 是否开启统计
+     */
+    public static final boolean ENABLED = Boolean.getBoolean("com.alog.algorithm.sort.instrumentation");
+    
+    /**
+     * 引用类型元素的字节数
+     */
+    static final int REFERENCE_BYTES = 4;
+    
+    /**
+     * 数组头的字节数
+     */
+    private static final int ARRAY_HEADER_BYTES = 16;
+    
+    private static final List<SortListener> LISTENERS = new CopyOnWriteArrayList<>();
+    
+    /**
+     * 当前线程正在进行的排序
+     */
+    private static final ThreadLocal<SortMetrics> CURRENT = new ThreadLocal<>();
+    
+    /**
+     * 最近一次开始或结束统计的线程和它当前的统计数据，只由该线程自己写入，不会过期
+     */
+    private static volatile Active active;
+    
+    private SortInstrumentation()
+    {
+    }
+    
+    public static void addListener(SortListener listener)
+    {
+        if (listener == null)
+        {
+            throw new NullPointerException("listener");
+        }
+        LISTENERS.add(listener);
+    }
+    
+    public static void removeListener(SortListener listener)
+    {
+        LISTENERS.remove(listener);
+    }
+    
+    /**
+     * 统计对象数组中left到right位置的排序
+     */
+    static <T> void sort(Sorts sorts, T[] arr, int left, int right, Comparator<? super T> c)
+    {
+        SortMetrics metrics = new SortMetrics(sorts, arr.getClass().getComponentType(), right - left + 1);
+        CountingComparator<T> counting = new CountingComparator<>(c);
+        SortMetrics previous = begin(metrics);
+        try
+        {
+            sorts.sortRange(arr, left, right, counting);
+        }
+        finally
+        {
+            metrics.comparisons += counting.count.sum();
+            end(metrics, previous);
+        }
+    }
+    
+    static void sort(Sorts sorts, int[] arr)
+    {
+        SortMetrics metrics = new SortMetrics(sorts, int.class, arr == null ? 0 : arr.length);
+        SortMetrics previous = begin(metrics);
+        try
+        {
+            sorts.doSort(arr);
+        }
+        finally
+        {
+            end(metrics, previous);
+        }
+    }
+    
+    static void sort(Sorts sorts, long[] arr)
+    {
+        SortMetrics metrics = new SortMetrics(sorts, long.class, arr == null ? 0 : arr.length);
+        SortMetrics previous = begin(metrics);
+        try
+        {
+            sorts.doSort(arr);
+        }
+        finally
+        {
+            end(metrics, previous);
+        }
+    }
+    
+    static void sort(Sorts sorts, double[] arr)
+    {
+        SortMetrics metrics = new SortMetrics(sorts, double.class, arr == null ? 0 : arr.length);
+        SortMetrics previous = begin(metrics);
+        try
+        {
+            sorts.doSort(arr);
+        }
+        finally
+        {
+            end(metrics, previous);
+        }
+    }
+    
+    /**
+     * 记录一次基本类型的比较
+     */
+    static void compared()
+    {
+        if (ENABLED)
+        {
+            SortMetrics metrics = current();
+            if (metrics != null)
+            {
+                metrics.comparisons++;
+            }
+        }
+    }
+    
+    /**
+     * 记录一次交换
+     */
+    static void exchanged()
+    {
+        if (ENABLED)
+        {
+            SortMetrics metrics = current();
+            if (metrics != null)
+            {
+                metrics.exchanges++;
+            }
+        }
+    }
+    
+    /**
+     * 记录一次批量复制
+     *
+     * @param length 复制的元素个数
+     */
+    static void copied(int length)
+    {
+        if (ENABLED)
+        {
+            SortMetrics metrics = current();
+            if (metrics != null)
+            {
+                metrics.copies++;
+                metrics.copiedElements += length;
+            }
+        }
+    }
+    
+    /**
+     * 记录一次辅助数组的分配
+     *
+     * @param length       数组长度
+     * @param elementBytes 每个元素的字节数
+     */
+    static void allocated(int length, int elementBytes)
+    {
+        if (ENABLED)
+        {
+            SortMetrics metrics = current();
+            if (metrics != null)
+            {
+                metrics.scratchBytes += ARRAY_HEADER_BYTES + (long) length * elementBytes;
+            }
+        }
+    }
+    
+    /**
+     * 与{@link System#arraycopy(Object, int, Object, int, int)}相同，同时记录一次批量复制
+     */
+    static void arraycopy(Object src, int srcPos, Object dest, int destPos, int length)
+    {
+        System.arraycopy(src, srcPos, dest, destPos, length);
+        copied(length);
+    }
+    
+    /**
+     * 当前线程正在进行的排序，没有时返回null
+     */
+    private static SortMetrics current()
+    {
+        Active last = active;
+        if (last != null && last.thread == Thread.currentThread())
+        {
+            return last.metrics;
+        }
+        return CURRENT.get();
+    }
+    
+    /**
+     * 开始统计，排序可能嵌套（例如外部排序对每个分块调用内部排序），返回外层的统计数据
+     */
+    private static SortMetrics begin(SortMetrics metrics)
+    {
+        SortMetrics previous = CURRENT.get();
+        CURRENT.set(metrics);
+        active = new Active(Thread.currentThread(), metrics);
+        metrics.nanos = System.nanoTime();
+        return previous;
+    }
+    
+    private static void end(SortMetrics metrics, SortMetrics previous)
+    {
+        metrics.nanos = System.nanoTime() - metrics.nanos;
+        if (previous == null)
+        {
+            CURRENT.remove();
+        }
+        else
+        {
+            CURRENT.set(previous);
+        }
+        active = new Active(Thread.currentThread(), previous);
+        for (SortListener listener : LISTENERS)
+        {
+            listener.sorted(metrics);
+        }
+    }
+    
+    /**
+     * 线程和它正在进行的排序，metrics为null表示该线程没有正在进行的排序
+     */
+    private static final class Active
+    {
+        private final Thread thread;
+        
+        private final SortMetrics metrics;
+        
+        Active(Thread thread, SortMetrics metrics)
+        {
+            this.thread = thread;
+            this.metrics = metrics;
+        }
+    }
+    
+    /**
+     * 计数比较器，并行排序中会被多个线程调用
+     */
+    private static class CountingComparator<T> implements Comparator<T>
+    {
+        private final Comparator<? super T> c;
+        
+        private final LongAdder count = new LongAdder();
+        
+        CountingComparator(Comparator<? super T> c)
+        {
+            this.c = c;
+        }
+        
+        @Override
+        public int compare(T o1, T o2)
+        {
+            count.increment();
+            return c.compare(o1, o2);
+        }
+    }
+}
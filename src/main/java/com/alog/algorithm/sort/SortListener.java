@@ -0,0 +1,17 @@
+package com.alog.algorithm.sort;
+
+/**
+ * 排序统计数据的监听器，通过{@link SortInstrumentation#addListener(SortListener)}注册
+ *
+ * @author lushenchen 2024/1/29 20:20
+ * @since 1.0.0
+ */
+public interface SortListener
+{
+    /**
+     * 一次排序结束后调用，在执行排序的线程中回调
+     *
+     * @param metrics 统计数据
+     */
+    void sorted(SortMetrics metrics);
+}
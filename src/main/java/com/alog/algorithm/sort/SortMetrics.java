@@ -0,0 +1,103 @@
+package com.alog.algorithm.sort;
+
+/**
+ * 一次排序的统计数据，由{@link SortInstrumentation}收集后交给{@link SortListener}<br/>
+ * 1.comparisons 比较次数，对象数组统计比较器的调用，基本类型数组统计less的调用。<br/>
+ * 2.exchanges 交换次数。<br/>
+ * 3.copies、copiedElements 批量复制的次数和复制的元素个数。<br/>
+ * 4.scratchBytes 辅助数组占用的字节数估算，引用按压缩指针的4字节计算，包含16字节的数组头。<br/>
+ * 5.nanos 排序耗时。<br/>
+ * 并行排序中工作线程的交换和复制不计入，比较次数完整统计。
+ *
+ * @author lushenchen 2024/1/29 20:10
+ * @since 1.0.0
+ */
+public class SortMetrics
+{
+    /**
+     * 排序算法
+     */
+    private final Sorts algorithm;
+    
+    /**
+     * 元素类型
+     */
+    private final Class<?> elementType;
+    
+    /**
+     * 待排序的元素个数
+     */
+    private final int length;
+    
+    long comparisons;
+    
+    long exchanges;
+    
+    long copies;
+    
+    long copiedElements;
+    
+    long scratchBytes;
+    
+    long nanos;
+    
+    SortMetrics(Sorts algorithm, Class<?> elementType, int length)
+    {
+        this.algorithm = algorithm;
+        this.elementType = elementType;
+        this.length = length;
+    }
+    
+    public Sorts getAlgorithm()
+    {
+        return algorithm;
+    }
+    
+    public Class<?> getElementType()
+    {
+        return elementType;
+    }
+    
+    public int getLength()
+    {
+        return length;
+    }
+    
+    public long getComparisons()
+    {
+        return comparisons;
+    }
+    
+    public long getExchanges()
+    {
+        return exchanges;
+    }
+    
+    public long getCopies()
+    {
+        return copies;
+    }
+    
+    public long getCopiedElements()
+    {
+        return copiedElements;
+    }
+    
+    public long getScratchBytes()
+    {
+        return scratchBytes;
+    }
+    
+    public long getNanos()
+    {
+        return nanos;
+    }
+    
+    @Override
+    public String toString()
+    {
+        return algorithm + "(" + elementType.getSimpleName() + "[" + length + "]): comparisons=" + comparisons
+                + ", exchanges=" + exchanges + ", copies=" + copies + ", copiedElements=" + copiedElements
+                + ", scratchBytes=" + scratchBytes + ", nanos=" + nanos;
+    }
+}
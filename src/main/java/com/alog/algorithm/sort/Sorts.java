@@ -1,5 +1,12 @@
 package com.alog.algorithm.sort;
 
+import com.alog.adt.heap.DaryHeap;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
 /**
  * 各种排序算法的实现<br/>
  * 1.Bubble 冒泡排序<br/>
@@ -8,7 +15,15 @@ package com.alog.algorithm.sort;
  * 4.Shell 希尔排序 <br/>
  * 5.Merge 归并排序<br/>
  * 6.Quick 快速排序<br/>
- * 7.Heap 堆排序
+ * 7.Heap 堆排序<br/>
+ * 8.Radix 基数排序<br/>
+ * 9.ParallelMerge 并行归并排序<br/>
+ * 10.Tim 自适应归并排序<br/>
+ * 11.Intro 内省排序<br/>
+ * 12.Auto 自适应排序<br/>
+ * 所有算法都支持使用比较器对数组的指定区间原地排序，Comparable数组按自然顺序排序；
+ * Insertion、Shell、Merge、Quick、Heap、Auto提供int[]、long[]、double[]的重载，直接比较基本类型，不做装箱；
+ * Radix只支持int[]和long[]
  *
  * @author lushenchen 2023/11/29 19:53
  * @since 1.0.0
@@ -23,23 +38,18 @@ public enum Sorts
     Bubble
             {
                 @Override
-                public void sort(Comparable[] arr)
+                <T> void sortRange(T[] arr, int left, int right, Comparator<? super T> c)
                 {
-                    if (!Bubble.validate(arr))
-                    {
-                        return;
-                    }
-                    int length = arr.length;
                     // 数据中参与冒泡的元素个数
-                    for (int i = length - 1; i > 0; i--)
+                    for (int i = right; i > left; i--)
                     {
-                        // 从0开始，到小于当前元素个数的位置，两两比较两个元素的大小
-                        for (int j = 0; j < i; j++)
+                        // 从left开始，到小于当前元素个数的位置，两两比较两个元素的大小
+                        for (int j = left; j < i; j++)
                         {
                             // 如果前面比后面大，则交换两个位置的数据
-                            if (Bubble.greater(arr[j], arr[j + 1]))
+                            if (c.compare(arr[j], arr[j + 1]) > 0)
                             {
-                                Bubble.exchange(arr, j, j + 1);
+                                exchange(arr, j, j + 1);
                             }
                         }
                     }
@@ -54,28 +64,23 @@ public enum Sorts
     Selection
             {
                 @Override
-                public void sort(Comparable[] arr)
+                <T> void sortRange(T[] arr, int left, int right, Comparator<? super T> c)
                 {
-                    if (!Selection.validate(arr))
-                    {
-                        return;
-                    }
-                    int length = arr.length;
-                    // 需要 （数组长度 - 1）次排序
-                    for (int i = 0; i < length - 1; i++)
+                    // 需要 （元素个数 - 1）次排序
+                    for (int i = left; i < right; i++)
                     {
                         // 假定当前位置的数组为最小索引
                         int minIndex = i;
-                        for (int j = i + 1; j < length; j++)
+                        for (int j = i + 1; j <= right; j++)
                         {
                             // 从当前位置开始，比较两个数的大小，记录较小的位置索引
-                            if (Selection.greater(arr[minIndex], arr[j]))
+                            if (c.compare(arr[minIndex], arr[j]) > 0)
                             {
                                 minIndex = j;
                             }
                         }
                         // 交换两个位置的数组
-                        Selection.exchange(arr, i, minIndex);
+                        exchange(arr, i, minIndex);
                     }
                 }
             },
@@ -85,22 +90,17 @@ public enum Sorts
     Insertion
             {
                 @Override
-                public void sort(Comparable[] arr)
+                <T> void sortRange(T[] arr, int left, int right, Comparator<? super T> c)
                 {
-                    if (!Insertion.validate(arr))
-                    {
-                        return;
-                    }
-                    int length = arr.length;
                     // 将数组分为已排序和未排序两个部分，并将数据插入到前面已经排序的数组中去
-                    for (int i = 1; i < length; i++)
+                    for (int i = left + 1; i <= right; i++)
                     {
                         // 从元素j开始向前插入当前元素
-                        for (int j = i; j > 0; j--)
+                        for (int j = i; j > left; j--)
                         {
-                            if (Insertion.less(arr[j], arr[j - 1]))
+                            if (c.compare(arr[j], arr[j - 1]) < 0)
                             {
-                                Insertion.exchange(arr, j, j - 1);
+                                exchange(arr, j, j - 1);
                             }
                             else
                             {
@@ -109,6 +109,72 @@ public enum Sorts
                         }
                     }
                 }
+                
+                @Override
+                void doSort(int[] arr)
+                {
+                    if (!validate(arr))
+                    {
+                        return;
+                    }
+                    int length = arr.length;
+                    for (int i = 1; i < length; i++)
+                    {
+                        // 记录待插入的元素，较大的元素依次后移，避免反复交换
+                        int current = arr[i];
+                        int j = i;
+                        while (j > 0 && less(current, arr[j - 1]))
+                        {
+                            arr[j] = arr[j - 1];
+                            j--;
+                        }
+                        arr[j] = current;
+                    }
+                }
+                
+                @Override
+                void doSort(long[] arr)
+                {
+                    if (!validate(arr))
+                    {
+                        return;
+                    }
+                    int length = arr.length;
+                    for (int i = 1; i < length; i++)
+                    {
+                        // 记录待插入的元素，较大的元素依次后移，避免反复交换
+                        long current = arr[i];
+                        int j = i;
+                        while (j > 0 && less(current, arr[j - 1]))
+                        {
+                            arr[j] = arr[j - 1];
+                            j--;
+                        }
+                        arr[j] = current;
+                    }
+                }
+                
+                @Override
+                void doSort(double[] arr)
+                {
+                    if (!validate(arr))
+                    {
+                        return;
+                    }
+                    int length = arr.length;
+                    for (int i = 1; i < length; i++)
+                    {
+                        // 记录待插入的元素，较大的元素依次后移，避免反复交换
+                        double current = arr[i];
+                        int j = i;
+                        while (j > 0 && less(current, arr[j - 1]))
+                        {
+                            arr[j] = arr[j - 1];
+                            j--;
+                        }
+                        arr[j] = current;
+                    }
+                }
             },
     /**
      * 希尔排序(缩小增量排序)
@@ -116,13 +182,9 @@ public enum Sorts
     Shell
             {
                 @Override
-                public void sort(Comparable[] arr)
+                <T> void sortRange(T[] arr, int left, int right, Comparator<? super T> c)
                 {
-                    if (!Shell.validate(arr))
-                    {
-                        return;
-                    }
-                    int length = arr.length;
+                    int length = right - left + 1;
                     // 增量h
                     int h = 1;
                     // 选定一个增量，使得当前 h > length / 2 的最小值
@@ -134,14 +196,14 @@ public enum Sorts
                     while (h >= 1)
                     {
                         // 从h增量出分割数组，并将每组中的元素从h开始进行插入排序
-                        for (int i = h; i < length; i++)
+                        for (int i = left + h; i <= right; i++)
                         {
                             // 以当前位置为起始位置，进行插入排序
-                            for (int j = i; j >= h; j -= h)
+                            for (int j = i; j >= left + h; j -= h)
                             {
-                                if (Shell.less(arr[j], arr[j - h]))
+                                if (c.compare(arr[j], arr[j - h]) < 0)
                                 {
-                                    Shell.exchange(arr, j, j - h);
+                                    exchange(arr, j, j - h);
                                 }
                                 else
                                 {
@@ -153,46 +215,127 @@ public enum Sorts
                         h = h / 2;
                     }
                 }
-            },
-    /**
-     * 归并排序
-     */
-    Merge
-            {
+                
                 @Override
-                public void sort(Comparable[] arr)
+                void doSort(int[] arr)
                 {
-                    if (!Merge.validate(arr))
+                    if (!validate(arr))
                     {
                         return;
                     }
-                    int left = 0, right = arr.length - 1;
-                    sort(arr, left, right);
+                    int length = arr.length;
+                    int h = 1;
+                    while (h < length / 2)
+                    {
+                        h = 2 * h + 1;
+                    }
+                    while (h >= 1)
+                    {
+                        for (int i = h; i < length; i++)
+                        {
+                            // 以h为步长进行插入排序，较大的元素依次后移h位
+                            int current = arr[i];
+                            int j = i;
+                            while (j >= h && less(current, arr[j - h]))
+                            {
+                                arr[j] = arr[j - h];
+                                j -= h;
+                            }
+                            arr[j] = current;
+                        }
+                        h = h / 2;
+                    }
                 }
                 
-                /**
-                 * 对一个数组中指定位置（从索引lo到hi）的元素进行排序
-                 * @param arr 待排序数组
-                 * @param left 左索引
-                 * @param right 右索引
-                 */
-                private void sort(Comparable[] arr, int left, int right)
+                @Override
+                void doSort(long[] arr)
+                {
+                    if (!validate(arr))
+                    {
+                        return;
+                    }
+                    int length = arr.length;
+                    int h = 1;
+                    while (h < length / 2)
+                    {
+                        h = 2 * h + 1;
+                    }
+                    while (h >= 1)
+                    {
+                        for (int i = h; i < length; i++)
+                        {
+                            // 以h为步长进行插入排序，较大的元素依次后移h位
+                            long current = arr[i];
+                            int j = i;
+                            while (j >= h && less(current, arr[j - h]))
+                            {
+                                arr[j] = arr[j - h];
+                                j -= h;
+                            }
+                            arr[j] = current;
+                        }
+                        h = h / 2;
+                    }
+                }
+                
+                @Override
+                void doSort(double[] arr)
+                {
+                    if (!validate(arr))
+                    {
+                        return;
+                    }
+                    int length = arr.length;
+                    int h = 1;
+                    while (h < length / 2)
+                    {
+                        h = 2 * h + 1;
+                    }
+                    while (h >= 1)
+                    {
+                        for (int i = h; i < length; i++)
+                        {
+                            // 以h为步长进行插入排序，较大的元素依次后移h位
+                            double current = arr[i];
+                            int j = i;
+                            while (j >= h && less(current, arr[j - h]))
+                            {
+                                arr[j] = arr[j - h];
+                                j -= h;
+                            }
+                            arr[j] = current;
+                        }
+                        h = h / 2;
+                    }
+                }
+            },
+    /**
+     * 归并排序<br/>
+     * 短区间不再递归，基本类型用排序网络，对象用插入排序，见{@link SmallSorts}；
+     * JDK17以上可用向量API时int、long的归并使用双调归并网络，见{@link VectorizedSorts}
+     */
+    Merge
+            {
+                @Override
+                <T> void sortRange(T[] arr, int left, int right, Comparator<? super T> c)
                 {
-                    if (left >= right)
+                    // 短区间直接插入排序
+                    if (right - left < SmallSorts.INSERTION_THRESHOLD)
                     {
+                        SmallSorts.insertionSort(arr, left, right, c);
                         return;
                     }
                     // 找出数组的中间位置，防止整数溢出
                     int mid = left + (right - left) / 2;
                     // 分左子组
                     // System.out.println("Sor(" + Arrays.toString(arr) + ", " + left + ", " + right + ")");
-                    sort(arr, left, mid);
+                    sortRange(arr, left, mid, c);
                     // System.out.println("Sor(" + Arrays.toString(arr) + ", " + left + ", " + mid + ")");
                     // 分右子组
-                    sort(arr, mid + 1, right);
+                    sortRange(arr, mid + 1, right, c);
                     // 合并并排序
                     // System.out.println("Meger(" + Arrays.toString(arr) + ", " + left + ", " + mid + ", " + right + ")");
-                    merge(arr, left, mid, right);
+                    merge(arr, left, mid, right, c);
                     
                 }
                 
@@ -202,25 +345,29 @@ public enum Sorts
                  * @param left 左索引
                  * @param mid 中间索引
                  * @param right 右索引
+                 * @param c 比较器
                  */
-                private void merge(Comparable[] arr, int left, int mid, int right)
+                @SuppressWarnings("unchecked")
+                private <T> void merge(T[] arr, int left, int mid, int right, Comparator<? super T> c)
                 {
                     // 临时数组指针
                     int index = 0;
                     // p1 左子组指针  p2 右子组的指针
                     int p1 = left, p2 = mid + 1;
                     // 临时数组
-                    Comparable[] temp = new Comparable[right - left + 1];
+                    Object[] temp = new Object[right - left + 1];
+                    SortInstrumentation.allocated(temp.length, SortInstrumentation.REFERENCE_BYTES);
                     // 使用双指针遍历排序
                     while (p1 <= mid && p2 <= right)
                     {
-                        if (Merge.less(arr[p1], arr[p2]))
+                        // 相等时优先取左子组的元素，保证稳定性
+                        if (c.compare(arr[p2], arr[p1]) < 0)
                         {
-                            temp[index++] = arr[p1++];
+                            temp[index++] = arr[p2++];
                         }
                         else
                         {
-                            temp[index++] = arr[p2++];
+                            temp[index++] = arr[p1++];
                         }
                     }
                     // 排查数组中的元素是否全部排序完毕
@@ -235,187 +382,1085 @@ public enum Sorts
                     // 将临时有序的数组中的元素替换原数组
                     for (int i = 0; i < temp.length; i++)
                     {
-                        arr[left++] = temp[i];
+                        arr[left++] = (T) temp[i];
                     }
                 }
-            },
-    /**
-     * 快速排序
-     */
-    Quick
-            {
+                
                 @Override
-                public void sort(Comparable[] arr)
+                void doSort(int[] arr)
                 {
-                    if (!Quick.validate(arr))
+                    if (!validate(arr))
                     {
                         return;
                     }
-                    int length = arr.length;
-                    sort(arr, 0, length - 1);
+                    // 辅助数组在一次排序中只分配一次，只需容纳左子组
+                    int[] aux = new int[(arr.length + 1) / 2];
+                    SortInstrumentation.allocated(aux.length, Integer.BYTES);
+                    sort(arr, aux, 0, arr.length - 1);
                 }
                 
                 /**
                  * 对数组中left到right的位置进行排序
                  * @param arr 待排序数组
-                 * @param left 左边界
-                 * @param right 右边界
+                 * @param aux 辅助数组
+                 * @param left 左索引
+                 * @param right 右索引
                  */
-                private void sort(Comparable[] arr, int left, int right)
+                private void sort(int[] arr, int[] aux, int left, int right)
                 {
-                    // 边界条件检查
-                    if (left >= right)
+                    // 短区间直接用排序网络
+                    if (right - left < SmallSorts.NETWORK_THRESHOLD)
                     {
+                        SmallSorts.sort(arr, left, right);
                         return;
                     }
-                    // 获取分组界限位置，分割数组，并将左右子组进行分别排序
-                    int partition = partition(arr, left, right);
-                    // 左子组排序
-                    sort(arr, left, partition - 1);
-                    // 右子组排序
-                    sort(arr, partition + 1, right);
+                    int mid = left + (right - left) / 2;
+                    sort(arr, aux, left, mid);
+                    sort(arr, aux, mid + 1, right);
+                    // 左子组的最大值不大于右子组的最小值，说明已经有序，无需归并
+                    if (!less(arr[mid + 1], arr[mid]))
+                    {
+                        return;
+                    }
+                    merge(arr, aux, left, mid, right);
                 }
                 
                 /**
-                 * 在数组中选定一个元素，并将大于该元素的值放在其右侧，
-                 * 小于该元素的值放在其右边，并返回该元素调整之后的位置
-                 * @param arr 待分割的数组
-                 * @param left 左边界
-                 * @param right 右边界
-                 * @return 返回分割边界的索引值
+                 * 归并两个相邻的有序子组，可用向量API时使用向量化归并，否则使用标量归并{@link Sorts#scalarMerge(int[], int[], int, int, int)}
+                 * @param arr 待归并的数组
+                 * @param aux 辅助数组
+                 * @param left 左索引
+                 * @param mid 中间索引
+                 * @param right 右索引
                  */
-                private int partition(Comparable[] arr, int left, int right)
+                private void merge(int[] arr, int[] aux, int left, int mid, int right)
                 {
-                    // 取left位置的数组元素作为分割的基准元素值
-                    Comparable key = arr[left];
-                    // 定义两个指针分别指向left位置和(right + 1)位置
-                    int pl = left;
-                    int pr = right + 1;
-                    while (true)
+                    if (VectorizedSorts.ENABLED)
                     {
-                        // 向左侧移动右指针，直到寻找到比 key 小的元素，然后停止
-                        while (true)
-                        {
-                            // 边界条件
-                            if (pr == left || Quick.greater(key, arr[--pr]))
-                            {
-                                break;
-                            }
-                        }
-                        // 向右移动左指针，直到寻找到比key大的元素，然后停止
-                        while (true)
-                        {
-                            // 边界条件
-                            if (pl == right || Quick.less(key, arr[++pl]))
-                            {
-                                break;
-                            }
-                        }
-                        
-                        // 检测边界条件
-                        if (pl >= pr)
-                        {
-                            break;
-                        }
-                        else
-                        {
-                            // 交换左右两个位置元素的值
-                            Quick.exchange(arr, pl, pr);
-                        }
+                        VectorizedSorts.merge(arr, aux, left, mid, right);
+                    }
+                    else
+                    {
+                        Sorts.scalarMerge(arr, aux, left, mid, right);
                     }
-                    // 交换基准值和right指针位置的元素，因为right指向的元素肯定是比基准值小的元素
-                    Quick.exchange(arr, left, pr);
-                    return pr;
                 }
-            },
-    Heap
-            {
-                public void sort(Comparable[] arr)
+                
+                @Override
+                void doSort(long[] arr)
+                {
+                    if (!validate(arr))
+                    {
+                        return;
+                    }
+                    // 辅助数组在一次排序中只分配一次，只需容纳左子组
+                    long[] aux = new long[(arr.length + 1) / 2];
+                    SortInstrumentation.allocated(aux.length, Long.BYTES);
+                    sort(arr, aux, 0, arr.length - 1);
+                }
+                
+                /**
+                 * 对数组中left到right的位置进行排序
+                 * @param arr 待排序数组
+                 * @param aux 辅助数组
+                 * @param left 左索引
+                 * @param right 右索引
+                 */
+                private void sort(long[] arr, long[] aux, int left, int right)
                 {
-                    if (!Heap.validate(arr))
+                    // 短区间直接用排序网络
+                    if (right - left < SmallSorts.NETWORK_THRESHOLD)
                     {
+                        SmallSorts.sort(arr, left, right);
                         return;
                     }
-                    // 辅助数组，构建堆
-                    Comparable[] asst = new Comparable[arr.length + 1];
-                    System.arraycopy(arr, 0, asst, 1, arr.length);
-                    // 构建大顶堆
-                    buildMaxHeap(asst);
-                    // 通过不断移除堆顶元素，将剩余的元素重新调整成大顶堆
-                    for (int i = asst.length - 1; i > 0; i--)
+                    int mid = left + (right - left) / 2;
+                    sort(arr, aux, left, mid);
+                    sort(arr, aux, mid + 1, right);
+                    // 左子组的最大值不大于右子组的最小值，说明已经有序，无需归并
+                    if (!less(arr[mid + 1], arr[mid]))
                     {
-                        // 将堆顶元素与最后一个元素交换，然后将堆元素重新调整成大顶堆
-                        Heap.exchange(asst, 1, i);
-                        sink(asst, 1, i - 1);
+                        return;
                     }
-                    System.arraycopy(asst, 1, arr, 0, asst.length - 1);
-                    
+                    merge(arr, aux, left, mid, right);
+                }
+                
+                /**
+                 * 归并两个相邻的有序子组，可用向量API时使用向量化归并，否则使用标量归并{@link Sorts#scalarMerge(int[], int[], int, int, int)}
+                 * @param arr 待归并的数组
+                 * @param aux 辅助数组
+                 * @param left 左索引
+                 * @param mid 中间索引
+                 * @param right 右索引
+                 */
+                private void merge(long[] arr, long[] aux, int left, int mid, int right)
+                {
+                    if (VectorizedSorts.ENABLED)
+                    {
+                        VectorizedSorts.merge(arr, aux, left, mid, right);
+                    }
+                    else
+                    {
+                        Sorts.scalarMerge(arr, aux, left, mid, right);
+                    }
+                }
+                
+                @Override
+                void doSort(double[] arr)
+                {
+                    if (!validate(arr))
+                    {
+                        return;
+                    }
+                    // 辅助数组在一次排序中只分配一次，只需容纳左子组
+                    double[] aux = new double[(arr.length + 1) / 2];
+                    SortInstrumentation.allocated(aux.length, Double.BYTES);
+                    sort(arr, aux, 0, arr.length - 1);
                 }
                 
                 /**
-                 * 将现有数组的元素构建成一个大顶堆
-                 * @param heap 乱序的数组
-                 * @return
+                 * 对数组中left到right的位置进行排序
+                 * @param arr 待排序数组
+                 * @param aux 辅助数组
+                 * @param left 左索引
+                 * @param right 右索引
                  */
-                private void buildMaxHeap(Comparable[] heap)
+                private void sort(double[] arr, double[] aux, int left, int right)
                 {
-                    // 非叶子节点下沉，直到根节点
-                    for (int i = (heap.length) / 2; i >= 1; i--)
+                    // 短区间直接用排序网络
+                    if (right - left < SmallSorts.NETWORK_THRESHOLD)
+                    {
+                        SmallSorts.sort(arr, left, right);
+                        return;
+                    }
+                    int mid = left + (right - left) / 2;
+                    sort(arr, aux, left, mid);
+                    sort(arr, aux, mid + 1, right);
+                    // 左子组的最大值不大于右子组的最小值，说明已经有序，无需归并
+                    if (!less(arr[mid + 1], arr[mid]))
                     {
-                        sink(heap, i, heap.length - 1);
+                        return;
                     }
+                    merge(arr, aux, left, mid, right);
                 }
                 
                 /**
-                 * 通过下沉算法，对堆中位于target的元素做下沉操作，范围是0-range
-                 * @param heap
-                 * @param target
-                 * @param range
+                 * 将左子组复制到辅助数组中，再与右子组归并回原数组
+                 * @param arr 待归并的数组
+                 * @param aux 辅助数组
+                 * @param left 左索引
+                 * @param mid 中间索引
+                 * @param right 右索引
                  */
-                private void sink(Comparable[] heap, int target, int range)
+                private void merge(double[] arr, double[] aux, int left, int mid, int right)
                 {
-                    // 完全二叉树的性质，如果需要下沉，边界则是需要保证有左子树
-                    while (2 * target <= range)
+                    int length = mid - left + 1;
+                    SortInstrumentation.arraycopy(arr, left, aux, 0, length);
+                    // p1 辅助数组指针  p2 右子组指针  index 写入位置
+                    int p1 = 0, p2 = mid + 1, index = left;
+                    while (p1 < length && p2 <= right)
                     {
-                        int max;
-                        // 如果没有右子树
-                        if (2 * target + 1 > range)
+                        // 相等时优先取左子组的元素，保证稳定性
+                        if (less(arr[p2], aux[p1]))
                         {
-                            max = 2 * target;
+                            arr[index++] = arr[p2++];
                         }
                         else
                         {
-                            // 取左右子树的最大值
-                            if (Heap.greater(heap[2 * target], heap[2 * target + 1]))
-                            {
-                                max = 2 * target;
-                            }
-                            else
-                            {
-                                max = 2 * target + 1;
-                            }
-                        }
-                        // 如果当前节点大于左右子树的最大值，则退出循环
-                        if (Heap.greater(heap[target], heap[max]))
-                        {
-                            break;
+                            arr[index++] = aux[p1++];
                         }
-                        Heap.exchange(heap, target, max);
-                        target = max;
+                    }
+                    // 右子组剩余的元素已经在正确的位置上
+                    while (p1 < length)
+                    {
+                        arr[index++] = aux[p1++];
                     }
                 }
-                
-            };
-    
+            },
     /**
-     * 对指定的数组进行排序
-     *
-     * @param arr 待排序的数组
+     * 快速排序<br/>
+     * int、long的较长区间使用无分支的块分割{@link #blockPartition(int[], int, int, int[])}，减少比较结果预测失败的开销，
+     * JDK17以上可用向量API时改用向量化分割，见{@link VectorizedSorts}；
+     * 短区间不再分割，基本类型用排序网络，对象用插入排序，见{@link SmallSorts}
      */
-    public void sort(Comparable[] arr)
-    {
-        throw new UnsupportedOperationException("不支持的操作~");
-    }
+    Quick
+            {
+                @Override
+                <T> void sortRange(T[] arr, int left, int right, Comparator<? super T> c)
+                {
+                    // 短区间直接插入排序
+                    if (right - left < SmallSorts.INSERTION_THRESHOLD)
+                    {
+                        SmallSorts.insertionSort(arr, left, right, c);
+                        return;
+                    }
+                    // 获取分组界限位置，分割数组，并将左右子组进行分别排序
+                    int partition = Sorts.partition(arr, left, right, c);
+                    // 左子组排序
+                    sortRange(arr, left, partition - 1, c);
+                    // 右子组排序
+                    sortRange(arr, partition + 1, right, c);
+                }
+                
+                @Override
+                void doSort(int[] arr)
+                {
+                    if (!validate(arr))
+                    {
+                        return;
+                    }
+                    sort(arr, 0, arr.length - 1, arr.length < BLOCK_PARTITION_THRESHOLD ? null : new int[2 * PARTITION_BLOCK]);
+                }
+                
+                /**
+                 * 对数组中left到right的位置进行排序，较小的子组递归，较大的子组循环处理<br/>
+                 * 较长的区间使用无分支的块分割，JDK17以上可用向量API时改用向量化分割，较短的区间使用Hoare分割
+                 * @param arr 待排序数组
+                 * @param left 左边界
+                 * @param right 右边界
+                 * @param offsets 块分割的偏移量缓冲区，所有的分割共用
+                 */
+                private void sort(int[] arr, int left, int right, int[] offsets)
+                {
+                    while (right - left >= SmallSorts.NETWORK_THRESHOLD)
+                    {
+                        // arr[lt, gt]是与基准值相等、已经归位的元素
+                        int lt, gt;
+                        if (right - left + 1 < BLOCK_PARTITION_THRESHOLD)
+                        {
+                            lt = gt = Sorts.partition(arr, left, right);
+                        }
+                        else if (VectorizedSorts.ENABLED)
+                        {
+                            long bounds = VectorizedSorts.partition(arr, left, right);
+                            lt = (int) (bounds >>> 32);
+                            gt = (int) bounds;
+                        }
+                        else
+                        {
+                            lt = gt = Sorts.blockPartition(arr, left, right, offsets);
+                        }
+                        if (lt - left < right - gt)
+                        {
+                            sort(arr, left, lt - 1, offsets);
+                            left = gt + 1;
+                        }
+                        else
+                        {
+                            sort(arr, gt + 1, right, offsets);
+                            right = lt - 1;
+                        }
+                    }
+                    // 剩余的短区间用排序网络
+                    SmallSorts.sort(arr, left, right);
+                }
+                
+                @Override
+                void doSort(long[] arr)
+                {
+                    if (!validate(arr))
+                    {
+                        return;
+                    }
+                    sort(arr, 0, arr.length - 1, arr.length < BLOCK_PARTITION_THRESHOLD ? null : new int[2 * PARTITION_BLOCK]);
+                }
+                
+                /**
+                 * 对数组中left到right的位置进行排序，较小的子组递归，较大的子组循环处理<br/>
+                 * 较长的区间使用无分支的块分割，JDK17以上可用向量API时改用向量化分割，较短的区间使用Hoare分割
+                 * @param arr 待排序数组
+                 * @param left 左边界
+                 * @param right 右边界
+                 * @param offsets 块分割的偏移量缓冲区，所有的分割共用
+                 */
+                private void sort(long[] arr, int left, int right, int[] offsets)
+                {
+                    while (right - left >= SmallSorts.NETWORK_THRESHOLD)
+                    {
+                        // arr[lt, gt]是与基准值相等、已经归位的元素
+                        int lt, gt;
+                        if (right - left + 1 < BLOCK_PARTITION_THRESHOLD)
+                        {
+                            lt = gt = Sorts.partition(arr, left, right);
+                        }
+                        else if (VectorizedSorts.ENABLED)
+                        {
+                            long bounds = VectorizedSorts.partition(arr, left, right);
+                            lt = (int) (bounds >>> 32);
+                            gt = (int) bounds;
+                        }
+                        else
+                        {
+                            lt = gt = Sorts.blockPartition(arr, left, right, offsets);
+                        }
+                        if (lt - left < right - gt)
+                        {
+                            sort(arr, left, lt - 1, offsets);
+                            left = gt + 1;
+                        }
+                        else
+                        {
+                            sort(arr, gt + 1, right, offsets);
+                            right = lt - 1;
+                        }
+                    }
+                    // 剩余的短区间用排序网络
+                    SmallSorts.sort(arr, left, right);
+                }
+                
+                @Override
+                void doSort(double[] arr)
+                {
+                    if (!validate(arr))
+                    {
+                        return;
+                    }
+                    sort(arr, 0, arr.length - 1);
+                }
+                
+                /**
+                 * 对数组中left到right的位置进行排序，较小的子组递归，较大的子组循环处理
+                 * @param arr 待排序数组
+                 * @param left 左边界
+                 * @param right 右边界
+                 */
+                private void sort(double[] arr, int left, int right)
+                {
+                    while (right - left >= SmallSorts.NETWORK_THRESHOLD)
+                    {
+                        int partition = Sorts.partition(arr, left, right);
+                        if (partition - left < right - partition)
+                        {
+                            sort(arr, left, partition - 1);
+                            left = partition + 1;
+                        }
+                        else
+                        {
+                            sort(arr, partition + 1, right);
+                            right = partition - 1;
+                        }
+                    }
+                    // 剩余的短区间用排序网络
+                    SmallSorts.sort(arr, left, right);
+                }
+            },
+    /**
+     * 堆排序<br/>
+     * 1.以区间起点为堆顶，0-based原地建大顶堆，不需要辅助数组。<br/>
+     * 2.依次把堆顶移到末尾，原来末尾的元素按Floyd方法自底向上下沉，减少比较次数。
+     */
+    Heap
+            {
+                @Override
+                <T> void sortRange(T[] arr, int left, int right, Comparator<? super T> c)
+                {
+                    heapSort(arr, left, right, c);
+                }
+                
+                @Override
+                void doSort(int[] arr)
+                {
+                    if (!validate(arr))
+                    {
+                        return;
+                    }
+                    // 以0为根节点直接在原数组上建堆，不需要辅助数组
+                    int last = arr.length - 1;
+                    for (int i = (last - 1) / 2; i >= 0; i--)
+                    {
+                        sink(arr, i, last);
+                    }
+                    for (int i = last; i > 0; i--)
+                    {
+                        // 堆顶移到末尾，原来末尾的元素从堆顶的空位按Floyd方法下沉
+                        int current = arr[i];
+                        arr[i] = arr[0];
+                        floydSink(arr, current, i - 1);
+                    }
+                }
+                
+                /**
+                 * 对堆中位于target的元素做下沉操作，范围是0-range，节点i的子节点为2i+1和2i+2
+                 * @param heap 堆
+                 * @param target 下沉的元素位置
+                 * @param range 堆的最后一个元素位置
+                 */
+                private void sink(int[] heap, int target, int range)
+                {
+                    int current = heap[target];
+                    int child;
+                    while ((child = 2 * target + 1) <= range)
+                    {
+                        if (child < range && less(heap[child], heap[child + 1]))
+                        {
+                            child++;
+                        }
+                        if (!less(current, heap[child]))
+                        {
+                            break;
+                        }
+                        heap[target] = heap[child];
+                        target = child;
+                    }
+                    heap[target] = current;
+                }
+                
+                /**
+                 * Floyd自底向上的下沉，堆顶是空位，范围是0-range
+                 * @param heap 堆
+                 * @param value 放入堆中的元素
+                 * @param range 堆的最后一个元素位置
+                 */
+                private void floydSink(int[] heap, int value, int range)
+                {
+                    int hole = 0;
+                    int child;
+                    while ((child = 2 * hole + 1) <= range)
+                    {
+                        if (child < range && less(heap[child], heap[child + 1]))
+                        {
+                            child++;
+                        }
+                        heap[hole] = heap[child];
+                        hole = child;
+                    }
+                    while (hole > 0)
+                    {
+                        int parent = (hole - 1) / 2;
+                        if (!less(heap[parent], value))
+                        {
+                            break;
+                        }
+                        heap[hole] = heap[parent];
+                        hole = parent;
+                    }
+                    heap[hole] = value;
+                }
+                
+                @Override
+                void doSort(long[] arr)
+                {
+                    if (!validate(arr))
+                    {
+                        return;
+                    }
+                    // 以0为根节点直接在原数组上建堆，不需要辅助数组
+                    int last = arr.length - 1;
+                    for (int i = (last - 1) / 2; i >= 0; i--)
+                    {
+                        sink(arr, i, last);
+                    }
+                    for (int i = last; i > 0; i--)
+                    {
+                        // 堆顶移到末尾，原来末尾的元素从堆顶的空位按Floyd方法下沉
+                        long current = arr[i];
+                        arr[i] = arr[0];
+                        floydSink(arr, current, i - 1);
+                    }
+                }
+                
+                /**
+                 * 对堆中位于target的元素做下沉操作，范围是0-range，节点i的子节点为2i+1和2i+2
+                 * @param heap 堆
+                 * @param target 下沉的元素位置
+                 * @param range 堆的最后一个元素位置
+                 */
+                private void sink(long[] heap, int target, int range)
+                {
+                    long current = heap[target];
+                    int child;
+                    while ((child = 2 * target + 1) <= range)
+                    {
+                        if (child < range && less(heap[child], heap[child + 1]))
+                        {
+                            child++;
+                        }
+                        if (!less(current, heap[child]))
+                        {
+                            break;
+                        }
+                        heap[target] = heap[child];
+                        target = child;
+                    }
+                    heap[target] = current;
+                }
+                
+                /**
+                 * Floyd自底向上的下沉，堆顶是空位，范围是0-range
+                 * @param heap 堆
+                 * @param value 放入堆中的元素
+                 * @param range 堆的最后一个元素位置
+                 */
+                private void floydSink(long[] heap, long value, int range)
+                {
+                    int hole = 0;
+                    int child;
+                    while ((child = 2 * hole + 1) <= range)
+                    {
+                        if (child < range && less(heap[child], heap[child + 1]))
+                        {
+                            child++;
+                        }
+                        heap[hole] = heap[child];
+                        hole = child;
+                    }
+                    while (hole > 0)
+                    {
+                        int parent = (hole - 1) / 2;
+                        if (!less(heap[parent], value))
+                        {
+                            break;
+                        }
+                        heap[hole] = heap[parent];
+                        hole = parent;
+                    }
+                    heap[hole] = value;
+                }
+                
+                @Override
+                void doSort(double[] arr)
+                {
+                    if (!validate(arr))
+                    {
+                        return;
+                    }
+                    // 以0为根节点直接在原数组上建堆，不需要辅助数组
+                    int last = arr.length - 1;
+                    for (int i = (last - 1) / 2; i >= 0; i--)
+                    {
+                        sink(arr, i, last);
+                    }
+                    for (int i = last; i > 0; i--)
+                    {
+                        // 堆顶移到末尾，原来末尾的元素从堆顶的空位按Floyd方法下沉
+                        double current = arr[i];
+                        arr[i] = arr[0];
+                        floydSink(arr, current, i - 1);
+                    }
+                }
+                
+                /**
+                 * 对堆中位于target的元素做下沉操作，范围是0-range，节点i的子节点为2i+1和2i+2
+                 * @param heap 堆
+                 * @param target 下沉的元素位置
+                 * @param range 堆的最后一个元素位置
+                 */
+                private void sink(double[] heap, int target, int range)
+                {
+                    double current = heap[target];
+                    int child;
+                    while ((child = 2 * target + 1) <= range)
+                    {
+                        if (child < range && less(heap[child], heap[child + 1]))
+                        {
+                            child++;
+                        }
+                        if (!less(current, heap[child]))
+                        {
+                            break;
+                        }
+                        heap[target] = heap[child];
+                        target = child;
+                    }
+                    heap[target] = current;
+                }
+                
+                /**
+                 * Floyd自底向上的下沉，堆顶是空位，范围是0-range
+                 * @param heap 堆
+                 * @param value 放入堆中的元素
+                 * @param range 堆的最后一个元素位置
+                 */
+                private void floydSink(double[] heap, double value, int range)
+                {
+                    int hole = 0;
+                    int child;
+                    while ((child = 2 * hole + 1) <= range)
+                    {
+                        if (child < range && less(heap[child], heap[child + 1]))
+                        {
+                            child++;
+                        }
+                        heap[hole] = heap[child];
+                        hole = child;
+                    }
+                    while (hole > 0)
+                    {
+                        int parent = (hole - 1) / 2;
+                        if (!less(heap[parent], value))
+                        {
+                            break;
+                        }
+                        heap[hole] = heap[parent];
+                        hole = parent;
+                    }
+                    heap[hole] = value;
+                }
+            },
+    /**
+     * 基数排序，只支持int[]和long[]，元素较多时LSD，较少时MSD，
+     * 需要复用辅助数组时直接使用{@link RadixSort}
+     */
+    Radix
+            {
+                @Override
+                void doSort(int[] arr)
+                {
+                    if (!validate(arr))
+                    {
+                        return;
+                    }
+                    new RadixSort().sort(arr);
+                }
+                
+                @Override
+                void doSort(long[] arr)
+                {
+                    if (!validate(arr))
+                    {
+                        return;
+                    }
+                    new RadixSort().sort(arr);
+                }
+            },
+    /**
+     * 并行归并排序，使用公共Fork/Join线程池和默认阈值，
+     * 需要指定并行度和阈值时直接使用{@link ParallelMergeSort}
+     */
+    ParallelMerge
+            {
+                @Override
+                <T> void sortRange(T[] arr, int left, int right, Comparator<? super T> c)
+                {
+                    new ParallelMergeSort().sort(arr, left, right + 1, c);
+                }
+            },
+    /**
+     * 自适应归并排序(TimSort)，利用输入中已有的升序和降序子组，只分配一个不超过n/2的辅助数组，
+     * 已经有序的数组只需O(n)
+     */
+    Tim
+            {
+                @Override
+                <T> void sortRange(T[] arr, int left, int right, Comparator<? super T> c)
+                {
+                    TimSort.sort(arr, left, right, c);
+                }
+            },
+    /**
+     * 内省排序<br/>
+     * 1.元素较多时取ninther（三组三数取中的中位数），否则三数取中作为基准值。<br/>
+     * 2.三向切分(Bentley-McIlroy)，与基准值相等的元素一次归位，重复元素较多时不会退化。<br/>
+     * 3.只递归较小的子组，较大的子组循环处理，递归深度不超过log n。<br/>
+     * 4.分割层数超过2·log n时，剩余区间改用堆排序，保证最坏情况O(n log n)。
+     */
+    Intro
+            {
+                /**
+                 * 使用ninther选取基准值的最小区间长度
+                 */
+                private static final int NINTHER_THRESHOLD = 40;
+                
+                @Override
+                <T> void sortRange(T[] arr, int left, int right, Comparator<? super T> c)
+                {
+                    int length = right - left + 1;
+                    int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(length));
+                    sort(arr, left, right, depthLimit, c);
+                }
+                
+                /**
+                 * 对数组中left到right的位置进行排序
+                 * @param arr 待排序数组
+                 * @param left 左边界
+                 * @param right 右边界
+                 * @param depth 剩余的分割层数
+                 * @param c 比较器
+                 */
+                private <T> void sort(T[] arr, int left, int right, int depth, Comparator<? super T> c)
+                {
+                    while (left < right)
+                    {
+                        // 分割层数用尽，说明基准值选取不理想，改用堆排序
+                        if (depth-- == 0)
+                        {
+                            heapSort(arr, left, right, c);
+                            return;
+                        }
+                        exchange(arr, left, pivot(arr, left, right, c));
+                        // 三向切分后 [left, lt] 小于基准值，(lt, gt) 等于基准值，[gt, right] 大于基准值
+                        T key = arr[left];
+                        int pl = left, pr = right + 1;
+                        // [left, p] 和 [q, right] 暂存与基准值相等的元素
+                        int p = left, q = right + 1;
+                        while (true)
+                        {
+                            while (c.compare(arr[++pl], key) < 0)
+                            {
+                                if (pl == right)
+                                {
+                                    break;
+                                }
+                            }
+                            while (c.compare(key, arr[--pr]) < 0)
+                            {
+                                if (pr == left)
+                                {
+                                    break;
+                                }
+                            }
+                            if (pl == pr && c.compare(arr[pl], key) == 0)
+                            {
+                                exchange(arr, ++p, pl);
+                            }
+                            if (pl >= pr)
+                            {
+                                break;
+                            }
+                            exchange(arr, pl, pr);
+                            if (c.compare(arr[pl], key) == 0)
+                            {
+                                exchange(arr, ++p, pl);
+                            }
+                            if (c.compare(arr[pr], key) == 0)
+                            {
+                                exchange(arr, --q, pr);
+                            }
+                        }
+                        // 将两端暂存的相等元素交换到中间
+                        int lt = pr, gt = pr + 1;
+                        for (int k = left; k <= p; k++)
+                        {
+                            exchange(arr, k, lt--);
+                        }
+                        for (int k = right; k >= q; k--)
+                        {
+                            exchange(arr, k, gt++);
+                        }
+                        // 较小的子组递归，较大的子组继续循环
+                        if (lt - left < right - gt)
+                        {
+                            sort(arr, left, lt, depth, c);
+                            left = gt;
+                        }
+                        else
+                        {
+                            sort(arr, gt, right, depth, c);
+                            right = lt;
+                        }
+                    }
+                }
+                
+                /**
+                 * 选取基准值的位置
+                 * @param arr 数组
+                 * @param left 左边界
+                 * @param right 右边界
+                 * @param c 比较器
+                 * @return 基准值的索引
+                 */
+                private <T> int pivot(T[] arr, int left, int right, Comparator<? super T> c)
+                {
+                    int length = right - left + 1;
+                    int mid = left + (length >>> 1);
+                    if (length < NINTHER_THRESHOLD)
+                    {
+                        return median(arr, left, mid, right, c);
+                    }
+                    int step = length >>> 3;
+                    int m1 = median(arr, left, left + step, left + 2 * step, c);
+                    int m2 = median(arr, mid - step, mid, mid + step, c);
+                    int m3 = median(arr, right - 2 * step, right - step, right, c);
+                    return median(arr, m1, m2, m3, c);
+                }
+                
+            },
+    /**
+     * 自适应排序，对输入采样后选择合适的算法，选择的逻辑见{@link SortDecision}，
+     * 需要记录选择时使用{@link SortDecision#decide(Object[], int, int, Comparator)}
+     */
+    Auto
+            {
+                @Override
+                <T> void sortRange(T[] arr, int left, int right, Comparator<? super T> c)
+                {
+                    SortDecision.decideRange(arr, left, right, c).getAlgorithm().sortRange(arr, left, right, c);
+                }
+                
+                @Override
+                void doSort(int[] arr)
+                {
+                    if (!validate(arr))
+                    {
+                        return;
+                    }
+                    SortDecision.decide(arr).getAlgorithm().doSort(arr);
+                }
+                
+                @Override
+                void doSort(long[] arr)
+                {
+                    if (!validate(arr))
+                    {
+                        return;
+                    }
+                    SortDecision.decide(arr).getAlgorithm().doSort(arr);
+                }
+                
+                @Override
+                void doSort(double[] arr)
+                {
+                    if (!validate(arr))
+                    {
+                        return;
+                    }
+                    SortDecision.decide(arr).getAlgorithm().doSort(arr);
+                }
+            };
+    
+    /**
+     * 自然顺序比较器，Comparable数组的排序统一走比较器路径
+     */
+    static final Comparator<Object> NATURAL_ORDER = new Comparator<Object>()
+    {
+        @Override
+        @SuppressWarnings("unchecked")
+        public int compare(Object o1, Object o2)
+        {
+            return ((Comparable<Object>) o1).compareTo(o2);
+        }
+    };
+    
+    /**
+     * 块分割中每一块的元素个数
+     */
+    static final int PARTITION_BLOCK = 128;
+    
+    /**
+     * int、long区间长度不小于该值时快速排序使用块分割
+     */
+    static final int BLOCK_PARTITION_THRESHOLD = 1024;
+    
+    /**
+     * 对指定的数组进行排序
+     *
+     * @param arr 待排序的数组
+     */
+    public void sort(Comparable[] arr)
+    {
+        if (!validate(arr))
+        {
+            return;
+        }
+        if (SortInstrumentation.ENABLED)
+        {
+            SortInstrumentation.sort(this, arr, 0, arr.length - 1, NATURAL_ORDER);
+            return;
+        }
+        sortRange(arr, 0, arr.length - 1, NATURAL_ORDER);
+    }
+    
+    /**
+     * 使用比较器对数组中from(包含)到to(不包含)的位置进行原地排序，不需要将区间复制出来
+     *
+     * @param arr  待排序的数组
+     * @param from 起始位置（包含）
+     * @param to   结束位置（不包含）
+     * @param c    比较器，为null时使用自然顺序
+     * @param <T>  元素类型
+     */
+    @SuppressWarnings("unchecked")
+    public <T> void sort(T[] arr, int from, int to, Comparator<? super T> c)
+    {
+        rangeCheck(arr.length, from, to);
+        if (to - from <= 1)
+        {
+            return;
+        }
+        c = c == null ? (Comparator<? super T>) NATURAL_ORDER : c;
+        if (SortInstrumentation.ENABLED)
+        {
+            SortInstrumentation.sort(this, arr, from, to - 1, c);
+            return;
+        }
+        sortRange(arr, from, to - 1, c);
+    }
+    
+    /**
+     * 按long类型的键对整个数组排序，见{@link #sortByLongKey(Object[], int, int, ToLongFunction)}
+     */
+    public <T> void sortByLongKey(T[] arr, ToLongFunction<? super T> key)
+    {
+        sortByLongKey(arr, 0, arr.length, key);
+    }
+    
+    /**
+     * 按long类型的键对数组中from(包含)到to(不包含)的位置排序<br/>
+     * 每个元素的键只计算一次，保存在与区间等长的long数组中，用{@link IndirectSort#argsort(long[])}对键的下标排序，
+     * 比较时直接比较long，不再调用键的提取函数，也不为每个元素分配辅助对象，适合键的计算代价比比较高的场景。
+     * 再按排列把元素写回原数组，键相等时保持原来的顺序，结果总是稳定的，与当前算法无关。
+     *
+     * @param arr  待排序的数组
+     * @param from 起始位置（包含）
+     * @param to   结束位置（不包含）
+     * @param key  键的提取函数
+     * @param <T>  元素类型
+     */
+    public <T> void sortByLongKey(T[] arr, int from, int to, ToLongFunction<? super T> key)
+    {
+        rangeCheck(arr.length, from, to);
+        if (to - from <= 1)
+        {
+            return;
+        }
+        long[] keys = new long[to - from];
+        for (int i = from; i < to; i++)
+        {
+            keys[i - from] = key.applyAsLong(arr[i]);
+        }
+        permute(arr, from, IndirectSort.argsort(keys));
+    }
+    
+    /**
+     * 按键的自然顺序对整个数组排序，见{@link #sortByKey(Object[], int, int, Function, Comparator)}
+     */
+    public <T, K extends Comparable<? super K>> void sortByKey(T[] arr, Function<? super T, ? extends K> key)
+    {
+        sortByKey(arr, 0, arr.length, key, null);
+    }
+    
+    /**
+     * 按键对数组中from(包含)到to(不包含)的位置排序，每个元素的键只计算一次，保存在与区间等长的键数组中，
+     * 用{@link IndirectSort#argsort(Object[], Comparator)}排序，做法与{@link #sortByLongKey(Object[], int, int, ToLongFunction)}相同
+     *
+     * @param arr      待排序的数组
+     * @param from     起始位置（包含）
+     * @param to       结束位置（不包含）
+     * @param key      键的提取函数
+     * @param keyOrder 键的比较器，为null时使用自然顺序
+     * @param <T>      元素类型
+     * @param <K>      键的类型
+     */
+    @SuppressWarnings("unchecked")
+    public <T, K> void sortByKey(T[] arr, int from, int to, Function<? super T, ? extends K> key,
+                                 Comparator<? super K> keyOrder)
+    {
+        rangeCheck(arr.length, from, to);
+        if (to - from <= 1)
+        {
+            return;
+        }
+        Comparator<Object> order = keyOrder == null ? NATURAL_ORDER : (Comparator<Object>) keyOrder;
+        Object[] keys = new Object[to - from];
+        for (int i = from; i < to; i++)
+        {
+            keys[i - from] = key.apply(arr[i]);
+        }
+        permute(arr, from, IndirectSort.argsort(keys, order));
+    }
+    
+    /**
+     * 按排列调整数组中从from开始的区间，调整后arr[from + i]是原来的arr[from + perm[i]]
+     */
+    private static <T> void permute(T[] arr, int from, int[] perm)
+    {
+        Object[] sorted = new Object[perm.length];
+        for (int i = 0; i < perm.length; i++)
+        {
+            sorted[i] = arr[from + perm[i]];
+        }
+        System.arraycopy(sorted, 0, arr, from, perm.length);
+    }
+    
+    /**
+     * 对数组中left到right的位置进行排序，各算法的实现入口<br/>
+     * 实现中直接调用c.compare，而不是经过公共的比较方法，避免所有算法、所有元素类型共享同一个调用点
+     *
+     * @param arr   待排序的数组
+     * @param left  左边界（包含）
+     * @param right 右边界（包含）
+     * @param c     比较器
+     * @param <T>   元素类型
+     */
+    <T> void sortRange(T[] arr, int left, int right, Comparator<? super T> c)
+    {
+        throw new UnsupportedOperationException("不支持的操作~");
+    }
+    
+    /**
+     * 对指定的int数组进行排序
+     *
+     * @param arr 待排序的数组
+     */
+    public void sort(int[] arr)
+    {
+        if (SortInstrumentation.ENABLED)
+        {
+            SortInstrumentation.sort(this, arr);
+            return;
+        }
+        doSort(arr);
+    }
+    
+    /**
+     * 对int数组排序，各算法的实现入口
+     *
+     * @param arr 待排序的数组
+     */
+    void doSort(int[] arr)
+    {
+        throw new UnsupportedOperationException("不支持的操作~");
+    }
+    
+    /**
+     * 对指定的long数组进行排序
+     *
+     * @param arr 待排序的数组
+     */
+    public void sort(long[] arr)
+    {
+        if (SortInstrumentation.ENABLED)
+        {
+            SortInstrumentation.sort(this, arr);
+            return;
+        }
+        doSort(arr);
+    }
+    
+    /**
+     * 对long数组排序，各算法的实现入口
+     *
+     * @param arr 待排序的数组
+     */
+    void doSort(long[] arr)
+    {
+        throw new UnsupportedOperationException("不支持的操作~");
+    }
+    
+    /**
+     * 对指定的double数组进行排序，顺序与{@link Double#compare(double, double)}一致：
+     * -0.0排在0.0之前，NaN排在所有数值（包括正无穷）之后
+     *
+     * @param arr 待排序的数组
+     */
+    public void sort(double[] arr)
+    {
+        if (SortInstrumentation.ENABLED)
+        {
+            SortInstrumentation.sort(this, arr);
+            return;
+        }
+        doSort(arr);
+    }
+    
+    /**
+     * 对double数组排序，各算法的实现入口
+     *
+     * @param arr 待排序的数组
+     */
+    void doSort(double[] arr)
+    {
+        throw new UnsupportedOperationException("不支持的操作~");
+    }
     
     /**
      * 有效性检测，如果合法，返回true
@@ -432,6 +1477,490 @@ public enum Sorts
         return true;
     }
     
+    /**
+     * 返回三个位置中元素值处于中间的位置，{@link #Intro}和{@link Selections}选取基准值时共用
+     */
+    static <T> int median(T[] arr, int i, int j, int k, Comparator<? super T> c)
+    {
+        if (c.compare(arr[i], arr[j]) < 0)
+        {
+            if (c.compare(arr[j], arr[k]) < 0)
+            {
+                return j;
+            }
+            return c.compare(arr[i], arr[k]) < 0 ? k : i;
+        }
+        if (c.compare(arr[k], arr[j]) < 0)
+        {
+            return j;
+        }
+        return c.compare(arr[k], arr[i]) < 0 ? k : i;
+    }
+    
+    /**
+     * 在数组中选定left位置的元素作为基准值，并将小于该元素的值放在其左侧，
+     * 大于该元素的值放在其右侧，并返回该元素调整之后的位置<br/>
+     * 左右指针遇到与基准值相等的元素都会停下交换，大量重复元素时分割点依然落在区间中部
+     *
+     * @param arr   待分割的数组
+     * @param left  左边界
+     * @param right 右边界
+     * @param c     比较器
+     * @return 返回分割边界的索引值
+     */
+    static <T> int partition(T[] arr, int left, int right, Comparator<? super T> c)
+    {
+        // 取left位置的数组元素作为分割的基准元素值
+        T key = arr[left];
+        // 定义两个指针分别指向left位置和(right + 1)位置
+        int pl = left;
+        int pr = right + 1;
+        while (true)
+        {
+            // 向右移动左指针，直到寻找到不小于key的元素，然后停止
+            while (c.compare(arr[++pl], key) < 0)
+            {
+                // 边界条件
+                if (pl == right)
+                {
+                    break;
+                }
+            }
+            // 向左侧移动右指针，直到寻找到不大于key的元素，然后停止
+            while (c.compare(key, arr[--pr]) < 0)
+            {
+                // 边界条件
+                if (pr == left)
+                {
+                    break;
+                }
+            }
+            // 检测边界条件
+            if (pl >= pr)
+            {
+                break;
+            }
+            // 交换左右两个位置元素的值
+            exchange(arr, pl, pr);
+        }
+        // 交换基准值和right指针位置的元素，因为right指向的元素肯定是不大于基准值的元素
+        exchange(arr, left, pr);
+        return pr;
+    }
+    
+    /**
+     * 将左子组复制到辅助数组中，再与右子组归并回原数组，{@link #Merge}的标量归并
+     *
+     * @param arr   待归并的数组
+     * @param aux   辅助数组，长度不小于左子组
+     * @param left  左索引
+     * @param mid   中间索引
+     * @param right 右索引
+     */
+    static void scalarMerge(int[] arr, int[] aux, int left, int mid, int right)
+    {
+        int length = mid - left + 1;
+        SortInstrumentation.arraycopy(arr, left, aux, 0, length);
+        // p1 辅助数组指针  p2 右子组指针  index 写入位置
+        int p1 = 0, p2 = mid + 1, index = left;
+        while (p1 < length && p2 <= right)
+        {
+            // 相等时优先取左子组的元素，保证稳定性
+            if (less(arr[p2], aux[p1]))
+            {
+                arr[index++] = arr[p2++];
+            }
+            else
+            {
+                arr[index++] = aux[p1++];
+            }
+        }
+        // 右子组剩余的元素已经在正确的位置上
+        while (p1 < length)
+        {
+            arr[index++] = aux[p1++];
+        }
+    }
+    
+    static void scalarMerge(long[] arr, long[] aux, int left, int mid, int right)
+    {
+        int length = mid - left + 1;
+        SortInstrumentation.arraycopy(arr, left, aux, 0, length);
+        // p1 辅助数组指针  p2 右子组指针  index 写入位置
+        int p1 = 0, p2 = mid + 1, index = left;
+        while (p1 < length && p2 <= right)
+        {
+            // 相等时优先取左子组的元素，保证稳定性
+            if (less(arr[p2], aux[p1]))
+            {
+                arr[index++] = arr[p2++];
+            }
+            else
+            {
+                arr[index++] = aux[p1++];
+            }
+        }
+        // 右子组剩余的元素已经在正确的位置上
+        while (p1 < length)
+        {
+            arr[index++] = aux[p1++];
+        }
+    }
+    
+    /**
+     * 三数取中选定基准值，并将小于基准值的元素放在左侧，大于基准值的元素放在右侧
+     *
+     * @param arr   待分割的数组
+     * @param left  左边界
+     * @param right 右边界
+     * @return 返回分割边界的索引值
+     */
+    static int partition(int[] arr, int left, int right)
+    {
+        medianToLeft(arr, left, right);
+        return hoarePartition(arr, left, right, left, right + 1);
+    }
+    
+    /**
+     * 三数取中，将中位数交换到left位置作为基准值，mid位置不大于基准值，right位置不小于基准值
+     */
+    private static void medianToLeft(int[] arr, int left, int right)
+    {
+        int mid = left + (right - left) / 2;
+        if (less(arr[mid], arr[left]))
+        {
+            exchange(arr, mid, left);
+        }
+        if (less(arr[right], arr[left]))
+        {
+            exchange(arr, right, left);
+        }
+        if (less(arr[right], arr[mid]))
+        {
+            exchange(arr, right, mid);
+        }
+        exchange(arr, left, mid);
+    }
+    
+    /**
+     * 以left位置的元素为基准值的Hoare分割，(left, pl]中的元素已经不大于基准值，[pr, right]中的元素已经不小于基准值
+     */
+    private static int hoarePartition(int[] arr, int left, int right, int pl, int pr)
+    {
+        int key = arr[left];
+        while (true)
+        {
+            // 遇到与基准值相等的元素也停下，重复元素较多时依然能均匀分割
+            while (less(arr[++pl], key))
+            {
+                if (pl == right)
+                {
+                    break;
+                }
+            }
+            while (less(key, arr[--pr]))
+            {
+                if (pr == left)
+                {
+                    break;
+                }
+            }
+            if (pl >= pr)
+            {
+                break;
+            }
+            exchange(arr, pl, pr);
+        }
+        exchange(arr, left, pr);
+        return pr;
+    }
+    
+    /**
+     * 无分支的块分割（BlockQuicksort），分割的结果与{@link #partition(int[], int, int)}相同<br/>
+     * 1.从区间两端各取{@link #PARTITION_BLOCK}个元素，每个元素的偏移量都写入缓冲区，
+     * 比较结果只决定计数是否加一，不决定跳转，放错一侧的元素的偏移量留在缓冲区的前面。<br/>
+     * 2.按偏移量成对交换两块中放错的元素，一块处理完后再取下一块。<br/>
+     * 3.剩余不足两块的部分用Hoare分割完成。<br/>
+     * Hoare分割在随机数据上约有一半的比较结果预测失败，块分割把这部分开销换成了对缓冲区的顺序读写。
+     *
+     * @param arr     待分割的数组
+     * @param left    左边界
+     * @param right   右边界
+     * @param offsets 偏移量缓冲区，长度不小于2 * PARTITION_BLOCK，前一半用于左侧的块，后一半用于右侧的块
+     * @return 返回分割边界的索引值
+     */
+    static int blockPartition(int[] arr, int left, int right, int[] offsets)
+    {
+        medianToLeft(arr, left, right);
+        int key = arr[left];
+        // [left + 1, first)中的元素不大于key，[last, right]中的元素不小于key
+        int first = left + 1, last = right + 1;
+        int countLeft = 0, countRight = 0, startLeft = 0, startRight = 0;
+        while (last - first > 2 * PARTITION_BLOCK)
+        {
+            if (countLeft == 0)
+            {
+                startLeft = 0;
+                for (int i = 0; i < PARTITION_BLOCK; i++)
+                {
+                    offsets[countLeft] = i;
+                    countLeft += less(arr[first + i], key) ? 0 : 1;
+                }
+            }
+            if (countRight == 0)
+            {
+                startRight = PARTITION_BLOCK;
+                for (int i = 0; i < PARTITION_BLOCK; i++)
+                {
+                    offsets[PARTITION_BLOCK + countRight] = i;
+                    countRight += less(key, arr[last - 1 - i]) ? 0 : 1;
+                }
+            }
+            int count = Math.min(countLeft, countRight);
+            for (int k = 0; k < count; k++)
+            {
+                exchange(arr, first + offsets[startLeft + k], last - 1 - offsets[startRight + k]);
+            }
+            countLeft -= count;
+            countRight -= count;
+            startLeft += count;
+            startRight += count;
+            if (countLeft == 0)
+            {
+                first += PARTITION_BLOCK;
+            }
+            if (countRight == 0)
+            {
+                last -= PARTITION_BLOCK;
+            }
+        }
+        // 未处理完的块依然在[first, last)中，交给Hoare分割
+        return hoarePartition(arr, left, right, first - 1, last);
+    }
+    
+    /**
+     * 三数取中选定基准值，并将小于基准值的元素放在左侧，大于基准值的元素放在右侧
+     *
+     * @param arr   待分割的数组
+     * @param left  左边界
+     * @param right 右边界
+     * @return 返回分割边界的索引值
+     */
+    static int partition(long[] arr, int left, int right)
+    {
+        medianToLeft(arr, left, right);
+        return hoarePartition(arr, left, right, left, right + 1);
+    }
+    
+    /**
+     * 三数取中，将中位数交换到left位置作为基准值，mid位置不大于基准值，right位置不小于基准值
+     */
+    private static void medianToLeft(long[] arr, int left, int right)
+    {
+        int mid = left + (right - left) / 2;
+        if (less(arr[mid], arr[left]))
+        {
+            exchange(arr, mid, left);
+        }
+        if (less(arr[right], arr[left]))
+        {
+            exchange(arr, right, left);
+        }
+        if (less(arr[right], arr[mid]))
+        {
+            exchange(arr, right, mid);
+        }
+        exchange(arr, left, mid);
+    }
+    
+    /**
+     * 以left位置的元素为基准值的Hoare分割，(left, pl]中的元素已经不大于基准值，[pr, right]中的元素已经不小于基准值
+     */
+    private static int hoarePartition(long[] arr, int left, int right, int pl, int pr)
+    {
+        long key = arr[left];
+        while (true)
+        {
+            // 遇到与基准值相等的元素也停下，重复元素较多时依然能均匀分割
+            while (less(arr[++pl], key))
+            {
+                if (pl == right)
+                {
+                    break;
+                }
+            }
+            while (less(key, arr[--pr]))
+            {
+                if (pr == left)
+                {
+                    break;
+                }
+            }
+            if (pl >= pr)
+            {
+                break;
+            }
+            exchange(arr, pl, pr);
+        }
+        exchange(arr, left, pr);
+        return pr;
+    }
+    
+    /**
+     * 无分支的块分割（BlockQuicksort），分割的结果与{@link #partition(long[], int, int)}相同<br/>
+     * 1.从区间两端各取{@link #PARTITION_BLOCK}个元素，每个元素的偏移量都写入缓冲区，
+     * 比较结果只决定计数是否加一，不决定跳转，放错一侧的元素的偏移量留在缓冲区的前面。<br/>
+     * 2.按偏移量成对交换两块中放错的元素，一块处理完后再取下一块。<br/>
+     * 3.剩余不足两块的部分用Hoare分割完成。<br/>
+     * Hoare分割在随机数据上约有一半的比较结果预测失败，块分割把这部分开销换成了对缓冲区的顺序读写。
+     *
+     * @param arr     待分割的数组
+     * @param left    左边界
+     * @param right   右边界
+     * @param offsets 偏移量缓冲区，长度不小于2 * PARTITION_BLOCK，前一半用于左侧的块，后一半用于右侧的块
+     * @return 返回分割边界的索引值
+     */
+    static int blockPartition(long[] arr, int left, int right, int[] offsets)
+    {
+        medianToLeft(arr, left, right);
+        long key = arr[left];
+        // [left + 1, first)中的元素不大于key，[last, right]中的元素不小于key
+        int first = left + 1, last = right + 1;
+        int countLeft = 0, countRight = 0, startLeft = 0, startRight = 0;
+        while (last - first > 2 * PARTITION_BLOCK)
+        {
+            if (countLeft == 0)
+            {
+                startLeft = 0;
+                for (int i = 0; i < PARTITION_BLOCK; i++)
+                {
+                    offsets[countLeft] = i;
+                    countLeft += less(arr[first + i], key) ? 0 : 1;
+                }
+            }
+            if (countRight == 0)
+            {
+                startRight = PARTITION_BLOCK;
+                for (int i = 0; i < PARTITION_BLOCK; i++)
+                {
+                    offsets[PARTITION_BLOCK + countRight] = i;
+                    countRight += less(key, arr[last - 1 - i]) ? 0 : 1;
+                }
+            }
+            int count = Math.min(countLeft, countRight);
+            for (int k = 0; k < count; k++)
+            {
+                exchange(arr, first + offsets[startLeft + k], last - 1 - offsets[startRight + k]);
+            }
+            countLeft -= count;
+            countRight -= count;
+            startLeft += count;
+            startRight += count;
+            if (countLeft == 0)
+            {
+                first += PARTITION_BLOCK;
+            }
+            if (countRight == 0)
+            {
+                last -= PARTITION_BLOCK;
+            }
+        }
+        // 未处理完的块依然在[first, last)中，交给Hoare分割
+        return hoarePartition(arr, left, right, first - 1, last);
+    }
+    
+    /**
+     * 三数取中选定基准值，并将小于基准值的元素放在左侧，大于基准值的元素放在右侧
+     *
+     * @param arr   待分割的数组
+     * @param left  左边界
+     * @param right 右边界
+     * @return 返回分割边界的索引值
+     */
+    static int partition(double[] arr, int left, int right)
+    {
+        medianToLeft(arr, left, right);
+        return hoarePartition(arr, left, right, left, right + 1);
+    }
+    
+    /**
+     * 三数取中，将中位数交换到left位置作为基准值，mid位置不大于基准值，right位置不小于基准值
+     */
+    private static void medianToLeft(double[] arr, int left, int right)
+    {
+        int mid = left + (right - left) / 2;
+        if (less(arr[mid], arr[left]))
+        {
+            exchange(arr, mid, left);
+        }
+        if (less(arr[right], arr[left]))
+        {
+            exchange(arr, right, left);
+        }
+        if (less(arr[right], arr[mid]))
+        {
+            exchange(arr, right, mid);
+        }
+        exchange(arr, left, mid);
+    }
+    
+    /**
+     * 以left位置的元素为基准值的Hoare分割，(left, pl]中的元素已经不大于基准值，[pr, right]中的元素已经不小于基准值
+     */
+    private static int hoarePartition(double[] arr, int left, int right, int pl, int pr)
+    {
+        double key = arr[left];
+        while (true)
+        {
+            // 遇到与基准值相等的元素也停下，重复元素较多时依然能均匀分割
+            while (less(arr[++pl], key))
+            {
+                if (pl == right)
+                {
+                    break;
+                }
+            }
+            while (less(key, arr[--pr]))
+            {
+                if (pr == left)
+                {
+                    break;
+                }
+            }
+            if (pl >= pr)
+            {
+                break;
+            }
+            exchange(arr, pl, pr);
+        }
+        exchange(arr, left, pr);
+        return pr;
+    }
+    
+    /**
+     * 对数组中left到right的位置原地进行堆排序，不需要辅助数组<br/>
+     * 堆顶位于left，堆中第i(0-based)个元素位于arr[left + i]，子节点为2i+1和2i+2，
+     * 建堆和下沉使用{@link DaryHeap}的静态方法，传入逆序的比较器得到大顶堆
+     *
+     * @param arr   待排序数组
+     * @param left  左边界
+     * @param right 右边界
+     * @param c     比较器
+     */
+    static <T> void heapSort(T[] arr, int left, int right, Comparator<? super T> c)
+    {
+        int n = right - left + 1;
+        Comparator<? super T> reversed = Collections.reverseOrder(c);
+        DaryHeap.buildHeap(arr, left, n, 1, reversed);
+        for (int end = n - 1; end > 0; end--)
+        {
+            // 堆顶移到末尾，原来末尾的元素从堆顶的空位按Floyd方法下沉
+            T last = arr[left + end];
+            arr[left + end] = arr[left];
+            DaryHeap.floydSink(arr, left, last, end, 1, reversed);
+        }
+    }
+    
     /**
      * 在数组arr中，交换位置i和位置j的元素值
      *
@@ -439,34 +1968,111 @@ public enum Sorts
      * @param i   索引i
      * @param j   索引j
      */
-    private void exchange(Comparable[] arr, int i, int j)
+    private static void exchange(Object[] arr, int i, int j)
     {
-        Comparable temp = arr[i];
+        SortInstrumentation.exchanged();
+        Object temp = arr[i];
         arr[i] = arr[j];
         arr[j] = temp;
     }
     
     /**
-     * 比较两个数据的大小，前者是否大于后者
+     * 区间合法性检测
      *
-     * @param c1 数据1
-     * @param c2 数据2
+     * @param length 数组长度
+     * @param from   起始位置（包含）
+     * @param to     结束位置（不包含）
+     */
+    static void rangeCheck(int length, int from, int to)
+    {
+        if (from > to)
+        {
+            throw new IllegalArgumentException("from(" + from + ") > to(" + to + ")");
+        }
+        if (from < 0)
+        {
+            throw new ArrayIndexOutOfBoundsException(from);
+        }
+        if (to > length)
+        {
+            throw new ArrayIndexOutOfBoundsException(to);
+        }
+    }
+    
+    /**
+     * 有效性检测，如果合法，返回true
+     *
+     * @param arr 待检测的数组
      * @return
      */
-    private boolean greater(Comparable c1, Comparable c2)
+    private static boolean validate(int[] arr)
+    {
+        return arr != null && arr.length > 1;
+    }
+    
+    private static boolean validate(long[] arr)
+    {
+        return arr != null && arr.length > 1;
+    }
+    
+    private static boolean validate(double[] arr)
+    {
+        return arr != null && arr.length > 1;
+    }
+    
+    /**
+     * 在数组arr中，交换位置i和位置j的元素值
+     *
+     * @param arr 指定的数组
+     * @param i   索引i
+     * @param j   索引j
+     */
+    private static void exchange(int[] arr, int i, int j)
+    {
+        SortInstrumentation.exchanged();
+        int temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+    
+    private static void exchange(long[] arr, int i, int j)
+    {
+        SortInstrumentation.exchanged();
+        long temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+    
+    private static void exchange(double[] arr, int i, int j)
     {
-        return c1.compareTo(c2) > 0;
+        SortInstrumentation.exchanged();
+        double temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
     }
     
     /**
-     * 比较两个数据的大小，前者是否大于后者
+     * 比较两个double的大小，前者是否小于后者，-0.0小于0.0，NaN大于其他所有值且NaN之间相等
      *
-     * @param c1 数据1
-     * @param c2 数据2
+     * @param d1 数据1
+     * @param d2 数据2
      * @return
      */
-    private boolean less(Comparable c1, Comparable c2)
+    private static boolean less(double d1, double d2)
+    {
+        SortInstrumentation.compared();
+        return Double.compare(d1, d2) < 0;
+    }
+    
+    private static boolean less(int i1, int i2)
+    {
+        SortInstrumentation.compared();
+        return i1 < i2;
+    }
+    
+    private static boolean less(long l1, long l2)
     {
-        return c1.compareTo(c2) < 0;
+        SortInstrumentation.compared();
+        return l1 < l2;
     }
-}
\ No newline at end of file
+}
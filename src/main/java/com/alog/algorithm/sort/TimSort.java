@@ -0,0 +1,558 @@
+package com.alog.algorithm.sort;
+
+import java.util.Comparator;
+
+/**
+ * 自适应归并排序(TimSort)<br/>
+ * 1.从左到右扫描数组，找出天然有序的子组（run），严格递减的子组原地翻转成递增。<br/>
+ * 2.长度不足minRun的子组用二分插入排序扩展到minRun。<br/>
+ * 3.归并顺序采用powersort的策略：相邻两个子组中点在整个区间中的相对位置决定两者边界在归并树中的深度（power），
+ * 子组入栈前先归并栈中power更大的边界，栈中的power从底到顶递增，栈深度不超过log₂n + 2，归并树接近最优。<br/>
+ * 4.归并前先用指数查找剪掉两端已经在正确位置的元素，只复制较短的子组到辅助数组，
+ * 某一侧连续胜出minGallop次后切换成galloping模式，查找另一侧的插入位置整段复制。<br/>
+ * 辅助数组在第一次归并时才分配，大小不超过n/2，已经有序的数组只扫描一遍，不做任何归并。
+ *
+ * @author lushenchen 2024/1/12 20:16
+ * @since 1.0.0
+ */
+final class TimSort<T>
+{
+    /**
+     * 小于该长度的区间不归并，直接插入排序
+     */
+    private static final int MIN_MERGE = 32;
+    
+    /**
+     * 进入galloping模式的初始阈值，也是galloping一次至少复制的元素个数
+     */
+    private static final int MIN_GALLOP = 7;
+    
+    /**
+     * 待排序的数组
+     */
+    private final T[] arr;
+    
+    /**
+     * 比较器
+     */
+    private final Comparator<? super T> c;
+    
+    /**
+     * 待排序区间的起始位置
+     */
+    private final int base;
+    
+    /**
+     * 待排序区间的长度，决定power的计算和辅助数组的上限
+     */
+    private final int length;
+    
+    /**
+     * 子组的最小长度
+     */
+    private final int minRun;
+    
+    /**
+     * 进入galloping模式的阈值，galloping有收益时降低，没有收益时提高
+     */
+    private int minGallop = MIN_GALLOP;
+    
+    /**
+     * 辅助数组，延迟分配
+     */
+    private T[] temp;
+    
+    /**
+     * 待归并子组栈，starts[i]是第i个子组的起始位置，powers[i]是它与下一个子组的边界的power
+     */
+    private final int[] starts;
+    
+    private final int[] powers;
+    
+    private int stackSize;
+    
+    private TimSort(T[] arr, int base, int length, Comparator<? super T> c)
+    {
+        this.arr = arr;
+        this.c = c;
+        this.base = base;
+        this.length = length;
+        this.minRun = minRunLength(length);
+        // power不超过⌊log₂n⌋ + 2，栈中的power严格递增
+        int depth = Integer.SIZE - Integer.numberOfLeadingZeros(length) + 2;
+        this.starts = new int[depth];
+        this.powers = new int[depth];
+        SortInstrumentation.allocated(depth, Integer.BYTES);
+        SortInstrumentation.allocated(depth, Integer.BYTES);
+    }
+    
+    /**
+     * 对数组中left到right的位置进行排序
+     *
+     * @param arr   待排序数组
+     * @param left  左索引
+     * @param right 右索引
+     * @param c     比较器
+     */
+    static <T> void sort(T[] arr, int left, int right, Comparator<? super T> c)
+    {
+        int hi = right + 1;
+        int n = hi - left;
+        if (n < 2)
+        {
+            return;
+        }
+        // 数组较短，找出第一个有序子组后直接插入排序
+        if (n < MIN_MERGE)
+        {
+            insertionSort(arr, left, runEnd(arr, left, hi, c), hi, c);
+            return;
+        }
+        new TimSort<>(arr, left, n, c).sort();
+    }
+    
+    private void sort()
+    {
+        int hi = base + length;
+        int runStart = base, runEnd = nextRun(base);
+        while (runEnd < hi)
+        {
+            int nextEnd = nextRun(runEnd);
+            int power = power(runStart, runEnd, nextEnd);
+            // 栈顶边界比新边界更深，先归并，归并后的子组继续与栈顶比较
+            while (stackSize > 0 && powers[stackSize - 1] > power)
+            {
+                int previous = starts[--stackSize];
+                merge(previous, runStart, runEnd);
+                runStart = previous;
+            }
+            starts[stackSize] = runStart;
+            powers[stackSize] = power;
+            stackSize++;
+            runStart = runEnd;
+            runEnd = nextEnd;
+        }
+        // 从栈顶开始归并剩余的子组
+        while (stackSize > 0)
+        {
+            int previous = starts[--stackSize];
+            merge(previous, runStart, hi);
+            runStart = previous;
+        }
+    }
+    
+    /**
+     * 找出从start开始的有序子组，不足minRun时用插入排序扩展
+     *
+     * @return 子组的结束位置（不包含）
+     */
+    private int nextRun(int start)
+    {
+        int hi = base + length;
+        int end = runEnd(arr, start, hi, c);
+        if (end - start < minRun)
+        {
+            int forced = Math.min(hi, start + minRun);
+            insertionSort(arr, start, end, forced, c);
+            end = forced;
+        }
+        return end;
+    }
+    
+    /**
+     * 返回从start开始的有序子组的结束位置（不包含），严格递减的子组原地翻转，非严格递减时翻转会破坏稳定性
+     */
+    private static <T> int runEnd(T[] arr, int start, int hi, Comparator<? super T> c)
+    {
+        int end = start + 1;
+        if (end == hi)
+        {
+            return end;
+        }
+        boolean descending = c.compare(arr[end], arr[start]) < 0;
+        end++;
+        if (descending)
+        {
+            while (end < hi && c.compare(arr[end], arr[end - 1]) < 0)
+            {
+                end++;
+            }
+            for (int i = start, j = end - 1; i < j; i++, j--)
+            {
+                T value = arr[i];
+                arr[i] = arr[j];
+                arr[j] = value;
+            }
+        }
+        else
+        {
+            while (end < hi && c.compare(arr[end], arr[end - 1]) >= 0)
+            {
+                end++;
+            }
+        }
+        return end;
+    }
+    
+    /**
+     * 二分插入排序，arr[lo, sorted)已经有序，依次把arr[sorted, hi)插入，相等的元素插在后面保持稳定
+     */
+    private static <T> void insertionSort(T[] arr, int lo, int sorted, int hi, Comparator<? super T> c)
+    {
+        for (int i = Math.max(sorted, lo + 1); i < hi; i++)
+        {
+            T value = arr[i];
+            int left = lo, right = i;
+            while (left < right)
+            {
+                int mid = (left + right) >>> 1;
+                if (c.compare(value, arr[mid]) < 0)
+                {
+                    right = mid;
+                }
+                else
+                {
+                    left = mid + 1;
+                }
+            }
+            SortInstrumentation.arraycopy(arr, left, arr, left + 1, i - left);
+            arr[left] = value;
+        }
+    }
+    
+    /**
+     * 子组的最小长度，取值在MIN_MERGE / 2到MIN_MERGE之间，使n / minRun等于或略小于2的幂，最后一层归并更均衡
+     */
+    private static int minRunLength(int n)
+    {
+        int shift = Math.max(0, Integer.SIZE - Integer.numberOfLeadingZeros(n) - Integer.numberOfTrailingZeros(MIN_MERGE));
+        int run = n >>> shift;
+        // 被移出的低位不全为0时向上取整
+        return (run << shift) == n ? run : run + 1;
+    }
+    
+    /**
+     * 相邻子组[s1, s2)和[s2, end)的边界在归并树中的深度：两个子组中点在整个区间中的相对位置x、y，
+     * 二进制展开中相同前缀的长度加1，用中点的两倍做整数运算，每轮取出一位
+     */
+    private int power(int s1, int s2, int end)
+    {
+        long n2 = 2L * length;
+        long x = 2L * (s1 - base) + (s2 - s1);
+        long y = 2L * (s2 - base) + (end - s2);
+        int power = 0;
+        while (true)
+        {
+            power++;
+            x <<= 1;
+            y <<= 1;
+            boolean xBit = x >= n2, yBit = y >= n2;
+            if (xBit != yBit)
+            {
+                return power;
+            }
+            if (xBit)
+            {
+                x -= n2;
+                y -= n2;
+            }
+        }
+    }
+    
+    /**
+     * 归并相邻的有序子组arr[lo, mid)和arr[mid, hi)
+     */
+    private void merge(int lo, int mid, int hi)
+    {
+        // 左子组中不大于右子组第一个元素的前缀已经在正确位置
+        lo += gallopRight(arr[mid], arr, lo, mid - lo, 0, c);
+        if (lo == mid)
+        {
+            return;
+        }
+        // 右子组中不小于左子组最后一个元素的后缀已经在正确位置
+        hi = mid + gallopLeft(arr[mid - 1], arr, mid, hi - mid, hi - mid - 1, c);
+        if (hi == mid)
+        {
+            return;
+        }
+        if (mid - lo <= hi - mid)
+        {
+            mergeForward(lo, mid, hi);
+        }
+        else
+        {
+            mergeBackward(lo, mid, hi);
+        }
+    }
+    
+    /**
+     * 左子组较短，复制到辅助数组后从左向右归并，写入位置始终不超过右子组的读取位置<br/>
+     * 剪枝后右子组的第一个元素小于左子组的所有元素
+     */
+    private void mergeForward(int lo, int mid, int hi)
+    {
+        T[] arr = this.arr;
+        int len1 = mid - lo;
+        T[] temp = ensureCapacity(len1);
+        SortInstrumentation.arraycopy(arr, lo, temp, 0, len1);
+        // temp[i, len1)是左子组剩余的部分，arr[j, hi)是右子组剩余的部分
+        int i = 0, j = mid, dest = lo;
+        arr[dest++] = arr[j++];
+        int minGallop = this.minGallop;
+        merge:
+        while (j < hi)
+        {
+            // 逐个比较，记录两侧连续胜出的次数，相等时取左子组保持稳定，只检查取走元素的一侧是否取完
+            int wins1 = 0, wins2 = 0;
+            do
+            {
+                if (c.compare(arr[j], temp[i]) < 0)
+                {
+                    arr[dest++] = arr[j++];
+                    wins2++;
+                    wins1 = 0;
+                    if (j == hi)
+                    {
+                        break merge;
+                    }
+                }
+                else
+                {
+                    arr[dest++] = temp[i++];
+                    wins1++;
+                    wins2 = 0;
+                    if (i == len1)
+                    {
+                        break merge;
+                    }
+                }
+            }
+            while (wins1 < minGallop && wins2 < minGallop);
+            // galloping：左子组中不大于arr[j]的一段、右子组中小于temp[i]的一段交替整段复制，
+            // 每段之后的那个元素已经由查找确定了顺序，直接移动
+            while (true)
+            {
+                int count1 = gallopRight(arr[j], temp, i, len1 - i, 0, c);
+                SortInstrumentation.arraycopy(temp, i, arr, dest, count1);
+                i += count1;
+                dest += count1;
+                if (i == len1)
+                {
+                    break merge;
+                }
+                arr[dest++] = arr[j++];
+                if (j == hi)
+                {
+                    break merge;
+                }
+                int count2 = gallopLeft(temp[i], arr, j, hi - j, 0, c);
+                SortInstrumentation.arraycopy(arr, j, arr, dest, count2);
+                j += count2;
+                dest += count2;
+                if (j == hi)
+                {
+                    break merge;
+                }
+                arr[dest++] = temp[i++];
+                if (i == len1)
+                {
+                    break merge;
+                }
+                if (count1 < MIN_GALLOP && count2 < MIN_GALLOP)
+                {
+                    // 整段复制的收益不大，提高进入的门槛
+                    minGallop++;
+                    break;
+                }
+                minGallop = Math.max(1, minGallop - 1);
+            }
+        }
+        this.minGallop = minGallop;
+        // 右子组先取完时把左子组剩余的部分放到末尾，左子组先取完时右子组剩余的部分已经在正确位置
+        SortInstrumentation.arraycopy(temp, i, arr, dest, len1 - i);
+    }
+    
+    /**
+     * 右子组较短，复制到辅助数组后从右向左归并，写入位置始终不小于左子组的读取位置<br/>
+     * 剪枝后左子组的最后一个元素大于右子组的所有元素
+     */
+    private void mergeBackward(int lo, int mid, int hi)
+    {
+        T[] arr = this.arr;
+        int len2 = hi - mid;
+        T[] temp = ensureCapacity(len2);
+        SortInstrumentation.arraycopy(arr, mid, temp, 0, len2);
+        // arr[lo, i]是左子组剩余的部分，temp[0, j]是右子组剩余的部分
+        int i = mid - 1, j = len2 - 1, dest = hi - 1;
+        arr[dest--] = arr[i--];
+        int minGallop = this.minGallop;
+        merge:
+        while (i >= lo)
+        {
+            // 从后向前取较大的元素，相等时取右子组保持稳定
+            int wins1 = 0, wins2 = 0;
+            do
+            {
+                if (c.compare(temp[j], arr[i]) < 0)
+                {
+                    arr[dest--] = arr[i--];
+                    wins1++;
+                    wins2 = 0;
+                    if (i < lo)
+                    {
+                        break merge;
+                    }
+                }
+                else
+                {
+                    arr[dest--] = temp[j--];
+                    wins2++;
+                    wins1 = 0;
+                    if (j < 0)
+                    {
+                        break merge;
+                    }
+                }
+            }
+            while (wins1 < minGallop && wins2 < minGallop);
+            // galloping：左子组中大于temp[j]的一段、右子组中不小于arr[i]的一段交替整段复制
+            while (true)
+            {
+                int count1 = i + 1 - lo - gallopRight(temp[j], arr, lo, i + 1 - lo, i - lo, c);
+                SortInstrumentation.arraycopy(arr, i + 1 - count1, arr, dest + 1 - count1, count1);
+                i -= count1;
+                dest -= count1;
+                if (i < lo)
+                {
+                    break merge;
+                }
+                arr[dest--] = temp[j--];
+                if (j < 0)
+                {
+                    break merge;
+                }
+                int count2 = j + 1 - gallopLeft(arr[i], temp, 0, j + 1, j, c);
+                SortInstrumentation.arraycopy(temp, j + 1 - count2, arr, dest + 1 - count2, count2);
+                j -= count2;
+                dest -= count2;
+                if (j < 0)
+                {
+                    break merge;
+                }
+                arr[dest--] = arr[i--];
+                if (i < lo)
+                {
+                    break merge;
+                }
+                if (count1 < MIN_GALLOP && count2 < MIN_GALLOP)
+                {
+                    minGallop++;
+                    break;
+                }
+                minGallop = Math.max(1, minGallop - 1);
+            }
+        }
+        this.minGallop = minGallop;
+        // 左子组先取完时把右子组剩余的部分放到开头
+        SortInstrumentation.arraycopy(temp, 0, arr, lo, j + 1);
+    }
+    
+    /**
+     * 从hint位置开始指数查找，返回key在有序区间arr[base, base + len)中的最右插入位置k（相对base），
+     * 满足 arr[base + k - 1] &lt;= key &lt; arr[base + k]
+     */
+    static <T> int gallopRight(T key, T[] arr, int base, int len, int hint, Comparator<? super T> c)
+    {
+        return gallop(key, arr, base, len, hint, c, 0);
+    }
+    
+    /**
+     * 从hint位置开始指数查找，返回key在有序区间arr[base, base + len)中的最左插入位置k（相对base），
+     * 满足 arr[base + k - 1] &lt; key &lt;= arr[base + k]
+     */
+    static <T> int gallopLeft(T key, T[] arr, int base, int len, int hint, Comparator<? super T> c)
+    {
+        return gallop(key, arr, base, len, hint, c, 1);
+    }
+    
+    /**
+     * 指数查找的公共部分：c.compare(key, arr[base + i]) &gt;= bias的元素排在插入位置之前，
+     * bias为0时相等的元素在前（最右插入位置），为1时相等的元素在后（最左插入位置）<br/>
+     * 先从hint向插入位置所在的一侧按1、2、4……的步长探测，确定范围后二分查找
+     */
+    private static <T> int gallop(T key, T[] arr, int base, int len, int hint, Comparator<? super T> c, int bias)
+    {
+        // 插入位置在[lo, hi]之间
+        int lo, hi, step = 1;
+        if (c.compare(key, arr[base + hint]) >= bias)
+        {
+            lo = hint + 1;
+            hi = len;
+            while (step < len - hint)
+            {
+                int probe = hint + step;
+                if (c.compare(key, arr[base + probe]) < bias)
+                {
+                    hi = probe;
+                    break;
+                }
+                lo = probe + 1;
+                step <<= 1;
+                if (step <= 0)
+                {
+                    step = Integer.MAX_VALUE;
+                }
+            }
+        }
+        else
+        {
+            lo = 0;
+            hi = hint;
+            while (step <= hint)
+            {
+                int probe = hint - step;
+                if (c.compare(key, arr[base + probe]) >= bias)
+                {
+                    lo = probe + 1;
+                    break;
+                }
+                hi = probe;
+                step <<= 1;
+                if (step <= 0)
+                {
+                    step = Integer.MAX_VALUE;
+                }
+            }
+        }
+        while (lo < hi)
+        {
+            int mid = (lo + hi) >>> 1;
+            if (c.compare(key, arr[base + mid]) >= bias)
+            {
+                lo = mid + 1;
+            }
+            else
+            {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+    
+    /**
+     * 保证辅助数组至少能容纳minCapacity个元素，每次扩容为原来的两倍，但不超过n/2
+     */
+    @SuppressWarnings("unchecked")
+    private T[] ensureCapacity(int minCapacity)
+    {
+        if (temp == null || temp.length < minCapacity)
+        {
+            int grown = temp == null ? minCapacity : temp.length << 1;
+            int newSize = Math.max(minCapacity, Math.min(grown, length >>> 1));
+            temp = (T[]) new Object[newSize];
+            SortInstrumentation.allocated(newSize, SortInstrumentation.REFERENCE_BYTES);
+        }
+        return temp;
+    }
+}
@@ -0,0 +1,56 @@
+package com.alog.algorithm.sort;
+
+/**
+ * 基本类型排序的向量化（SIMD）内核<br/>
+ * 这是Java 8版本的实现，{@link #ENABLED}始终为false，调用方使用标量实现，各个方法直接调用对应的标量实现。
+ * 多版本JAR中META-INF/versions/17下的同名类在JDK17以上替换这个类，源码在src/main/java17中。
+ *
+ * @author lushenchen 2024/2/14 20:10
+ * @since 1.0.0
+ */
+final class VectorizedSorts
+{
+    /**
+     * 是否使用向量化实现，不能写成编译期常量，否则调用方编译时会直接内联这里的false
+     */
+    static final boolean ENABLED = detect();
+    
+    private VectorizedSorts()
+    {
+    }
+    
+    private static boolean detect()
+    {
+        return false;
+    }
+    
+    /**
+     * 以三数取中的元素为基准值分割arr的left到right位置
+     *
+     * @return 高32位lt、低32位gt，arr[lt, gt]都等于基准值，左边的都小于基准值，右边的都大于或等于基准值
+     */
+    static long partition(int[] arr, int left, int right)
+    {
+        int k = Sorts.partition(arr, left, right);
+        return (long) k << 32 | k;
+    }
+    
+    static long partition(long[] arr, int left, int right)
+    {
+        int k = Sorts.partition(arr, left, right);
+        return (long) k << 32 | k;
+    }
+    
+    /**
+     * 将左子组复制到辅助数组中，再与右子组归并回原数组，与{@link Sorts#scalarMerge(int[], int[], int, int, int)}相同
+     */
+    static void merge(int[] arr, int[] aux, int left, int mid, int right)
+    {
+        Sorts.scalarMerge(arr, aux, left, mid, right);
+    }
+    
+    static void merge(long[] arr, long[] aux, int left, int mid, int right)
+    {
+        Sorts.scalarMerge(arr, aux, left, mid, right);
+    }
+}
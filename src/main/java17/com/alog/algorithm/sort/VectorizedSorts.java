@@ -0,0 +1,570 @@
+package com.alog.algorithm.sort;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * 基本类型排序的向量化（SIMD）内核，JDK17以上的版本<br/>
+ * 1.需要启动参数--add-modules jdk.incubator.vector，并且CPU支持256位的向量（AVX2），
+ * 运行时检测到模块没有加载、向量长度不够或者开启了{@link SortInstrumentation}时{@link #ENABLED}为false，调用方使用标量实现；
+ * 也可以用-Dcom.alog.algorithm.sort.vector=false关闭。<br/>
+ * 2.分割：先保存区间两端各一个向量，之后每次从空闲位置较少的一端读入一个向量，与基准值比较得到掩码，
+ * 用查表得到的重排把小于基准值的通道移到前面、其余的移到后面，整个向量分别写到左右两个写入位置，
+ * 两端的空闲位置始终不少于一个向量，写入不会覆盖尚未读取的元素；不足一个向量的剩余元素按同样的规则逐个处理。<br/>
+ * 3.归并：两个有序向量用双调归并网络（反转一个向量后逐层min/max）得到较小的一半和较大的一半，
+ * 较小的一半直接输出，较大的一半与下一个向量继续归并，下一个向量取自当前元素较小的一侧。<br/>
+ * 分割和归并在递归的每一层都会调用，内核中不分配内存：归并最后剩下的向量暂存在辅助数组已经读完的位置。<br/>
+ * 4.只处理int和long，double的min/max对NaN、-0.0的处理与{@link Double#compare}不同。
+ * 所有引用向量API的代码都在内部类Kernels中，模块没有加载时这个类不会被加载。
+ *
+ * @author lushenchen 2024/2/14 20:10
+ * @since 1.0.0
+ */
+final class VectorizedSorts
+{
+    /**
+     * 是否使用向量化实现
+     */
+    static final boolean ENABLED = detect();
+    
+    private VectorizedSorts()
+    {
+    }
+    
+    private static boolean detect()
+    {
+        if (SortInstrumentation.ENABLED || !Boolean.parseBoolean(System.getProperty("com.alog.algorithm.sort.vector", "true")))
+        {
+            return false;
+        }
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty())
+        {
+            return false;
+        }
+        try
+        {
+            return Kernels.supported();
+        }
+        catch (LinkageError e)
+        {
+            return false;
+        }
+    }
+    
+    /**
+     * 以三数取中的元素为基准值分割arr的left到right位置
+     *
+     * @return 高32位lt、低32位gt，arr[lt, gt]都等于基准值，左边的都小于基准值，右边的都大于或等于基准值
+     */
+    static long partition(int[] arr, int left, int right)
+    {
+        return Kernels.partition(arr, left, right);
+    }
+    
+    static long partition(long[] arr, int left, int right)
+    {
+        return Kernels.partition(arr, left, right);
+    }
+    
+    /**
+     * 将左子组复制到辅助数组中，再与右子组归并回原数组，与{@link Sorts#scalarMerge(int[], int[], int, int, int)}的标量归并相同
+     */
+    static void merge(int[] arr, int[] aux, int left, int mid, int right)
+    {
+        Kernels.merge(arr, aux, left, mid, right);
+    }
+    
+    static void merge(long[] arr, long[] aux, int left, int mid, int right)
+    {
+        Kernels.merge(arr, aux, left, mid, right);
+    }
+    
+    private static final class Kernels
+    {
+        private static final VectorSpecies<Integer> INT_SPECIES = IntVector.SPECIES_256;
+        
+        private static final VectorSpecies<Long> LONG_SPECIES = LongVector.SPECIES_256;
+        
+        private static final int INT_LANES = INT_SPECIES.length();
+        
+        private static final int LONG_LANES = LONG_SPECIES.length();
+        
+        /**
+         * INT_COMPRESS[m]把掩码m中为true的通道按原来的顺序移到前面，其余通道按原来的顺序放到后面
+         */
+        private static final VectorShuffle<Integer>[] INT_COMPRESS = compressShuffles(INT_SPECIES);
+        
+        private static final VectorShuffle<Long>[] LONG_COMPRESS = compressShuffles(LONG_SPECIES);
+        
+        /**
+         * 第i个通道是1 &lt;&lt; i，与比较结果按位与后归约得到掩码的整数表示
+         */
+        private static final IntVector INT_WEIGHTS = IntVector.broadcast(INT_SPECIES, 1)
+                .lanewise(VectorOperators.LSHL, IntVector.zero(INT_SPECIES).addIndex(1));
+        
+        private static final LongVector LONG_WEIGHTS = LongVector.broadcast(LONG_SPECIES, 1)
+                .lanewise(VectorOperators.LSHL, LongVector.zero(LONG_SPECIES).addIndex(1));
+        
+        private static final VectorShuffle<Integer> INT_REVERSE = VectorShuffle.fromOp(INT_SPECIES, i -> INT_LANES - 1 - i);
+        
+        private static final VectorShuffle<Long> LONG_REVERSE = VectorShuffle.fromOp(LONG_SPECIES, i -> LONG_LANES - 1 - i);
+        
+        /**
+         * 双调排序每一层的比较距离d：INT_SWAP[k]交换相距d的通道，INT_UPPER[k]是每对中位置较大的通道
+         */
+        private static final VectorShuffle<Integer>[] INT_SWAP = swapShuffles(INT_SPECIES);
+        
+        private static final VectorMask<Integer>[] INT_UPPER = upperMasks(INT_SPECIES);
+        
+        private static final VectorShuffle<Long>[] LONG_SWAP = swapShuffles(LONG_SPECIES);
+        
+        private static final VectorMask<Long>[] LONG_UPPER = upperMasks(LONG_SPECIES);
+        
+        /**
+         * 首选的向量不短于256位时才使用，否则256位的运算由软件模拟，比标量更慢
+         */
+        static boolean supported()
+        {
+            return IntVector.SPECIES_PREFERRED.vectorBitSize() >= 256;
+        }
+        
+        @SuppressWarnings("unchecked")
+        private static <E> VectorShuffle<E>[] compressShuffles(VectorSpecies<E> species)
+        {
+            int lanes = species.length();
+            VectorShuffle<E>[] shuffles = (VectorShuffle<E>[]) new VectorShuffle<?>[1 << lanes];
+            int[] indexes = new int[lanes];
+            for (int mask = 0; mask < shuffles.length; mask++)
+            {
+                int k = 0;
+                for (int i = 0; i < lanes; i++)
+                {
+                    if ((mask >>> i & 1) != 0)
+                    {
+                        indexes[k++] = i;
+                    }
+                }
+                for (int i = 0; i < lanes; i++)
+                {
+                    if ((mask >>> i & 1) == 0)
+                    {
+                        indexes[k++] = i;
+                    }
+                }
+                shuffles[mask] = VectorShuffle.fromArray(species, indexes, 0);
+            }
+            return shuffles;
+        }
+        
+        @SuppressWarnings("unchecked")
+        private static <E> VectorShuffle<E>[] swapShuffles(VectorSpecies<E> species)
+        {
+            int levels = Integer.numberOfTrailingZeros(species.length());
+            VectorShuffle<E>[] shuffles = (VectorShuffle<E>[]) new VectorShuffle<?>[levels];
+            for (int k = 0; k < levels; k++)
+            {
+                int distance = species.length() >>> (k + 1);
+                shuffles[k] = VectorShuffle.fromOp(species, i -> i ^ distance);
+            }
+            return shuffles;
+        }
+        
+        @SuppressWarnings("unchecked")
+        private static <E> VectorMask<E>[] upperMasks(VectorSpecies<E> species)
+        {
+            int levels = Integer.numberOfTrailingZeros(species.length());
+            VectorMask<E>[] masks = (VectorMask<E>[]) new VectorMask<?>[levels];
+            boolean[] bits = new boolean[species.length()];
+            for (int k = 0; k < levels; k++)
+            {
+                int distance = species.length() >>> (k + 1);
+                for (int i = 0; i < bits.length; i++)
+                {
+                    bits[i] = (i & distance) != 0;
+                }
+                masks[k] = VectorMask.fromArray(species, bits, 0);
+            }
+            return masks;
+        }
+        
+        static long partition(int[] arr, int left, int right)
+        {
+            // 三数取中，基准值放到right
+            int mid = (left + right) >>> 1;
+            int a = arr[left], b = arr[mid], c = arr[right];
+            int median = Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+            if (median == a)
+            {
+                arr[left] = c;
+                arr[right] = a;
+            }
+            else if (median == b)
+            {
+                arr[mid] = c;
+                arr[right] = b;
+            }
+            int k = partition(arr, left, right, median, false);
+            arr[right] = arr[k];
+            arr[k] = median;
+            if (k > left)
+            {
+                return (long) k << 32 | k;
+            }
+            // 没有小于基准值的元素，再把等于基准值的元素集中到左端，重复元素很多时不会退化
+            int equal = partition(arr, left + 1, right + 1, median, true);
+            return (long) left << 32 | (equal - 1);
+        }
+        
+        /**
+         * 把arr[from, to)中小于pivot（inclusive为true时小于等于）的元素移到前面，返回第一个不满足的位置
+         */
+        private static int partition(int[] arr, int from, int to, int pivot, boolean inclusive)
+        {
+            int lanes = INT_LANES;
+            if (to - from < 2 * lanes)
+            {
+                int write = from;
+                for (int i = from; i < to; i++)
+                {
+                    int x = arr[i];
+                    if (inclusive ? x <= pivot : x < pivot)
+                    {
+                        arr[i] = arr[write];
+                        arr[write++] = x;
+                    }
+                }
+                return write;
+            }
+            IntVector pivots = IntVector.broadcast(INT_SPECIES, pivot);
+            IntVector first = IntVector.fromArray(INT_SPECIES, arr, from);
+            IntVector last = IntVector.fromArray(INT_SPECIES, arr, to - lanes);
+            // [readLeft, readRight)尚未读取，[from, writeLeft)满足op，[writeRight, to)不满足
+            int readLeft = from + lanes, readRight = to - lanes;
+            int writeLeft = from, writeRight = to;
+            while (readRight - readLeft >= lanes)
+            {
+                IntVector v;
+                if (readLeft - writeLeft <= writeRight - readRight)
+                {
+                    v = IntVector.fromArray(INT_SPECIES, arr, readLeft);
+                    readLeft += lanes;
+                }
+                else
+                {
+                    readRight -= lanes;
+                    v = IntVector.fromArray(INT_SPECIES, arr, readRight);
+                }
+                int count = store(v, pivots, inclusive, arr, writeLeft, writeRight);
+                writeLeft += count;
+                writeRight -= lanes - count;
+            }
+            // 不足一个向量的剩余元素逐个处理，同样从空闲位置较少的一端读取，两端的空闲位置合计是两个向量，写入的一端总有空闲位置
+            while (readLeft < readRight)
+            {
+                int x = readLeft - writeLeft <= writeRight - readRight ? arr[readLeft++] : arr[--readRight];
+                if (inclusive ? x <= pivot : x < pivot)
+                {
+                    arr[writeLeft++] = x;
+                }
+                else
+                {
+                    arr[--writeRight] = x;
+                }
+            }
+            // 最后放入两端保存的向量，此时空闲位置正好是两个向量
+            int count = store(first, pivots, inclusive, arr, writeLeft, writeRight);
+            writeLeft += count;
+            writeRight -= lanes - count;
+            return writeLeft + store(last, pivots, inclusive, arr, writeLeft, writeRight);
+        }
+        
+        /**
+         * 把v中小于pivot（inclusive为true时小于等于）的通道按原来的顺序写到writeLeft开始的位置，
+         * 其余的通道写到writeRight之前，两段写入的都是完整的向量，返回满足条件的通道数
+         */
+        private static int store(IntVector v, IntVector pivots, boolean inclusive, int[] arr, int writeLeft, int writeRight)
+        {
+            int bits = maskBits(v, pivots, inclusive);
+            IntVector compressed = v.rearrange(INT_COMPRESS[bits]);
+            compressed.intoArray(arr, writeLeft);
+            compressed.intoArray(arr, writeRight - INT_LANES);
+            return Integer.bitCount(bits);
+        }
+        
+        /**
+         * 比较结果的掩码，第i位对应第i个通道<br/>
+         * 比较运算必须是常量，向量API才能编译成向量指令；JDK17中VectorMask.toLong没有内联，这里用按位或归约代替
+         */
+        private static int maskBits(IntVector v, IntVector pivots, boolean inclusive)
+        {
+            VectorMask<Integer> mask = inclusive ? v.compare(VectorOperators.LE, pivots) : v.compare(VectorOperators.LT, pivots);
+            return IntVector.zero(INT_SPECIES).blend(INT_WEIGHTS, mask).reduceLanes(VectorOperators.OR);
+        }
+        
+        static long partition(long[] arr, int left, int right)
+        {
+            int mid = (left + right) >>> 1;
+            long a = arr[left], b = arr[mid], c = arr[right];
+            long median = Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+            if (median == a)
+            {
+                arr[left] = c;
+                arr[right] = a;
+            }
+            else if (median == b)
+            {
+                arr[mid] = c;
+                arr[right] = b;
+            }
+            int k = partition(arr, left, right, median, false);
+            arr[right] = arr[k];
+            arr[k] = median;
+            if (k > left)
+            {
+                return (long) k << 32 | k;
+            }
+            int equal = partition(arr, left + 1, right + 1, median, true);
+            return (long) left << 32 | (equal - 1);
+        }
+        
+        private static int partition(long[] arr, int from, int to, long pivot, boolean inclusive)
+        {
+            int lanes = LONG_LANES;
+            if (to - from < 2 * lanes)
+            {
+                int write = from;
+                for (int i = from; i < to; i++)
+                {
+                    long x = arr[i];
+                    if (inclusive ? x <= pivot : x < pivot)
+                    {
+                        arr[i] = arr[write];
+                        arr[write++] = x;
+                    }
+                }
+                return write;
+            }
+            LongVector pivots = LongVector.broadcast(LONG_SPECIES, pivot);
+            LongVector first = LongVector.fromArray(LONG_SPECIES, arr, from);
+            LongVector last = LongVector.fromArray(LONG_SPECIES, arr, to - lanes);
+            int readLeft = from + lanes, readRight = to - lanes;
+            int writeLeft = from, writeRight = to;
+            while (readRight - readLeft >= lanes)
+            {
+                LongVector v;
+                if (readLeft - writeLeft <= writeRight - readRight)
+                {
+                    v = LongVector.fromArray(LONG_SPECIES, arr, readLeft);
+                    readLeft += lanes;
+                }
+                else
+                {
+                    readRight -= lanes;
+                    v = LongVector.fromArray(LONG_SPECIES, arr, readRight);
+                }
+                int count = store(v, pivots, inclusive, arr, writeLeft, writeRight);
+                writeLeft += count;
+                writeRight -= lanes - count;
+            }
+            while (readLeft < readRight)
+            {
+                long x = readLeft - writeLeft <= writeRight - readRight ? arr[readLeft++] : arr[--readRight];
+                if (inclusive ? x <= pivot : x < pivot)
+                {
+                    arr[writeLeft++] = x;
+                }
+                else
+                {
+                    arr[--writeRight] = x;
+                }
+            }
+            int count = store(first, pivots, inclusive, arr, writeLeft, writeRight);
+            writeLeft += count;
+            writeRight -= lanes - count;
+            return writeLeft + store(last, pivots, inclusive, arr, writeLeft, writeRight);
+        }
+        
+        private static int store(LongVector v, LongVector pivots, boolean inclusive, long[] arr, int writeLeft, int writeRight)
+        {
+            int bits = maskBits(v, pivots, inclusive);
+            LongVector compressed = v.rearrange(LONG_COMPRESS[bits]);
+            compressed.intoArray(arr, writeLeft);
+            compressed.intoArray(arr, writeRight - LONG_LANES);
+            return Integer.bitCount(bits);
+        }
+        
+        private static int maskBits(LongVector v, LongVector pivots, boolean inclusive)
+        {
+            VectorMask<Long> mask = inclusive ? v.compare(VectorOperators.LE, pivots) : v.compare(VectorOperators.LT, pivots);
+            return (int) LongVector.zero(LONG_SPECIES).blend(LONG_WEIGHTS, mask).reduceLanes(VectorOperators.OR);
+        }
+        
+        static void merge(int[] arr, int[] aux, int left, int mid, int right)
+        {
+            int length = mid - left + 1;
+            System.arraycopy(arr, left, aux, 0, length);
+            int lanes = INT_LANES;
+            // p1 辅助数组指针  p2 右子组指针  index 写入位置
+            int p1 = 0, p2 = mid + 1, index = left;
+            if (length >= lanes && right - mid >= lanes)
+            {
+                IntVector low = IntVector.fromArray(INT_SPECIES, aux, 0);
+                IntVector high = IntVector.fromArray(INT_SPECIES, arr, p2);
+                p1 = lanes;
+                p2 += lanes;
+                while (true)
+                {
+                    // 双调归并：反转一个向量后逐对取min、max，两半各自是双调序列，再分别排序
+                    high = high.rearrange(INT_REVERSE);
+                    IntVector min = low.min(high);
+                    high = bitonicSort(low.max(high));
+                    bitonicSort(min).intoArray(arr, index);
+                    index += lanes;
+                    // 下一个向量取自当前元素较小的一侧，这一侧不足一个向量时结束
+                    if (p1 < length && (p2 > right || aux[p1] <= arr[p2]))
+                    {
+                        if (length - p1 < lanes)
+                        {
+                            break;
+                        }
+                        low = IntVector.fromArray(INT_SPECIES, aux, p1);
+                        p1 += lanes;
+                    }
+                    else
+                    {
+                        if (right + 1 - p2 < lanes)
+                        {
+                            break;
+                        }
+                        low = IntVector.fromArray(INT_SPECIES, arr, p2);
+                        p2 += lanes;
+                    }
+                }
+                // 较大的一半与两侧剩余的元素三路归并，暂存在辅助数组中已经读完的位置，p1不小于lanes
+                int pending = p1 - lanes;
+                high.intoArray(aux, pending);
+                for (int t = pending; t < pending + lanes; )
+                {
+                    int x = aux[t];
+                    if (p1 < length && aux[p1] < x && (p2 > right || aux[p1] <= arr[p2]))
+                    {
+                        arr[index++] = aux[p1++];
+                    }
+                    else if (p2 <= right && arr[p2] < x)
+                    {
+                        arr[index++] = arr[p2++];
+                    }
+                    else
+                    {
+                        arr[index++] = x;
+                        t++;
+                    }
+                }
+            }
+            while (p1 < length && p2 <= right)
+            {
+                arr[index++] = arr[p2] < aux[p1] ? arr[p2++] : aux[p1++];
+            }
+            // 右子组剩余的元素已经在正确的位置上
+            while (p1 < length)
+            {
+                arr[index++] = aux[p1++];
+            }
+        }
+        
+        /**
+         * 对双调序列排序
+         */
+        private static IntVector bitonicSort(IntVector v)
+        {
+            for (int k = 0; k < INT_SWAP.length; k++)
+            {
+                IntVector swapped = v.rearrange(INT_SWAP[k]);
+                v = v.min(swapped).blend(v.max(swapped), INT_UPPER[k]);
+            }
+            return v;
+        }
+        
+        static void merge(long[] arr, long[] aux, int left, int mid, int right)
+        {
+            int length = mid - left + 1;
+            System.arraycopy(arr, left, aux, 0, length);
+            int lanes = LONG_LANES;
+            int p1 = 0, p2 = mid + 1, index = left;
+            if (length >= lanes && right - mid >= lanes)
+            {
+                LongVector low = LongVector.fromArray(LONG_SPECIES, aux, 0);
+                LongVector high = LongVector.fromArray(LONG_SPECIES, arr, p2);
+                p1 = lanes;
+                p2 += lanes;
+                while (true)
+                {
+                    high = high.rearrange(LONG_REVERSE);
+                    LongVector min = low.min(high);
+                    high = bitonicSort(low.max(high));
+                    bitonicSort(min).intoArray(arr, index);
+                    index += lanes;
+                    if (p1 < length && (p2 > right || aux[p1] <= arr[p2]))
+                    {
+                        if (length - p1 < lanes)
+                        {
+                            break;
+                        }
+                        low = LongVector.fromArray(LONG_SPECIES, aux, p1);
+                        p1 += lanes;
+                    }
+                    else
+                    {
+                        if (right + 1 - p2 < lanes)
+                        {
+                            break;
+                        }
+                        low = LongVector.fromArray(LONG_SPECIES, arr, p2);
+                        p2 += lanes;
+                    }
+                }
+                int pending = p1 - lanes;
+                high.intoArray(aux, pending);
+                for (int t = pending; t < pending + lanes; )
+                {
+                    long x = aux[t];
+                    if (p1 < length && aux[p1] < x && (p2 > right || aux[p1] <= arr[p2]))
+                    {
+                        arr[index++] = aux[p1++];
+                    }
+                    else if (p2 <= right && arr[p2] < x)
+                    {
+                        arr[index++] = arr[p2++];
+                    }
+                    else
+                    {
+                        arr[index++] = x;
+                        t++;
+                    }
+                }
+            }
+            while (p1 < length && p2 <= right)
+            {
+                arr[index++] = arr[p2] < aux[p1] ? arr[p2++] : aux[p1++];
+            }
+            while (p1 < length)
+            {
+                arr[index++] = aux[p1++];
+            }
+        }
+        
+        private static LongVector bitonicSort(LongVector v)
+        {
+            for (int k = 0; k < LONG_SWAP.length; k++)
+            {
+                LongVector swapped = v.rearrange(LONG_SWAP[k]);
+                v = v.min(swapped).blend(v.max(swapped), LONG_UPPER[k]);
+            }
+            return v;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.algo.adt.heap;
+
+import com.alog.adt.heap.DaryHeap;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * d叉堆测试
+ *
+ * @author lushenchen 2024/2/3 16:40
+ * @since 1.0.0
+ */
+public class DaryHeapTest
+{
+    public static void main(String[] args)
+    {
+        Random random = new Random(42);
+        for (int arity : new int[]{2, 4, 8})
+        {
+            // 与JDK的优先队列交替执行相同的操作，结果必须一致
+            DaryHeap<Integer> heap = new DaryHeap<>(arity, null, 0);
+            PriorityQueue<Integer> expected = new PriorityQueue<>();
+            boolean same = true;
+            for (int i = 0; i < 100000; i++)
+            {
+                if (random.nextInt(3) == 0)
+                {
+                    same &= Objects.equals(expected.poll(), heap.poll());
+                }
+                else
+                {
+                    int value = random.nextInt(1000);
+                    heap.offer(value);
+                    expected.offer(value);
+                }
+                same &= Objects.equals(expected.peek(), heap.peek()) && expected.size() == heap.size();
+            }
+            System.out.println(arity + "-ary offer/poll " + same);
+            
+            Integer[] values = new Integer[10000];
+            for (int i = 0; i < values.length; i++)
+            {
+                values[i] = random.nextInt();
+            }
+            DaryHeap<Integer> max = DaryHeap.heapify(values, arity, Collections.reverseOrder());
+            Integer[] polled = new Integer[values.length];
+            for (int i = 0; i < polled.length; i++)
+            {
+                polled[i] = max.poll();
+            }
+            Integer[] sorted = values.clone();
+            Arrays.sort(sorted, Collections.reverseOrder());
+            System.out.println(arity + "-ary heapify " + (Arrays.equals(sorted, polled) && max.isEmpty() && max.poll() == null));
+        }
+        
+        try
+        {
+            new DaryHeap<Integer>(3, null);
+            System.out.println("arity 3 false");
+        }
+        catch (IllegalArgumentException e)
+        {
+            System.out.println("arity 3 " + e.getMessage());
+        }
+    }
+}
@@ -2,6 +2,17 @@ package com.algo.adt.tree;
 
 import com.alog.adt.tree.bst.BinarySearchTree;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
 /**
  * 二叉查找树测试
  *
@@ -38,5 +49,255 @@ public class BinarySearchTreeTest
         System.out.println(bst.contains(8));
         System.out.println(bst.precursor(8));
         System.out.println(bst.successor(8));
+        System.out.println("height " + (bst.height() == 4));
+        
+        // 平衡模式：按升序插入不会退化，树高不超过1.44·log₂(n+2)
+        int n = 100000;
+        BinarySearchTree<Integer> ascending = new BinarySearchTree<>(true);
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < n; i++)
+        {
+            ascending.insert(i);
+            expected.add(i);
+        }
+        System.out.println("balanced ascending " + (ascending.inOrder().equals(expected) && ascending.height() <= maxAvlHeight(n)
+                && ascending.precursor(500) == 499 && ascending.successor(500) == 501 && ascending.getMax() == n - 1));
+        
+        // 随机顺序，包含重复的元素
+        Random random = new Random(42);
+        BinarySearchTree<Integer> shuffled = new BinarySearchTree<>(true);
+        TreeSet<Integer> set = new TreeSet<>();
+        for (int i = 0; i < n; i++)
+        {
+            int value = random.nextInt(n / 2);
+            shuffled.insert(value);
+            set.add(value);
+        }
+        System.out.println("balanced random " + (shuffled.inOrder().equals(new ArrayList<>(set))
+                && shuffled.height() <= maxAvlHeight(set.size()) && shuffled.getMin().equals(set.first())));
+        
+        // 删除：两种模式都和TreeSet对比，平衡模式删除后树高仍然满足AVL的上界
+        System.out.println("remove " + (checkRemove(new BinarySearchTree<Integer>(false))
+                && checkRemove(new BinarySearchTree<Integer>(true))));
+        
+        // 不平衡模式按升序插入退化成链表，深度远超递归实现的栈深度，循环实现不会栈溢出
+        int depth = 30000;
+        BinarySearchTree<Integer> chain = new BinarySearchTree<>();
+        for (int i = 0; i < depth; i++)
+        {
+            chain.insert(i);
+        }
+        boolean deep = chain.height() == depth && chain.contains(depth - 1) && chain.remove(depth / 2) && !chain.contains(depth / 2);
+        for (int i = depth - 1; i > depth / 2; i--)
+        {
+            deep &= chain.removeMax() == i;
+        }
+        System.out.println("deep chain " + (deep && chain.height() == depth / 2 && chain.getMax() == depth / 2 - 1
+                && chain.removeMin() == 0 && chain.getMin() == 1));
+        
+        BinarySearchTree<Integer> empty = new BinarySearchTree<>();
+        System.out.println("empty " + (empty.getMin() == null && empty.removeMin() == null
+                && empty.removeMax() == null && !empty.remove(1)));
+        
+        // 惰性遍历：和示例树的先序、中序、后序结果一致，可以只取前几个元素
+        System.out.println("pre order " + bst.preOrder().equals(Arrays.asList(8, 4, 2, 1, 3, 6, 5, 7, 12, 10, 9, 11, 14, 13, 15)));
+        System.out.println("post order " + bst.postOrder().equals(Arrays.asList(1, 3, 2, 5, 7, 6, 4, 9, 11, 10, 13, 15, 14, 12, 8)));
+        Iterator<Integer> first = bst.iterator();
+        System.out.println("early stop " + (first.next() == 1 && first.next() == 2 && first.next() == 3));
+        System.out.println("deep chain in order " + (chain.inOrder().size() == depth / 2 - 1 && chain.postOrder().get(0) == depth / 2 - 1
+                && chain.preOrder().get(0) == 1));
+        
+        // Spliterator：并行流的结果与中序遍历相同，拆分出的两部分都非空
+        System.out.println("parallel stream " + (shuffled.stream().parallel().collect(Collectors.toList()).equals(shuffled.inOrder())
+                && ascending.stream().parallel().count() == n && chain.stream().parallel().collect(Collectors.toList()).equals(chain.inOrder())));
+        Spliterator<Integer> suffix = ascending.spliterator();
+        Spliterator<Integer> prefix = suffix.trySplit();
+        final List<Integer> visited = new ArrayList<>();
+        Consumer<Integer> collector = new Consumer<Integer>()
+        {
+            @Override
+            public void accept(Integer value)
+            {
+                visited.add(value);
+            }
+        };
+        prefix.forEachRemaining(collector);
+        int prefixSize = visited.size();
+        suffix.forEachRemaining(collector);
+        System.out.println("split " + (prefixSize > n / 4 && prefixSize < n * 3 / 4 && visited.equals(expected)));
+        
+        boolean failFast = false;
+        Iterator<Integer> iterator = shuffled.iterator();
+        iterator.next();
+        shuffled.insert(-1);
+        try
+        {
+            iterator.next();
+        }
+        catch (ConcurrentModificationException e)
+        {
+            failFast = true;
+        }
+        System.out.println("fail fast " + failFast);
+        
+        // floor、ceiling、lower、higher对不在树中的元素也有效，和TreeSet对比
+        BinarySearchTree<Integer> evens = new BinarySearchTree<>(true);
+        TreeSet<Integer> evenSet = new TreeSet<>();
+        for (int i = 0; i < 1000; i += 2)
+        {
+            evens.insert(i);
+            evenSet.add(i);
+        }
+        boolean bounds = true;
+        for (int i = -2; i <= 1001; i++)
+        {
+            bounds &= same(evens.floor(i), evenSet.floor(i)) && same(evens.ceiling(i), evenSet.ceiling(i))
+                    && same(evens.lower(i), evenSet.lower(i)) && same(evens.higher(i), evenSet.higher(i));
+        }
+        System.out.println("floor ceiling " + (bounds && evens.precursor(501) == null && evens.precursor(500) == 498));
+        
+        // 游标：从不在树中的元素开始正向遍历区间，再反向走回来
+        BinarySearchTree<Integer>.Cursor cursor = evens.cursor(101);
+        List<Integer> range = new ArrayList<>();
+        for (; cursor.isValid() && cursor.get() <= 301; cursor.next())
+        {
+            range.add(cursor.get());
+        }
+        boolean backward = cursor.get() == 302;
+        for (int i = range.size() - 1; i >= 0; i--)
+        {
+            backward &= cursor.previous() && cursor.get().equals(range.get(i));
+        }
+        BinarySearchTree<Integer>.Cursor last = evens.cursorAtMax();
+        int count = 0;
+        do
+        {
+            count++;
+        }
+        while (last.previous());
+        System.out.println("cursor " + (range.equals(new ArrayList<>(evenSet.subSet(101, true, 301, true))) && backward
+                && count == evenSet.size() && !last.isValid() && evens.cursor().get() == 0 && !evens.cursor(999).isValid()));
+        
+        // 顺序统计：两种模式都在随机插入、删除后和TreeSet对比，不平衡模式的高度也沿路径维护
+        boolean outOfRange = false;
+        try
+        {
+            evens.select(evens.size());
+        }
+        catch (IndexOutOfBoundsException e)
+        {
+            outOfRange = true;
+        }
+        System.out.println("order statistics " + (checkOrderStatistics(new BinarySearchTree<Integer>(false))
+                && checkOrderStatistics(new BinarySearchTree<Integer>(true)) && outOfRange && evens.size() == 500
+                && evens.select(250) == 500 && evens.rank(501) == 251 && evens.countInRange(101, 199) == 49
+                && chain.size() == depth / 2 - 1 && chain.height() == depth / 2 - 1 && bst.size() == 15));
+    }
+    
+    /**
+     * 随机插入、删除后rank、select、countInRange和TreeSet对比
+     */
+    private static boolean checkOrderStatistics(BinarySearchTree<Integer> tree)
+    {
+        Random random = new Random(11);
+        TreeSet<Integer> set = new TreeSet<>();
+        for (int i = 0; i < 20000; i++)
+        {
+            int value = random.nextInt(3000);
+            if (random.nextInt(3) == 0)
+            {
+                tree.remove(value);
+                set.remove(value);
+            }
+            else
+            {
+                tree.insert(value);
+                set.add(value);
+            }
+        }
+        if (tree.size() != set.size())
+        {
+            return false;
+        }
+        List<Integer> sorted = new ArrayList<>(set);
+        for (int k = 0; k < sorted.size(); k++)
+        {
+            if (!tree.select(k).equals(sorted.get(k)) || tree.rank(sorted.get(k)) != k)
+            {
+                return false;
+            }
+        }
+        for (int i = 0; i < 2000; i++)
+        {
+            int lo = random.nextInt(3100) - 50, hi = lo + random.nextInt(500) - 50;
+            int expected = lo > hi ? 0 : set.subSet(lo, true, hi, true).size();
+            if (tree.countInRange(lo, hi) != expected || tree.rank(lo) != set.headSet(lo).size())
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static boolean same(Integer a, Integer b)
+    {
+        return a == null ? b == null : a.equals(b);
+    }
+    
+    /**
+     * 随机插入、删除，和TreeSet的结果对比
+     */
+    private static boolean checkRemove(BinarySearchTree<Integer> tree)
+    {
+        Random random = new Random(7);
+        TreeSet<Integer> set = new TreeSet<>();
+        for (int i = 0; i < 20000; i++)
+        {
+            int value = random.nextInt(2000);
+            int op = random.nextInt(8);
+            if (op < 3)
+            {
+                if (tree.remove(value) != set.remove(value))
+                {
+                    return false;
+                }
+            }
+            else if (op == 3)
+            {
+                Integer expected = set.pollFirst();
+                Integer actual = tree.removeMin();
+                if (expected == null ? actual != null : !expected.equals(actual))
+                {
+                    return false;
+                }
+            }
+            else if (op == 4)
+            {
+                Integer expected = set.pollLast();
+                Integer actual = tree.removeMax();
+                if (expected == null ? actual != null : !expected.equals(actual))
+                {
+                    return false;
+                }
+            }
+            else
+            {
+                tree.insert(value);
+                set.add(value);
+            }
+        }
+        if (tree.isBalanced() && tree.height() > maxAvlHeight(set.size()))
+        {
+            return false;
+        }
+        return tree.inOrder().equals(new ArrayList<>(set));
+    }
+    
+    /**
+     * n个节点的AVL树的最大高度
+     */
+    private static int maxAvlHeight(int n)
+    {
+        return (int) (1.4405 * Math.log(n + 2) / Math.log(2) - 0.3277);
     }
 }
@@ -0,0 +1,121 @@
+package com.algo.algorithm.sort;
+
+import com.alog.algorithm.sort.ExternalSort;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * 外部排序测试
+ *
+ * @author lushenchen 2024/1/22 20:40
+ * @since 1.0.0
+ */
+public class ExternalSortTest
+{
+    /**
+     * 记录长度：4字节编号 + 12字节键 + 4字节填充
+     */
+    private static final int RECORD_SIZE = 20;
+    
+    private static final int KEY_OFFSET = 4;
+    
+    private static final int KEY_LENGTH = 12;
+    
+    public static void main(String[] args) throws IOException
+    {
+        Random random = new Random(42);
+        Path directory = Files.createTempDirectory("external-sort");
+        Path input = directory.resolve("input.dat");
+        Path output = directory.resolve("output.dat");
+        try
+        {
+            // 键只取少数几个值，检查稳定性
+            byte[] records = new byte[200000 * RECORD_SIZE];
+            ByteBuffer buffer = ByteBuffer.wrap(records);
+            for (int i = 0; i < 200000; i++)
+            {
+                buffer.putInt(i);
+                buffer.putLong(random.nextInt(1000) * 0x0101010101010101L);
+                buffer.putInt(random.nextInt(3) - 1);
+                buffer.putInt(0);
+            }
+            Files.write(input, records);
+            byte[] expected = sortInMemory(records);
+            
+            // 单块：直接写入输出文件
+            ExternalSort externalSort = new ExternalSort(RECORD_SIZE, KEY_OFFSET, KEY_LENGTH, 64L * 1024 * 1024);
+            externalSort.sort(input, output);
+            System.out.println("single chunk " + Arrays.equals(expected, Files.readAllBytes(output)));
+            
+            // 多块：多个子文件一次归并
+            externalSort = new ExternalSort(RECORD_SIZE, KEY_OFFSET, KEY_LENGTH, 1024 * 1024);
+            externalSort.setTempDirectory(directory);
+            externalSort.sort(input, output);
+            System.out.println("multi chunk " + Arrays.equals(expected, Files.readAllBytes(output)));
+            
+            // 子文件数超过归并路数：多趟归并
+            externalSort = new ExternalSort(RECORD_SIZE, KEY_OFFSET, KEY_LENGTH, 128 * 1024);
+            externalSort.setTempDirectory(directory);
+            externalSort.sort(input, output);
+            System.out.println("multi pass " + Arrays.equals(expected, Files.readAllBytes(output)));
+            
+            // 临时文件已全部删除
+            try (DirectoryStream<Path> runs = Files.newDirectoryStream(directory, "run-*"))
+            {
+                System.out.println("temp files " + !runs.iterator().hasNext());
+            }
+            
+            Files.write(input, new byte[0]);
+            externalSort.sort(input, output);
+            System.out.println("empty " + (Files.size(output) == 0));
+        }
+        finally
+        {
+            Files.deleteIfExists(input);
+            Files.deleteIfExists(output);
+            Files.deleteIfExists(directory);
+        }
+    }
+    
+    /**
+     * 在内存中按键稳定排序，作为期望结果
+     */
+    private static byte[] sortInMemory(byte[] records)
+    {
+        int n = records.length / RECORD_SIZE;
+        byte[][] rows = new byte[n][];
+        for (int i = 0; i < n; i++)
+        {
+            rows[i] = Arrays.copyOfRange(records, i * RECORD_SIZE, (i + 1) * RECORD_SIZE);
+        }
+        Arrays.sort(rows, new Comparator<byte[]>()
+        {
+            @Override
+            public int compare(byte[] o1, byte[] o2)
+            {
+                for (int i = KEY_OFFSET; i < KEY_OFFSET + KEY_LENGTH; i++)
+                {
+                    int cmp = Integer.compare(o1[i] & 0xff, o2[i] & 0xff);
+                    if (cmp != 0)
+                    {
+                        return cmp;
+                    }
+                }
+                return 0;
+            }
+        });
+        byte[] sorted = new byte[records.length];
+        for (int i = 0; i < n; i++)
+        {
+            System.arraycopy(rows[i], 0, sorted, i * RECORD_SIZE, RECORD_SIZE);
+        }
+        return sorted;
+    }
+}
@@ -0,0 +1,115 @@
+package com.algo.algorithm.sort;
+
+import com.alog.algorithm.sort.IncrementalMerge;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 增量归并测试
+ *
+ * @author lushenchen 2024/2/10 21:30
+ * @since 1.0.0
+ */
+public class IncrementalMergeTest
+{
+    public static void main(String[] args)
+    {
+        Random random = new Random(42);
+        
+        // 原地归并：预留容量，分多批写入，与完整排序的结果一致
+        int[] ints = new int[200000];
+        long[] longs = new long[200000];
+        double[] doubles = new double[200000];
+        int size = 0;
+        boolean same = true;
+        while (size < ints.length)
+        {
+            int b = Math.min(ints.length - size, 1 + random.nextInt(size < 1000 ? 100 : 5000));
+            int[] batch = random.ints(b, -1000, 1000).toArray();
+            long[] longBatch = random.longs(b).toArray();
+            double[] doubleBatch = random.doubles(b, -1, 1).toArray();
+            if (size == 0)
+            {
+                doubleBatch[0] = Double.NaN;
+                doubleBatch[b - 1] = -0.0;
+            }
+            IncrementalMerge.mergeInto(longs, size, longBatch);
+            IncrementalMerge.mergeInto(doubles, size, doubleBatch);
+            size = IncrementalMerge.mergeInto(ints, size, batch);
+            same &= isSorted(ints, size);
+        }
+        int[] expected = ints.clone();
+        Arrays.sort(expected);
+        long[] expectedLongs = longs.clone();
+        Arrays.sort(expectedLongs);
+        double[] expectedDoubles = doubles.clone();
+        Arrays.sort(expectedDoubles);
+        System.out.println("int mergeInto " + (same && Arrays.equals(expected, ints)));
+        System.out.println("long mergeInto " + Arrays.equals(expectedLongs, longs));
+        System.out.println("double mergeInto " + Arrays.equals(expectedDoubles, doubles));
+        
+        // mergeInto对batch原地排序，merge不修改batch
+        int[] unsorted = {5, 3, 4};
+        IncrementalMerge.mergeInto(new int[5], 0, unsorted);
+        int[] kept = {5, 3, 4};
+        IncrementalMerge.merge(new int[]{1, 2}, kept);
+        long[] keptLongs = {5, 3, 4};
+        IncrementalMerge.merge(new long[]{1, 2}, keptLongs);
+        double[] keptDoubles = {5, 3, 4};
+        IncrementalMerge.merge(new double[]{1, 2}, keptDoubles);
+        System.out.println("batch " + (Arrays.equals(new int[]{3, 4, 5}, unsorted) && Arrays.equals(new int[]{5, 3, 4}, kept)
+                && Arrays.equals(new long[]{5, 3, 4}, keptLongs) && Arrays.equals(new double[]{5, 3, 4}, keptDoubles)));
+        
+        // 新元素全部小于或全部大于已有元素
+        int[] low = IncrementalMerge.merge(new int[]{10, 20, 30}, new int[]{3, 1, 2});
+        int[] high = IncrementalMerge.merge(new int[]{1, 2, 3}, new int[]{30, 10, 20});
+        int[] empty = IncrementalMerge.merge(new int[0], new int[]{2, 1});
+        System.out.println("int merge " + (Arrays.equals(new int[]{1, 2, 3, 10, 20, 30}, low)
+                && Arrays.equals(new int[]{1, 2, 3, 10, 20, 30}, high) && Arrays.equals(new int[]{1, 2}, empty)));
+        
+        // 对象：相等的新元素排在已有元素之后，同一批中保持原来的顺序
+        SortsTest.Item[] items = new SortsTest.Item[0];
+        SortsTest.Item[] all = new SortsTest.Item[0];
+        int id = 0;
+        boolean unchanged = true;
+        for (int round = 0; round < 50; round++)
+        {
+            SortsTest.Item[] batch = new SortsTest.Item[1 + random.nextInt(2000)];
+            for (int i = 0; i < batch.length; i++)
+            {
+                batch[i] = new SortsTest.Item(random.nextInt(100), id++);
+            }
+            SortsTest.Item[] original = batch.clone();
+            all = Arrays.copyOf(all, all.length + batch.length);
+            System.arraycopy(batch, 0, all, all.length - batch.length, batch.length);
+            items = IncrementalMerge.merge(items, batch, null);
+            unchanged &= Arrays.equals(original, batch);
+        }
+        SortsTest.Item[] stable = all.clone();
+        Arrays.sort(stable);
+        System.out.println("object merge " + (unchanged && Arrays.equals(stable, items)));
+        
+        try
+        {
+            IncrementalMerge.mergeInto(new int[4], 3, new int[2]);
+            System.out.println("capacity false");
+        }
+        catch (IllegalArgumentException e)
+        {
+            System.out.println("capacity " + e.getMessage());
+        }
+    }
+    
+    private static boolean isSorted(int[] arr, int size)
+    {
+        for (int i = 1; i < size; i++)
+        {
+            if (arr[i - 1] > arr[i])
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+}
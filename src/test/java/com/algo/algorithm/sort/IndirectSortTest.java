@@ -0,0 +1,147 @@
+package com.algo.algorithm.sort;
+
+import com.alog.algorithm.sort.IndirectSort;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * 间接排序测试
+ *
+ * @author lushenchen 2024/2/8 21:20
+ * @since 1.0.0
+ */
+public class IndirectSortTest
+{
+    public static void main(String[] args)
+    {
+        Random random = new Random(42);
+        int n = 100000;
+        // 少量不同的键，检查稳定性
+        final int[] ints = random.ints(n, -50, 50).toArray();
+        ints[0] = Integer.MIN_VALUE;
+        ints[1] = Integer.MAX_VALUE;
+        final long[] longs = random.longs(n, -50, 50).toArray();
+        longs[0] = Long.MIN_VALUE;
+        final double[] doubles = new double[n];
+        String[] names = new String[n];
+        for (int i = 0; i < n; i++)
+        {
+            doubles[i] = random.nextInt(100) - 50.5;
+            names[i] = "name" + i;
+        }
+        doubles[0] = Double.NaN;
+        doubles[1] = -0.0;
+        doubles[2] = 0.0;
+        doubles[3] = Double.NEGATIVE_INFINITY;
+        
+        // 与按键比较、键相同按下标比较的完整排序结果一致
+        Integer[] boxed = new Integer[n];
+        for (int i = 0; i < n; i++)
+        {
+            boxed[i] = ints[i];
+        }
+        Comparator<Integer> byInt = new Comparator<Integer>()
+        {
+            @Override
+            public int compare(Integer i, Integer j)
+            {
+                return Integer.compare(ints[i], ints[j]);
+            }
+        };
+        System.out.println("int " + Arrays.equals(expected(n, byInt), IndirectSort.argsort(ints)));
+        Comparator<Integer> byLong = new Comparator<Integer>()
+        {
+            @Override
+            public int compare(Integer i, Integer j)
+            {
+                return Long.compare(longs[i], longs[j]);
+            }
+        };
+        System.out.println("long " + Arrays.equals(expected(n, byLong), IndirectSort.argsort(longs)));
+        Comparator<Integer> byDouble = new Comparator<Integer>()
+        {
+            @Override
+            public int compare(Integer i, Integer j)
+            {
+                return Double.compare(doubles[i], doubles[j]);
+            }
+        };
+        System.out.println("double " + Arrays.equals(expected(n, byDouble), IndirectSort.argsort(doubles)));
+        System.out.println("boxed " + Arrays.equals(expected(n, byInt), IndirectSort.argsort(boxed)));
+        Comparator<Integer> byIntDesc = new Comparator<Integer>()
+        {
+            @Override
+            public int compare(Integer i, Integer j)
+            {
+                return Integer.compare(ints[j], ints[i]);
+            }
+        };
+        System.out.println("comparator " + Arrays.equals(expected(n, byIntDesc), IndirectSort.argsort(boxed, Collections.<Integer>reverseOrder())));
+        System.out.println("empty " + (IndirectSort.argsort(new long[0]).length == 0 && IndirectSort.argsort(new int[0]).length == 0));
+        
+        // 用同一个排列调整多个平行数组
+        int[] perm = IndirectSort.argsort(ints);
+        int[] permCopy = perm.clone();
+        int[] sortedInts = ints.clone();
+        long[] sortedLongs = longs.clone();
+        String[] sortedNames = names.clone();
+        IndirectSort.applyPermutationToAll(perm, sortedInts, sortedLongs, sortedNames);
+        boolean aligned = Arrays.equals(perm, permCopy);
+        for (int i = 0; i < n; i++)
+        {
+            aligned &= sortedInts[i] == ints[perm[i]] && sortedLongs[i] == longs[perm[i]] && sortedNames[i].equals(names[perm[i]]);
+        }
+        int[] expectedInts = ints.clone();
+        Arrays.sort(expectedInts);
+        System.out.println("applyPermutationToAll " + (aligned && Arrays.equals(expectedInts, sortedInts)));
+        
+        double[] sortedDoubles = doubles.clone();
+        IndirectSort.applyPermutation(IndirectSort.argsort(doubles), sortedDoubles);
+        double[] expectedDoubles = doubles.clone();
+        Arrays.sort(expectedDoubles);
+        String[] single = names.clone();
+        IndirectSort.applyPermutation(perm, single);
+        System.out.println("applyPermutation " + (Arrays.equals(expectedDoubles, sortedDoubles) && Arrays.equals(sortedNames, single)));
+        
+        try
+        {
+            IndirectSort.applyPermutation(new int[]{0, 2, 2}, new int[3]);
+            System.out.println("duplicate false");
+        }
+        catch (IllegalArgumentException e)
+        {
+            System.out.println("duplicate " + e.getMessage());
+        }
+        try
+        {
+            IndirectSort.applyPermutationToAll(new int[]{1, 0}, new int[2], new long[3]);
+            System.out.println("length false");
+        }
+        catch (IllegalArgumentException e)
+        {
+            System.out.println("length " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 对下标做稳定排序的期望结果
+     */
+    private static int[] expected(int n, Comparator<Integer> byKey)
+    {
+        Integer[] index = new Integer[n];
+        for (int i = 0; i < n; i++)
+        {
+            index[i] = i;
+        }
+        Arrays.sort(index, byKey);
+        int[] result = new int[n];
+        for (int i = 0; i < n; i++)
+        {
+            result[i] = index[i];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,159 @@
+package com.algo.algorithm.sort;
+
+import com.alog.algorithm.sort.KWayMerge;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * k路归并测试
+ *
+ * @author lushenchen 2024/2/12 21:40
+ * @since 1.0.0
+ */
+public class KWayMergeTest
+{
+    public static void main(String[] args)
+    {
+        Random random = new Random(42);
+        
+        // 不同的k，包括1和非2的幂，部分数据源为空
+        boolean ints = true, longs = true, doubles = true;
+        for (int k : new int[]{1, 2, 3, 7, 16, 100})
+        {
+            int[][] intSources = new int[k][];
+            long[][] longSources = new long[k][];
+            double[][] doubleSources = new double[k][];
+            for (int i = 0; i < k; i++)
+            {
+                int n = i % 5 == 4 ? 0 : random.nextInt(2000);
+                intSources[i] = random.ints(n, -100, 100).sorted().toArray();
+                longSources[i] = random.longs(n).sorted().toArray();
+                doubleSources[i] = random.doubles(n, -1, 1).toArray();
+                if (n > 2)
+                {
+                    doubleSources[i][0] = Double.NaN;
+                    doubleSources[i][1] = -0.0;
+                    doubleSources[i][2] = 0.0;
+                }
+                Arrays.sort(doubleSources[i]);
+            }
+            ints &= Arrays.equals(concatSorted(intSources), KWayMerge.merge(intSources));
+            longs &= Arrays.equals(concatSorted(longSources), KWayMerge.merge(longSources));
+            doubles &= Arrays.equals(concatSorted(doubleSources), KWayMerge.merge(doubleSources));
+        }
+        System.out.println("int " + ints);
+        System.out.println("long " + longs);
+        System.out.println("double " + doubles);
+        System.out.println("empty " + (KWayMerge.merge(new int[0][]).length == 0 && KWayMerge.merge(new int[3][0]).length == 0));
+        
+        // 流式输出
+        final long[] last = {Long.MIN_VALUE};
+        final boolean[] ordered = {true};
+        final int[] count = {0};
+        long[][] streamed = {random.longs(5000).sorted().toArray(), random.longs(3000).sorted().toArray()};
+        KWayMerge.merge(streamed, new LongConsumer()
+        {
+            @Override
+            public void accept(long value)
+            {
+                ordered[0] &= value >= last[0];
+                last[0] = value;
+                count[0]++;
+            }
+        });
+        System.out.println("long sink " + (ordered[0] && count[0] == 8000));
+        
+        // 对象：键相等时下标小的数据源在前，同一数据源内保持原来的顺序
+        int k = 9, id = 0;
+        SortsTest.Item[][] itemSources = new SortsTest.Item[k][];
+        List<SortsTest.Item> all = new ArrayList<>();
+        for (int i = 0; i < k; i++)
+        {
+            itemSources[i] = new SortsTest.Item[random.nextInt(3000)];
+            for (int j = 0; j < itemSources[i].length; j++)
+            {
+                itemSources[i][j] = new SortsTest.Item(random.nextInt(50), id++);
+            }
+            Arrays.sort(itemSources[i]);
+            all.addAll(Arrays.asList(itemSources[i]));
+        }
+        SortsTest.Item[] expected = all.toArray(new SortsTest.Item[0]);
+        Arrays.sort(expected);
+        SortsTest.Item[] merged = KWayMerge.merge(itemSources, null);
+        System.out.println("object " + (merged.getClass() == SortsTest.Item[].class && Arrays.equals(expected, merged)));
+        
+        // 迭代器数据源，按需读取
+        List<Iterator<SortsTest.Item>> iterators = new ArrayList<>();
+        for (SortsTest.Item[] source : itemSources)
+        {
+            iterators.add(Arrays.asList(source).iterator());
+        }
+        final List<SortsTest.Item> collected = new ArrayList<>();
+        KWayMerge.merge(iterators, null, new Consumer<SortsTest.Item>()
+        {
+            @Override
+            public void accept(SortsTest.Item item)
+            {
+                collected.add(item);
+            }
+        });
+        System.out.println("iterator " + Arrays.equals(expected, collected.toArray()));
+        
+        List<Iterator<String>> strings = new ArrayList<>();
+        strings.add(Arrays.asList("b", "d").iterator());
+        strings.add(Arrays.asList("a", "c", "e").iterator());
+        Iterator<String> lazy = KWayMerge.iterator(strings, null);
+        StringBuilder sb = new StringBuilder();
+        while (lazy.hasNext())
+        {
+            sb.append(lazy.next());
+        }
+        System.out.println("lazy " + "abcde".equals(sb.toString())
+                + " " + !KWayMerge.iterator(new ArrayList<Iterator<String>>(), null).hasNext());
+    }
+    
+    private static int[] concatSorted(int[][] sources)
+    {
+        int[] result = new int[0];
+        for (int[] source : sources)
+        {
+            int length = result.length;
+            result = Arrays.copyOf(result, length + source.length);
+            System.arraycopy(source, 0, result, length, source.length);
+        }
+        Arrays.sort(result);
+        return result;
+    }
+    
+    private static long[] concatSorted(long[][] sources)
+    {
+        long[] result = new long[0];
+        for (long[] source : sources)
+        {
+            int length = result.length;
+            result = Arrays.copyOf(result, length + source.length);
+            System.arraycopy(source, 0, result, length, source.length);
+        }
+        Arrays.sort(result);
+        return result;
+    }
+    
+    private static double[] concatSorted(double[][] sources)
+    {
+        double[] result = new double[0];
+        for (double[] source : sources)
+        {
+            int length = result.length;
+            result = Arrays.copyOf(result, length + source.length);
+            System.arraycopy(source, 0, result, length, source.length);
+        }
+        Arrays.sort(result);
+        return result;
+    }
+}
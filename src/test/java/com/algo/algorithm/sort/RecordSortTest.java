@@ -0,0 +1,185 @@
+package com.algo.algorithm.sort;
+
+import com.alog.algorithm.sort.RecordSort;
+import com.alog.algorithm.sort.Sorts;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * 定长记录原地排序测试
+ *
+ * @author lushenchen 2024/2/5 21:30
+ * @since 1.0.0
+ */
+public class RecordSortTest
+{
+    /**
+     * 记录长度：4字节编号 + 16字节键 + 44字节数据
+     */
+    private static final int RECORD_SIZE = 64;
+    
+    private static final int KEY_OFFSET = 4;
+    
+    private static final int KEY_LENGTH = 16;
+    
+    public static void main(String[] args) throws IOException
+    {
+        Random random = new Random(42);
+        int n = 50000;
+        // 键的前8个字节只取少数几个值，检查稳定性和基数排序的公共前缀
+        byte[] records = new byte[n * RECORD_SIZE];
+        ByteBuffer buffer = ByteBuffer.wrap(records);
+        for (int i = 0; i < n; i++)
+        {
+            buffer.putInt(i);
+            buffer.putLong(random.nextInt(8) * 0x0101010101010101L);
+            buffer.putLong(random.nextInt(5000) - 2500);
+            byte[] payload = new byte[RECORD_SIZE - KEY_OFFSET - KEY_LENGTH];
+            random.nextBytes(payload);
+            buffer.put(payload);
+        }
+        byte[] expected = sortInMemory(records);
+        
+        for (Sorts sorts : new Sorts[]{Sorts.Radix, Sorts.Quick, Sorts.Merge})
+        {
+            RecordSort recordSort = new RecordSort(RECORD_SIZE, KEY_OFFSET, KEY_LENGTH);
+            recordSort.setAlgorithm(sorts);
+            boolean stable = sorts == Sorts.Merge;
+            
+            byte[] heap = records.clone();
+            recordSort.sort(ByteBuffer.wrap(heap));
+            System.out.println(sorts + " heap " + check(expected, heap, stable));
+            
+            // 直接缓冲区，小端序，只排序position到limit之间的记录
+            ByteBuffer direct = ByteBuffer.allocateDirect(records.length + 2 * RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            direct.put(new byte[RECORD_SIZE]).put(records).put(new byte[RECORD_SIZE]);
+            ((Buffer) direct).position(RECORD_SIZE).limit(RECORD_SIZE + records.length);
+            recordSort.sort(direct);
+            boolean unchanged = direct.position() == RECORD_SIZE && direct.order() == ByteOrder.LITTLE_ENDIAN;
+            byte[] actual = new byte[records.length];
+            direct.get(actual);
+            System.out.println(sorts + " direct " + (unchanged && check(expected, actual, stable)));
+            
+            // 很少的记录、有序和逆序的记录
+            byte[] small = Arrays.copyOf(records, 10 * RECORD_SIZE);
+            recordSort.sort(ByteBuffer.wrap(small));
+            byte[] reversed = reverse(expected);
+            recordSort.sort(ByteBuffer.wrap(reversed));
+            byte[] sorted = expected.clone();
+            recordSort.sort(ByteBuffer.wrap(sorted));
+            System.out.println(sorts + " small/reversed/sorted " + (check(sortInMemory(Arrays.copyOf(records, 10 * RECORD_SIZE)), small, stable)
+                    && check(expected, reversed, false) && check(expected, sorted, stable)));
+        }
+        
+        // 内存映射的文件
+        Path file = Files.createTempFile("records-", ".dat");
+        try
+        {
+            Files.write(file, records);
+            new RecordSort(RECORD_SIZE, KEY_OFFSET, KEY_LENGTH).sort(file);
+            System.out.println("mapped file " + check(expected, Files.readAllBytes(file), false));
+        }
+        finally
+        {
+            Files.deleteIfExists(file);
+        }
+        
+        try
+        {
+            new RecordSort(RECORD_SIZE, KEY_OFFSET, KEY_LENGTH).sort(ByteBuffer.allocate(RECORD_SIZE + 1));
+            System.out.println("length false");
+        }
+        catch (IllegalArgumentException e)
+        {
+            System.out.println("length " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 稳定的算法结果必须与稳定排序完全一致，不稳定的算法键的顺序一致，且记录没有丢失或损坏
+     */
+    private static boolean check(byte[] expected, byte[] actual, boolean stable)
+    {
+        if (stable)
+        {
+            return Arrays.equals(expected, actual);
+        }
+        int n = expected.length / RECORD_SIZE;
+        for (int i = 0; i < n; i++)
+        {
+            int offset = i * RECORD_SIZE + KEY_OFFSET;
+            if (!Arrays.equals(Arrays.copyOfRange(expected, offset, offset + KEY_LENGTH), Arrays.copyOfRange(actual, offset, offset + KEY_LENGTH)))
+            {
+                return false;
+            }
+        }
+        return Arrays.equals(sortByRecord(expected), sortByRecord(actual));
+    }
+    
+    /**
+     * 按键的无符号字典序稳定排序
+     */
+    private static byte[] sortInMemory(byte[] records)
+    {
+        return sort(records, KEY_OFFSET, KEY_LENGTH);
+    }
+    
+    /**
+     * 按整条记录排序，用于比较两组记录是否相同
+     */
+    private static byte[] sortByRecord(byte[] records)
+    {
+        return sort(records, 0, RECORD_SIZE);
+    }
+    
+    private static byte[] sort(byte[] records, final int offset, final int length)
+    {
+        int n = records.length / RECORD_SIZE;
+        byte[][] split = new byte[n][];
+        for (int i = 0; i < n; i++)
+        {
+            split[i] = Arrays.copyOfRange(records, i * RECORD_SIZE, (i + 1) * RECORD_SIZE);
+        }
+        Arrays.sort(split, new Comparator<byte[]>()
+        {
+            @Override
+            public int compare(byte[] o1, byte[] o2)
+            {
+                for (int i = offset; i < offset + length; i++)
+                {
+                    int cmp = (o1[i] & 0xFF) - (o2[i] & 0xFF);
+                    if (cmp != 0)
+                    {
+                        return cmp;
+                    }
+                }
+                return 0;
+            }
+        });
+        byte[] sorted = new byte[records.length];
+        for (int i = 0; i < n; i++)
+        {
+            System.arraycopy(split[i], 0, sorted, i * RECORD_SIZE, RECORD_SIZE);
+        }
+        return sorted;
+    }
+    
+    private static byte[] reverse(byte[] records)
+    {
+        int n = records.length / RECORD_SIZE;
+        byte[] reversed = new byte[records.length];
+        for (int i = 0; i < n; i++)
+        {
+            System.arraycopy(records, i * RECORD_SIZE, reversed, (n - 1 - i) * RECORD_SIZE, RECORD_SIZE);
+        }
+        return reversed;
+    }
+}
@@ -0,0 +1,83 @@
+package com.algo.algorithm.sort;
+
+import com.alog.algorithm.sort.Selections;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+
+/**
+ * 选择算法测试
+ *
+ * @author lushenchen 2024/1/26 21:30
+ * @since 1.0.0
+ */
+public class SelectionsTest
+{
+    public static void main(String[] args)
+    {
+        Random random = new Random(42);
+        Integer[] values = new Integer[100000];
+        Integer[] duplicates = new Integer[100000];
+        Integer[] ascending = new Integer[100000];
+        for (int i = 0; i < values.length; i++)
+        {
+            values[i] = random.nextInt();
+            duplicates[i] = random.nextInt(5);
+            ascending[i] = i;
+        }
+        
+        System.out.println("select random " + checkSelect(values, random));
+        System.out.println("select duplicates " + checkSelect(duplicates, random));
+        System.out.println("select ascending " + checkSelect(ascending, random));
+        System.out.println("select median " + (Selections.select(new Integer[]{5, 1, 4, 2, 3}, 2) == 3));
+        
+        Integer[] expected = values.clone();
+        Arrays.sort(expected);
+        Integer[] smallest = Selections.topK(values, 100);
+        System.out.println("topK smallest " + Arrays.equals(Arrays.copyOf(expected, 100), smallest));
+        Integer[] largest = Selections.topK(values, 100, Collections.reverseOrder());
+        boolean ordered = true;
+        for (int i = 0; i < 100; i++)
+        {
+            ordered &= largest[i].equals(expected[expected.length - 1 - i]);
+        }
+        System.out.println("topK largest " + ordered);
+        System.out.println("topK all " + Arrays.equals(expected, Selections.topK(values, values.length)));
+        
+        Integer[] partial = values.clone();
+        Selections.partialSort(partial, 1000);
+        boolean untouched = true;
+        Integer[] rest = Arrays.copyOfRange(partial, 1000, partial.length);
+        Arrays.sort(rest);
+        untouched &= Arrays.equals(Arrays.copyOfRange(expected, 1000, expected.length), rest);
+        System.out.println("partialSort " + (Arrays.equals(Arrays.copyOf(expected, 1000), Arrays.copyOf(partial, 1000)) && untouched));
+    }
+    
+    /**
+     * 随机选择若干个位置，检查结果与完整排序一致，并且左右两侧已经分开
+     */
+    private static boolean checkSelect(Integer[] arr, Random random)
+    {
+        Integer[] expected = arr.clone();
+        Arrays.sort(expected);
+        for (int t = 0; t < 20; t++)
+        {
+            int k = t == 0 ? 0 : t == 1 ? arr.length - 1 : random.nextInt(arr.length);
+            Integer[] copy = arr.clone();
+            Integer value = Selections.select(copy, k);
+            if (!value.equals(expected[k]))
+            {
+                return false;
+            }
+            for (int i = 0; i < copy.length; i++)
+            {
+                if (i < k ? copy[i] > value : i > k && copy[i] < value)
+                {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,146 @@
+package com.algo.algorithm.sort;
+
+import com.alog.algorithm.sort.SortInstrumentation;
+import com.alog.algorithm.sort.SortListener;
+import com.alog.algorithm.sort.SortMetrics;
+import com.alog.algorithm.sort.Sorts;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 排序统计测试，系统属性必须在第一次使用排序之前设置
+ *
+ * @author lushenchen 2024/1/29 21:40
+ * @since 1.0.0
+ */
+public class SortInstrumentationTest
+{
+    public static void main(String[] args)
+    {
+        System.setProperty("com.alog.algorithm.sort.instrumentation", "true");
+        System.out.println("enabled " + SortInstrumentation.ENABLED);
+        
+        final List<SortMetrics> reports = new ArrayList<>();
+        SortListener listener = new SortListener()
+        {
+            @Override
+            public void sorted(SortMetrics metrics)
+            {
+                reports.add(metrics);
+            }
+        };
+        SortInstrumentation.addListener(listener);
+        
+        Random random = new Random(42);
+        Integer[] boxed = new Integer[1000];
+        final int[] ints = new int[1000];
+        for (int i = 0; i < boxed.length; i++)
+        {
+            boxed[i] = random.nextInt();
+            ints[i] = boxed[i];
+        }
+        
+        // 比较次数与调用方自己统计的一致
+        final long[] count = new long[1];
+        Comparator<Integer> counting = new Comparator<Integer>()
+        {
+            @Override
+            public int compare(Integer o1, Integer o2)
+            {
+                count[0]++;
+                return o1.compareTo(o2);
+            }
+        };
+        for (Sorts sorts : Sorts.values())
+        {
+            if (sorts == Sorts.Radix)
+            {
+                continue;
+            }
+            count[0] = 0;
+            reports.clear();
+            sorts.sort(boxed.clone(), 0, boxed.length, counting);
+            SortMetrics metrics = reports.get(0);
+            System.out.println(sorts + " comparisons " + (reports.size() == 1 && metrics.getComparisons() == count[0]));
+        }
+        
+        reports.clear();
+        Sorts.Insertion.sort(boxed.clone());
+        System.out.println("Insertion exchanges " + (reports.get(0).getExchanges() > 0 && reports.get(0).getScratchBytes() == 0));
+        
+        // 归并排序只分配一个一半长度的辅助数组
+        reports.clear();
+        Sorts.Merge.sort(ints.clone());
+        SortMetrics metrics = reports.get(0);
+        System.out.println(metrics);
+        System.out.println("Merge int scratch " + (metrics.getScratchBytes() == 16 + 500 * 4 && metrics.getElementType() == int.class));
+        
+        reports.clear();
+        Sorts.Quick.sort(ints.clone());
+        metrics = reports.get(0);
+        System.out.println(metrics);
+        System.out.println("Quick int " + (metrics.getComparisons() > 0 && metrics.getExchanges() > 0 && metrics.getCopies() == 0));
+        
+        reports.clear();
+        Sorts.Radix.sort(random.ints(10000).toArray());
+        metrics = reports.get(0);
+        System.out.println(metrics);
+        System.out.println("Radix int " + (metrics.getComparisons() == 0 && metrics.getScratchBytes() == 16 + 10000 * 4));
+        
+        // 两个线程同时排序，各自的计数与单线程时相同
+        reports.clear();
+        Sorts.Quick.sort(ints.clone());
+        final long expected = reports.get(0).getComparisons() + reports.get(0).getExchanges();
+        final boolean[] same = {true};
+        SortListener checker = new SortListener()
+        {
+            @Override
+            public void sorted(SortMetrics metrics)
+            {
+                if (metrics.getComparisons() + metrics.getExchanges() != expected)
+                {
+                    same[0] = false;
+                }
+            }
+        };
+        SortInstrumentation.removeListener(listener);
+        SortInstrumentation.addListener(checker);
+        Thread[] threads = new Thread[2];
+        for (int t = 0; t < threads.length; t++)
+        {
+            threads[t] = new Thread(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    for (int i = 0; i < 200; i++)
+                    {
+                        Sorts.Quick.sort(ints.clone());
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads)
+        {
+            try
+            {
+                thread.join();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+        SortInstrumentation.removeListener(checker);
+        System.out.println("threads " + same[0]);
+        
+        SortInstrumentation.removeListener(listener);
+        reports.clear();
+        Sorts.Heap.sort(ints.clone());
+        System.out.println("removed " + reports.isEmpty());
+    }
+}
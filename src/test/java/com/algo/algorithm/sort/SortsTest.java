@@ -0,0 +1,377 @@
+package com.algo.algorithm.sort;
+
+import com.alog.algorithm.sort.ParallelMergeSort;
+import com.alog.algorithm.sort.RadixSort;
+import com.alog.algorithm.sort.SortDecision;
+import com.alog.algorithm.sort.Sorts;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * 排序算法测试
+ *
+ * @author lushenchen 2024/1/8 10:12
+ * @since 1.0.0
+ */
+public class SortsTest
+{
+    private static final Sorts[] PRIMITIVE_SORTS = {Sorts.Insertion, Sorts.Shell, Sorts.Merge, Sorts.Quick, Sorts.Heap, Sorts.Auto};
+    
+    public static void main(String[] args)
+    {
+        Random random = new Random(42);
+        
+        Integer[] boxed = {8, 4, 12, 2, 6, 10, 14, 1, 3, 5, 7, 9, 11, 13, 15};
+        for (Sorts sorts : Sorts.values())
+        {
+            if (sorts == Sorts.Radix)
+            {
+                continue;
+            }
+            Integer[] copy = boxed.clone();
+            sorts.sort(copy);
+            System.out.println(sorts + " " + Arrays.toString(copy));
+        }
+        
+        System.out.println("-------------------------------");
+        
+        int[] ints = random.ints(10000, -1000, 1000).toArray();
+        long[] longs = random.longs(10000).toArray();
+        double[] doubles = random.doubles(10000, -1, 1).toArray();
+        // 特殊值：NaN、正负零、无穷
+        doubles[0] = Double.NaN;
+        doubles[1] = -0.0;
+        doubles[2] = 0.0;
+        doubles[3] = Double.NEGATIVE_INFINITY;
+        doubles[4] = Double.POSITIVE_INFINITY;
+        doubles[5] = -0.0;
+        doubles[6] = Double.NaN;
+        for (Sorts sorts : PRIMITIVE_SORTS)
+        {
+            System.out.println(sorts + " int " + checkInts(sorts, ints));
+            System.out.println(sorts + " int sorted " + checkInts(sorts, sorted(ints)));
+            System.out.println(sorts + " long " + checkLongs(sorts, longs));
+            System.out.println(sorts + " double " + checkDoubles(sorts, doubles));
+        }
+        // 基数排序：LSD、MSD、插入排序三种规模，包含负数和极值
+        int[] wide = random.ints(100000).toArray();
+        wide[0] = Integer.MIN_VALUE;
+        wide[1] = Integer.MAX_VALUE;
+        long[] wideLongs = random.longs(100000).toArray();
+        wideLongs[0] = Long.MIN_VALUE;
+        wideLongs[1] = Long.MAX_VALUE;
+        System.out.println("Radix int " + checkInts(Sorts.Radix, ints));
+        System.out.println("Radix int wide " + checkInts(Sorts.Radix, wide));
+        System.out.println("Radix int small " + checkInts(Sorts.Radix, Arrays.copyOf(wide, 20)));
+        System.out.println("Radix long " + checkLongs(Sorts.Radix, longs));
+        System.out.println("Radix long wide " + checkLongs(Sorts.Radix, wideLongs));
+        RadixSort radixSort = new RadixSort();
+        int[] slice = wide.clone();
+        radixSort.sort(slice, 500, 2500);
+        int[] expectedSlice = wide.clone();
+        Arrays.sort(expectedSlice, 500, 2500);
+        System.out.println("Radix int range " + Arrays.equals(expectedSlice, slice));
+        // 快速排序的块分割：随机、有序、逆序、少量不同值
+        int[] fewInts = random.ints(100000, 0, 4).toArray();
+        long[] fewLongs = random.longs(100000, 0, 4).toArray();
+        System.out.println("Quick int block " + (checkInts(Sorts.Quick, wide) && checkInts(Sorts.Quick, sorted(wide))
+                && checkInts(Sorts.Quick, reversed(sorted(wide))) && checkInts(Sorts.Quick, fewInts)));
+        long[] sortedLongs = wideLongs.clone();
+        Arrays.sort(sortedLongs);
+        System.out.println("Quick long block " + (checkLongs(Sorts.Quick, wideLongs) && checkLongs(Sorts.Quick, sortedLongs)
+                && checkLongs(Sorts.Quick, fewLongs)));
+        // 短数组覆盖排序网络的每一种长度和插入排序的截断，少量不同值检查相等元素和对象排序的稳定性
+        for (Sorts sorts : new Sorts[]{Sorts.Merge, Sorts.Quick})
+        {
+            boolean small = true;
+            for (int n = 0; n <= 40; n++)
+            {
+                for (int trial = 0; trial < 50; trial++)
+                {
+                    double[] smallDoubles = new double[n];
+                    Item[] smallItems = new Item[n];
+                    for (int i = 0; i < n; i++)
+                    {
+                        double[] specials = {Double.NaN, -0.0, 0.0, 1.5, -1.5};
+                        smallDoubles[i] = specials[random.nextInt(specials.length)];
+                        smallItems[i] = new Item(random.nextInt(4), i);
+                    }
+                    small &= checkInts(sorts, random.ints(n, 0, n / 2 + 1).toArray())
+                            && checkLongs(sorts, random.longs(n).toArray()) && checkDoubles(sorts, smallDoubles);
+                    Item[] stableItems = smallItems.clone();
+                    Arrays.sort(stableItems);
+                    Item[] sortedItems = smallItems.clone();
+                    sorts.sort(sortedItems);
+                    small &= sorts == Sorts.Merge ? Arrays.equals(stableItems, sortedItems) : isSorted(sortedItems, Comparator.<Item>naturalOrder());
+                }
+            }
+            System.out.println(sorts + " small " + small);
+        }
+        
+        System.out.println("-------------------------------");
+        
+        // 大量重复的键，检查稳定性：并行结果必须与顺序归并完全一致
+        Item[] items = new Item[100000];
+        for (int i = 0; i < items.length; i++)
+        {
+            items[i] = new Item(random.nextInt(100), i);
+        }
+        Item[] expected = items.clone();
+        Sorts.Merge.sort(expected);
+        Item[] actual = items.clone();
+        ParallelMergeSort parallelMergeSort;
+        try (ParallelMergeSort sorter = new ParallelMergeSort(4, 64))
+        {
+            sorter.sort(actual);
+            parallelMergeSort = sorter;
+        }
+        System.out.println("ParallelMerge stable " + Arrays.equals(expected, actual));
+        // 只关闭自己创建的线程池
+        ForkJoinPool callerPool = new ForkJoinPool(2);
+        new ParallelMergeSort(callerPool, 64).close();
+        new ParallelMergeSort().close();
+        System.out.println("ParallelMerge close " + (parallelMergeSort.getPool().isShutdown() && !callerPool.isShutdown()
+                && !ForkJoinPool.commonPool().isShutdown()));
+        callerPool.shutdown();
+        actual = items.clone();
+        Sorts.ParallelMerge.sort(actual);
+        System.out.println("ParallelMerge default " + Arrays.equals(expected, actual));
+        // 重复元素较多的对象数组，Auto选择的算法也必须稳定
+        Item[] duplicateItems = new Item[100000];
+        for (int i = 0; i < duplicateItems.length; i++)
+        {
+            duplicateItems[i] = new Item(random.nextInt(8), i);
+        }
+        Item[] duplicateExpected = duplicateItems.clone();
+        Sorts.Merge.sort(duplicateExpected);
+        SortDecision decision = SortDecision.decide(duplicateItems);
+        Sorts.Auto.sort(duplicateItems);
+        System.out.println("Auto stable duplicates " + ("duplicates".equals(decision.getReason())
+                && Arrays.equals(duplicateExpected, duplicateItems)));
+        actual = items.clone();
+        Sorts.Tim.sort(actual);
+        System.out.println("Tim stable " + Arrays.equals(expected, actual));
+        
+        // 部分有序：升序、降序子组交替，以及少量随机扰动
+        Item[] runs = new Item[100000];
+        for (int i = 0; i < runs.length; i++)
+        {
+            int block = i / 1000;
+            int key = block % 2 == 0 ? i : block * 1000 + 1000 - i % 1000;
+            runs[i] = new Item(random.nextInt(50) == 0 ? random.nextInt(runs.length) : key, i);
+        }
+        expected = runs.clone();
+        Sorts.Merge.sort(expected);
+        actual = runs.clone();
+        Sorts.Tim.sort(actual);
+        System.out.println("Tim runs " + Arrays.equals(expected, actual));
+        
+        // 有序、逆序和大量重复的输入，原来的快速排序会退化成O(n²)
+        Integer[] ascending = new Integer[1000000];
+        Integer[] descending = new Integer[1000000];
+        Integer[] duplicates = new Integer[1000000];
+        for (int i = 0; i < ascending.length; i++)
+        {
+            ascending[i] = i;
+            descending[i] = ascending.length - i;
+            duplicates[i] = i % 3;
+        }
+        System.out.println("Intro ascending " + check(Sorts.Intro, ascending));
+        System.out.println("Intro descending " + check(Sorts.Intro, descending));
+        System.out.println("Intro duplicates " + check(Sorts.Intro, duplicates));
+        
+        // 自适应排序的选择
+        System.out.println(SortDecision.decide(ascending));
+        System.out.println("Auto ascending " + (SortDecision.decide(ascending).getAlgorithm() == Sorts.Tim));
+        System.out.println("Auto descending " + (SortDecision.decide(descending).getAlgorithm() == Sorts.Tim));
+        System.out.println(SortDecision.decide(duplicates));
+        System.out.println("Auto duplicates " + (SortDecision.decide(duplicates).getAlgorithm() == Sorts.Tim));
+        System.out.println("Auto small " + (SortDecision.decide(boxed).getAlgorithm() == Sorts.Insertion));
+        System.out.println(SortDecision.decide(wide));
+        System.out.println("Auto int wide " + (SortDecision.decide(wide).getAlgorithm() == Sorts.Radix));
+        System.out.println("Auto int sorted " + (SortDecision.decide(sorted(ints)).getAlgorithm() == Sorts.Merge));
+        System.out.println("Auto double " + (SortDecision.decide(doubles).getAlgorithm() == Sorts.Quick));
+        System.out.println("Auto ascending " + check(Sorts.Auto, ascending));
+        System.out.println("Auto duplicates " + check(Sorts.Auto, duplicates));
+        System.out.println("Auto int wide " + checkInts(Sorts.Auto, wide));
+        System.out.println("Auto long wide " + checkLongs(Sorts.Auto, wideLongs));
+        
+        System.out.println("-------------------------------");
+        
+        // 使用比较器对区间排序，区间外的元素保持不变
+        Item[] buffer = items.clone();
+        Comparator<Item> byKeyDesc = new Comparator<Item>()
+        {
+            @Override
+            public int compare(Item o1, Item o2)
+            {
+                return Integer.compare(o2.key, o1.key);
+            }
+        };
+        for (Sorts sorts : Sorts.values())
+        {
+            if (sorts == Sorts.Radix)
+            {
+                continue;
+            }
+            int from = 100, to = sorts == Sorts.Bubble || sorts == Sorts.Selection ? 3000 : 90000;
+            Item[] copy = buffer.clone();
+            sorts.sort(copy, from, to, byKeyDesc);
+            boolean ordered = true;
+            for (int i = from + 1; i < to; i++)
+            {
+                ordered &= byKeyDesc.compare(copy[i - 1], copy[i]) <= 0;
+            }
+            boolean untouched = Arrays.equals(Arrays.copyOfRange(copy, 0, from), Arrays.copyOfRange(buffer, 0, from))
+                    && Arrays.equals(Arrays.copyOfRange(copy, to, copy.length), Arrays.copyOfRange(buffer, to, buffer.length));
+            System.out.println(sorts + " range " + (ordered && untouched));
+        }
+        
+        System.out.println("-------------------------------");
+        
+        // 按键排序时每个元素的键只计算一次，稳定的算法结果与按键比较的稳定排序相同
+        final int[] extracted = new int[1];
+        ToLongFunction<Item> longKey = new ToLongFunction<Item>()
+        {
+            @Override
+            public long applyAsLong(Item value)
+            {
+                extracted[0]++;
+                return -value.key;
+            }
+        };
+        Function<Item, String> stringKey = new Function<Item, String>()
+        {
+            @Override
+            public String apply(Item value)
+            {
+                extracted[0]++;
+                return String.valueOf(value.key);
+            }
+        };
+        Item[] byLong = Arrays.copyOf(items, 3000);
+        Arrays.sort(byLong, byKeyDesc);
+        Comparator<Item> byStringKey = Comparator.comparing(stringKey);
+        Item[] byString = Arrays.copyOf(items, 3000);
+        Arrays.sort(byString, byStringKey);
+        for (Sorts sorts : Sorts.values())
+        {
+            if (sorts == Sorts.Radix)
+            {
+                continue;
+            }
+            boolean stable = sorts == Sorts.Merge || sorts == Sorts.ParallelMerge || sorts == Sorts.Tim
+                    || sorts == Sorts.Insertion || sorts == Sorts.Bubble;
+            extracted[0] = 0;
+            Item[] copy = Arrays.copyOf(items, 3000);
+            sorts.sortByLongKey(copy, longKey);
+            boolean once = extracted[0] == copy.length;
+            boolean ordered = stable ? Arrays.equals(byLong, copy) : isSorted(copy, byKeyDesc);
+            extracted[0] = 0;
+            copy = Arrays.copyOf(items, 3000);
+            sorts.sortByKey(copy, stringKey);
+            once &= extracted[0] == copy.length;
+            ordered &= stable ? Arrays.equals(byString, copy) : isSorted(copy, byStringKey);
+            System.out.println(sorts + " by key " + (once && ordered));
+        }
+    }
+    
+    private static boolean isSorted(Item[] arr, Comparator<Item> c)
+    {
+        for (int i = 1; i < arr.length; i++)
+        {
+            if (c.compare(arr[i - 1], arr[i]) > 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static int[] sorted(int[] arr)
+    {
+        int[] copy = arr.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+    
+    private static int[] reversed(int[] arr)
+    {
+        int[] copy = new int[arr.length];
+        for (int i = 0; i < arr.length; i++)
+        {
+            copy[i] = arr[arr.length - 1 - i];
+        }
+        return copy;
+    }
+    
+    private static boolean check(Sorts sorts, Integer[] arr)
+    {
+        Integer[] expected = arr.clone();
+        Integer[] actual = arr.clone();
+        Arrays.sort(expected);
+        sorts.sort(actual);
+        return Arrays.equals(expected, actual);
+    }
+    
+    private static boolean checkInts(Sorts sorts, int[] arr)
+    {
+        int[] expected = arr.clone();
+        int[] actual = arr.clone();
+        Arrays.sort(expected);
+        sorts.sort(actual);
+        return Arrays.equals(expected, actual);
+    }
+    
+    private static boolean checkLongs(Sorts sorts, long[] arr)
+    {
+        long[] expected = arr.clone();
+        long[] actual = arr.clone();
+        Arrays.sort(expected);
+        sorts.sort(actual);
+        return Arrays.equals(expected, actual);
+    }
+    
+    private static boolean checkDoubles(Sorts sorts, double[] arr)
+    {
+        double[] expected = arr.clone();
+        double[] actual = arr.clone();
+        Arrays.sort(expected);
+        sorts.sort(actual);
+        // Arrays.equals(double[], double[]) 按位比较，能区分-0.0和0.0
+        return Arrays.equals(expected, actual);
+    }
+    
+    /**
+     * 只按key比较的元素，id记录原始位置，用来检查排序的稳定性
+     */
+    static class Item implements Comparable<Item>
+    {
+        final int key;
+        
+        final int id;
+        
+        Item(int key, int id)
+        {
+            this.key = key;
+            this.id = id;
+        }
+        
+        @Override
+        public int compareTo(Item o)
+        {
+            return Integer.compare(key, o.key);
+        }
+        
+        @Override
+        public String toString()
+        {
+            return key + "#" + id;
+        }
+    }
+}